@@ -26,6 +26,8 @@ public @interface Arg
 
     /**
      * Default value if the argument is not provided (only for optional arguments).
+     * Defaults of types with a registered {@link ArgumentParser} are parsed each time they are used, and an empty
+     * default leaves such an argument null.
      *
      * @return the default value as a string, or an empty string if not set.
      */
@@ -47,7 +49,8 @@ public @interface Arg
 
     /**
      * Name of a custom completion method in the same CommandHandler class.
-     * The method must be annotated with @TabCompletion and return List&lt;String&gt;.
+     * The method must be annotated with @TabCompletion and return List&lt;String&gt; or
+     * CompletableFuture&lt;List&lt;String&gt;&gt;.
      *
      * @return the name of the method to use for custom completions, or an empty string if not set.
      */
@@ -0,0 +1,16 @@
+package org.pistonworks.core.api.command;
+
+/**
+ * Thrown when a command argument is missing or cannot be converted to its parameter type.
+ * The registry reports it to the handler as an {@link CommandError.ErrorType#INVALID_ARGUMENTS} error.
+ */
+public class ArgumentParseException extends Exception
+{
+
+    private static final long serialVersionUID = 1L;
+
+    public ArgumentParseException(String message)
+    {
+        super(message);
+    }
+}
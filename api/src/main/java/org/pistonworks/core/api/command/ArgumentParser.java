@@ -0,0 +1,23 @@
+package org.pistonworks.core.api.command;
+
+/**
+ * Converts a raw command argument into a parameter value.
+ * <p>
+ * Parsers are resolved once per argument when a command is registered, so register custom parsers with
+ * {@link CommandRegistry#registerArgumentParser} before the handlers that use them.
+ *
+ * @param <T> the parameter type
+ */
+@FunctionalInterface
+public interface ArgumentParser<T>
+{
+    /**
+     * Parses an argument.
+     *
+     * @param value    the raw argument, possibly empty
+     * @param argument the argument name, for error messages
+     * @return the parsed value
+     * @throws ArgumentParseException if the value is not valid for the type
+     */
+    T parse(String value, String argument) throws ArgumentParseException;
+}
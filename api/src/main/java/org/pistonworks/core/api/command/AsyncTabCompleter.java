@@ -0,0 +1,30 @@
+package org.pistonworks.core.api.command;
+
+import org.pistonworks.core.api.model.CommandSender;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface for providing tab completions that are not available immediately, such as names loaded from a database.
+ * <p>
+ * Completions that do not arrive within the registry's completion timeout are replaced by the last cached result,
+ * or by no completions. Synchronous tab completion never waits for them; if the registry has a completion cache, a
+ * result that arrives later is cached for the next request, otherwise synchronous tab completion offers nothing for
+ * these arguments. Platforms with an asynchronous tab-complete event, such as Paper, complete these arguments off
+ * the main thread and wait for them.
+ */
+@FunctionalInterface
+public interface AsyncTabCompleter
+{
+    /**
+     * Starts computing completions for the given context.
+     *
+     * @param sender     the command sender requesting completions
+     * @param command    the command being completed
+     * @param args       the current arguments (the last one being partially typed)
+     * @param currentArg the argument currently being completed
+     * @return a future completed with the possible completions
+     */
+    CompletableFuture<List<String>> complete(CommandSender sender, String command, String[] args, String currentArg);
+}
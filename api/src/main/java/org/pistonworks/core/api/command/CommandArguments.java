@@ -0,0 +1,107 @@
+package org.pistonworks.core.api.command;
+
+/**
+ * Conversions from raw command arguments to parameter values.
+ * Shared by the reflective registration path and by executors generated at compile time, so both accept exactly
+ * the same input. An empty argument yields the type's default value.
+ */
+public final class CommandArguments
+{
+
+    private CommandArguments()
+    {
+    }
+
+    public static String parseString(String value)
+    {
+        return value.isEmpty() ? null : value;
+    }
+
+    public static int parseInt(String value, String typeName, String argument) throws ArgumentParseException
+    {
+        if (value.isEmpty())
+        {
+            return 0;
+        }
+        try
+        {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e)
+        {
+            throw invalid(typeName, argument);
+        }
+    }
+
+    public static long parseLong(String value, String typeName, String argument) throws ArgumentParseException
+    {
+        if (value.isEmpty())
+        {
+            return 0L;
+        }
+        try
+        {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e)
+        {
+            throw invalid(typeName, argument);
+        }
+    }
+
+    public static double parseDouble(String value, String typeName, String argument) throws ArgumentParseException
+    {
+        if (value.isEmpty())
+        {
+            return 0.0;
+        }
+        try
+        {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e)
+        {
+            throw invalid(typeName, argument);
+        }
+    }
+
+    public static float parseFloat(String value, String typeName, String argument) throws ArgumentParseException
+    {
+        if (value.isEmpty())
+        {
+            return 0.0f;
+        }
+        try
+        {
+            return Float.parseFloat(value);
+        } catch (NumberFormatException e)
+        {
+            throw invalid(typeName, argument);
+        }
+    }
+
+    public static boolean parseBoolean(String value)
+    {
+        return Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Creates the error for a required argument that was not given.
+     *
+     * @param argument the argument name
+     * @return the exception to throw
+     */
+    public static ArgumentParseException missing(String argument)
+    {
+        return new ArgumentParseException("Missing required argument: " + argument);
+    }
+
+    /**
+     * Creates the error for an argument that does not parse as its type.
+     *
+     * @param typeName the parameter type's simple name
+     * @param argument the argument name
+     * @return the exception to throw
+     */
+    public static ArgumentParseException invalid(String typeName, String argument)
+    {
+        return new ArgumentParseException("Invalid " + typeName + " for argument: " + argument);
+    }
+}
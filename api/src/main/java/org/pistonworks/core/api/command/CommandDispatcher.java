@@ -0,0 +1,91 @@
+package org.pistonworks.core.api.command;
+
+import org.pistonworks.core.api.model.CommandSender;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Compile-time description of a {@link CommandHandler}'s commands, generated by
+ * the {@code org.pistonworks.core.processor.CommandProcessor} from the {@code processor} artifact.
+ * <p>
+ * For a handler class {@code com.example.MyCommands}, the processor generates
+ * {@code com.example.MyCommands$$PistonCommands} and lists the handler class in {@link #INDEX_RESOURCE}.
+ * Each generated executor parses its arguments inline and calls the command method directly, and defaults are
+ * parsed at compile time. This interface is implemented by generated code and is not meant to be implemented by hand.
+ */
+public interface CommandDispatcher
+{
+
+    /**
+     * Resource listing the binary names of handler classes that have a generated dispatcher, one per line.
+     */
+    String INDEX_RESOURCE = "META-INF/piston/commands.index";
+
+    /**
+     * Suffix appended to a handler's binary class name to get its dispatcher class name.
+     */
+    String CLASS_SUFFIX = "$$PistonCommands";
+
+    /**
+     * Gets every @Command method declared by the handler class.
+     *
+     * @return the commands
+     */
+    List<CompiledCommand> commands();
+
+    /**
+     * A single @Command method.
+     *
+     * @param methodName       the command method's name
+     * @param info             the command metadata, with the usage string already generated
+     * @param executor         parses the arguments and calls the command method
+     * @param completer        calls the @TabCompletion methods referenced by the arguments
+     * @param asyncCompletions the indexes of the arguments whose @TabCompletion method returns a CompletableFuture
+     */
+    record CompiledCommand(String methodName, CommandInfo info, Executor executor, Completer completer,
+                           Set<Integer> asyncCompletions)
+    {
+    }
+
+    /**
+     * Parses raw arguments and runs a command method.
+     */
+    @FunctionalInterface
+    interface Executor
+    {
+        /**
+         * Runs the command.
+         *
+         * @param handler the handler instance
+         * @param sender  the command sender
+         * @param args    the raw arguments
+         * @throws ArgumentParseException if an argument is missing or invalid
+         * @throws Exception              if the command method throws
+         */
+        void execute(CommandHandler handler, CommandSender sender, String[] args) throws Exception;
+    }
+
+    /**
+     * Provides method-based tab completions for a command's arguments.
+     */
+    @FunctionalInterface
+    interface Completer
+    {
+        /**
+         * Gets completions for one argument from its @TabCompletion method.
+         *
+         * @param handler    the handler instance
+         * @param sender     the command sender
+         * @param command    the command label
+         * @param args       the arguments typed so far
+         * @param argIndex   the index of the argument being completed
+         * @param currentArg the partial argument being completed
+         * @return a future of the completions, or null if the argument has no completion method
+         * @throws Exception if the completion method throws
+         */
+        CompletableFuture<List<String>> complete(CommandHandler handler, CommandSender sender, String command, String[] args,
+                              int argIndex, String currentArg) throws Exception;
+    }
+}
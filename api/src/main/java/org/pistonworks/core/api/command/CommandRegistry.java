@@ -3,6 +3,7 @@ package org.pistonworks.core.api.command;
 import org.pistonworks.core.api.model.CommandSender;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Enhanced command registry that supports annotation-based command registration
@@ -48,6 +49,26 @@ public interface CommandRegistry
      */
     void registerTabCompleter(String type, TabCompleter completer);
 
+    /**
+     * Registers a custom tab completer whose completions are computed asynchronously.
+     *
+     * @param type      the argument type (e.g., "player", "world")
+     * @param completer the asynchronous tab completer
+     */
+    void registerAsyncTabCompleter(String type, AsyncTabCompleter completer);
+
+    /**
+     * Registers a parser for a custom argument type.
+     * Only commands registered afterwards use it, since parsers are resolved when a command is registered.
+     * The parsers for String and the primitive and boxed number and boolean types are built in and cannot be
+     * replaced.
+     *
+     * @param type   the parameter type
+     * @param parser the argument parser
+     * @param <T>    the parameter type
+     */
+    <T> void registerArgumentParser(Class<T> type, ArgumentParser<? extends T> parser);
+
     /**
      * Executes a command with automatic argument parsing and validation.
      *
@@ -66,6 +87,20 @@ public interface CommandRegistry
      */
     List<String> getTabCompletions(CommandSender sender, String commandLine);
 
+    /**
+     * Gets tab completions for a command, waiting for asynchronous completion sources up to the completion timeout.
+     * Use this from threads that may wait, such as an asynchronous tab-complete event; the synchronous variant never
+     * waits and falls back to cached results instead.
+     *
+     * @param sender      the command sender
+     * @param commandLine the current command line being typed
+     * @return a future completed with the list of possible completions
+     */
+    default CompletableFuture<List<String>> getTabCompletionsAsync(CommandSender sender, String commandLine)
+    {
+        return CompletableFuture.completedFuture(getTabCompletions(sender, commandLine));
+    }
+
     /**
      * Gets all registered command names.
      *
@@ -0,0 +1,175 @@
+package org.pistonworks.core.api.command;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Case-insensitive radix trie of command names and aliases, used to complete a command name while it is typed.
+ * <p>
+ * Each edge holds the longest run of characters shared by every name below it, and children are kept in character
+ * order, so walking a subtree yields its names already sorted. Completing a prefix costs the length of the prefix
+ * plus the number of results returned.
+ */
+final class CommandTrie
+{
+    private final Node root = new Node("");
+
+    /**
+     * Adds a name. Adding a name that is already present has no effect.
+     *
+     * @param name the command name or alias
+     */
+    synchronized void add(String name)
+    {
+        String key = name.toLowerCase();
+        Node node = root;
+        int index = 0;
+        while (index < key.length())
+        {
+            Node child = node.children.get(key.charAt(index));
+            if (child == null)
+            {
+                child = new Node(key.substring(index));
+                child.name = key;
+                node.children.put(key.charAt(index), child);
+                return;
+            }
+
+            int common = commonPrefix(child.label, key, index);
+            if (common < child.label.length())
+            {
+                // Split the edge where the new name diverges
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                node.children.put(split.label.charAt(0), split);
+                child = split;
+            }
+            node = child;
+            index += common;
+        }
+        node.name = key;
+    }
+
+    /**
+     * Removes a name, merging edges left with a single child.
+     *
+     * @param name the command name or alias
+     */
+    synchronized void remove(String name)
+    {
+        String key = name.toLowerCase();
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        int index = 0;
+        while (index < key.length())
+        {
+            Node child = node.children.get(key.charAt(index));
+            if (child == null || !key.startsWith(child.label, index))
+            {
+                return;
+            }
+            path.push(node);
+            node = child;
+            index += child.label.length();
+        }
+        if (node.name == null)
+        {
+            return;
+        }
+
+        node.name = null;
+        if (node.children.isEmpty() && node != root)
+        {
+            Node parent = path.pop();
+            parent.children.remove(node.label.charAt(0));
+            node = parent;
+        }
+        if (node != root && node.name == null && node.children.size() == 1)
+        {
+            Node child = node.children.values().iterator().next();
+            node.label = node.label + child.label;
+            node.name = child.name;
+            node.children = child.children;
+        }
+    }
+
+    /**
+     * Gets the names starting with a prefix, in sorted order.
+     *
+     * @param prefix the prefix typed so far
+     * @param limit  the maximum number of names to return
+     * @return the matching names, lower case
+     */
+    synchronized List<String> complete(String prefix, int limit)
+    {
+        String key = prefix.toLowerCase();
+        Node node = root;
+        int index = 0;
+        while (index < key.length())
+        {
+            Node child = node.children.get(key.charAt(index));
+            if (child == null)
+            {
+                return Collections.emptyList();
+            }
+
+            // The prefix may end part way along an edge, in which case the whole subtree matches
+            int length = Math.min(child.label.length(), key.length() - index);
+            if (!child.label.regionMatches(0, key, index, length))
+            {
+                return Collections.emptyList();
+            }
+            node = child;
+            index += length;
+        }
+
+        List<String> names = new ArrayList<>();
+        collect(node, names, limit);
+        return names;
+    }
+
+    private static void collect(Node node, List<String> names, int limit)
+    {
+        if (node.name != null && names.size() < limit)
+        {
+            names.add(node.name);
+        }
+        for (Node child : node.children.values())
+        {
+            if (names.size() >= limit)
+            {
+                return;
+            }
+            collect(child, names, limit);
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int offset)
+    {
+        int length = Math.min(label.length(), key.length() - offset);
+        int common = 0;
+        while (common < length && label.charAt(common) == key.charAt(offset + common))
+        {
+            common++;
+        }
+        return common;
+    }
+
+    private static final class Node
+    {
+        private String label;
+        private String name;
+        private Map<Character, Node> children = new TreeMap<>();
+
+        private Node(String label)
+        {
+            this.label = label;
+        }
+    }
+}
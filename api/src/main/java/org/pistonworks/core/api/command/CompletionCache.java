@@ -0,0 +1,449 @@
+package org.pistonworks.core.api.command;
+
+import org.pistonworks.core.api.model.CommandSender;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded cache of tab-completion results, so that expensive completion sources are not queried on every keystroke.
+ * <p>
+ * Results are cached per command and argument, keyed by the arguments typed so far. Every argument has a source:
+ * its {@link Arg#completionMethod()} for {@link Arg.CompletionType#METHOD} completions, otherwise the lower-case
+ * name of its {@link Arg.CompletionType}, the same name tab completers are registered under. Method sources are
+ * cached per sender since the method receives the sender, and all other sources are shared between senders;
+ * both can be overridden per source.
+ * <p>
+ * Entries expire after their source's time to live, and the least recently used entries are evicted beyond the
+ * size bound. An expired result is kept until it is replaced, as the fallback for a reload that does not finish in
+ * time. Platforms invalidate built-in sources such as {@code "player"} and {@code "world"} when players join
+ * or quit and worlds load or unload; plugins should call {@link #invalidate(String)} when the data behind their
+ * own completion methods changes.
+ */
+public final class CompletionCache
+{
+
+    private static final Set<String> TYPE_SOURCES = Arrays.stream(Arg.CompletionType.values())
+            .map(type -> type.name().toLowerCase())
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final int maxEntries;
+    private final long defaultTtlNanos;
+    private final Map<String, Long> ttlNanos;
+    private final Map<String, Boolean> perSender;
+    private final LinkedHashMap<Key, Cached> entries;
+    private final Map<String, Long> generations = new HashMap<>();
+    private long epoch;
+
+    private CompletionCache(Builder builder)
+    {
+        this.maxEntries = builder.maxEntries;
+        this.defaultTtlNanos = builder.ttl.toNanos();
+        this.ttlNanos = Map.copyOf(builder.ttls);
+        this.perSender = Map.copyOf(builder.perSender);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Cached> eldest)
+            {
+                return size() > CompletionCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Creates a builder with the default settings: 1024 entries, cached for 10 seconds.
+     *
+     * @return a new builder instance
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Gets the completion source of an argument.
+     *
+     * @param argument the argument
+     * @return the completion method name for method completions, otherwise the lower-case completion type
+     */
+    public static String sourceOf(CommandInfo.ArgumentInfo argument)
+    {
+        if (argument.getCompletionType() == Arg.CompletionType.METHOD && !argument.getCompletionMethod().isEmpty())
+        {
+            return argument.getCompletionMethod();
+        }
+        return argument.getCompletionType().name().toLowerCase();
+    }
+
+    /**
+     * Gets cached completions, computing and caching them on a miss.
+     * The loader runs without holding the cache's lock, so a slow source does not block other lookups. If the same
+     * completions are already being loaded, that load is waited for instead of starting another.
+     *
+     * @param command  the command name
+     * @param argIndex the index of the argument being completed
+     * @param source   the argument's completion source
+     * @param sender   the sender requesting completions
+     * @param args     the arguments typed so far, the last one being completed
+     * @param loader   computes the completions on a miss
+     * @return the completions, read-only
+     */
+    public List<String> get(String command, int argIndex, String source, CommandSender sender, String[] args,
+                            Supplier<List<String>> loader)
+    {
+        long ttl = ttlNanos.getOrDefault(source, defaultTtlNanos);
+        if (ttl <= 0)
+        {
+            return loader.get();
+        }
+
+        Key key = key(command, argIndex, source, sender, args);
+        Lookup lookup = lookup(key);
+        if (lookup.fresh != null)
+        {
+            return lookup.fresh;
+        }
+        if (!lookup.owner)
+        {
+            try
+            {
+                return lookup.loading.join();
+            } catch (CompletionException | CancellationException e)
+            {
+                // The shared load failed; it is not retried for the other callers, so compute it here
+                return loader.get();
+            }
+        }
+
+        try
+        {
+            List<String> completions = loader.get();
+            return finish(key, lookup, completions, null, ttl);
+        } catch (RuntimeException | Error e)
+        {
+            finish(key, lookup, null, e, ttl);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets cached completions, starting an asynchronous load on a miss. Concurrent misses for the same completions
+     * share one load.
+     * A load that does not finish within the timeout yields the expired result, if any, or no completions; it keeps
+     * running and is cached when it finishes, unless the cache was invalidated in the meantime.
+     *
+     * @param command  the command name
+     * @param argIndex the index of the argument being completed
+     * @param source   the argument's completion source
+     * @param sender   the sender requesting completions
+     * @param args     the arguments typed so far, the last one being completed
+     * @param loader   starts computing the completions on a miss
+     * @param timeout  how long to wait for the loader; zero to only use a result that is already available
+     * @return a future of the completions, read-only
+     */
+    public CompletableFuture<List<String>> getAsync(String command, int argIndex, String source, CommandSender sender,
+                                                    String[] args, Supplier<CompletableFuture<List<String>>> loader,
+                                                    Duration timeout)
+    {
+        long ttl = ttlNanos.getOrDefault(source, defaultTtlNanos);
+        if (ttl <= 0)
+        {
+            return withFallback(loader.get(), timeout, Collections.emptyList());
+        }
+
+        Key key = key(command, argIndex, source, sender, args);
+        Lookup lookup = lookup(key);
+        if (lookup.fresh != null)
+        {
+            return CompletableFuture.completedFuture(lookup.fresh);
+        }
+        List<String> fallback = lookup.expired != null ? lookup.expired : Collections.emptyList();
+        if (lookup.owner)
+        {
+            CompletableFuture<List<String>> started;
+            try
+            {
+                started = loader.get();
+            } catch (RuntimeException e)
+            {
+                started = CompletableFuture.failedFuture(e);
+            }
+            started.whenComplete((completions, error) -> finish(key, lookup, completions, error, ttl));
+        }
+        return withFallback(lookup.loading, timeout, fallback);
+    }
+
+    /**
+     * Bounds how long a completion future is waited for. The returned future completes with the fallback if the
+     * original fails or does not complete within the timeout; the original is left running.
+     */
+    static <T> CompletableFuture<T> withFallback(CompletableFuture<T> future, Duration timeout, T fallback)
+    {
+        CompletableFuture<T> result = future.exceptionally(e -> fallback);
+        if (result.isDone())
+        {
+            return result;
+        }
+        if (timeout.isZero() || timeout.isNegative())
+        {
+            return CompletableFuture.completedFuture(fallback);
+        }
+        return result.completeOnTimeout(fallback, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private Key key(String command, int argIndex, String source, CommandSender sender, String[] args)
+    {
+        String scope = isPerSender(source) ? sender.getName() : null;
+        return new Key(command.toLowerCase(), argIndex, source, scope, String.join(" ", args));
+    }
+
+    /**
+     * Finds a fresh result, or else the load to wait for, registering a new one if none is running.
+     */
+    private Lookup lookup(Key key)
+    {
+        synchronized (entries)
+        {
+            Cached cached = entries.get(key);
+            if (cached != null && cached.completions != null && System.nanoTime() - cached.expiresAt < 0)
+            {
+                return new Lookup(cached.completions, null, null, false, 0);
+            }
+            List<String> expired = cached != null ? cached.completions : null;
+            if (cached != null && cached.loading != null)
+            {
+                return new Lookup(null, expired, cached.loading, false, 0);
+            }
+
+            CompletableFuture<List<String>> loading = new CompletableFuture<>();
+            if (cached == null)
+            {
+                cached = new Cached();
+                entries.put(key, cached);
+            }
+            cached.loading = loading;
+            return new Lookup(null, expired, loading, true, generation(key.source));
+        }
+    }
+
+    /**
+     * Completes a load started by {@link #lookup(Key)}, caching its result unless the source was invalidated since
+     * the load started.
+     */
+    private List<String> finish(Key key, Lookup lookup, List<String> completions, Throwable error, long ttl)
+    {
+        List<String> copy = error == null ? Collections.unmodifiableList(new ArrayList<>(completions)) : null;
+        synchronized (entries)
+        {
+            Cached cached = entries.get(key);
+            if (cached != null && cached.loading == lookup.loading)
+            {
+                cached.loading = null;
+                if (copy != null && generation(key.source) == lookup.generation)
+                {
+                    cached.completions = copy;
+                    cached.expiresAt = System.nanoTime() + ttl;
+                } else if (cached.completions == null)
+                {
+                    entries.remove(key);
+                }
+            }
+        }
+
+        if (copy != null)
+        {
+            lookup.loading.complete(copy);
+        } else
+        {
+            lookup.loading.completeExceptionally(error);
+        }
+        return copy;
+    }
+
+    /**
+     * Gets the number of invalidations that affected a source. Both counters only grow, so their sum changes
+     * whenever either does. Must be called while holding the lock on {@link #entries}.
+     */
+    private long generation(String source)
+    {
+        return epoch + generations.getOrDefault(source, 0L);
+    }
+
+    /**
+     * Drops every cached result of a completion source, such as {@code "player"} or a completion method name.
+     * Loads of the source that are still running are not cached when they finish, since they may have read the data
+     * that changed.
+     *
+     * @param source the completion source
+     */
+    public void invalidate(String source)
+    {
+        synchronized (entries)
+        {
+            generations.merge(source, 1L, Long::sum);
+            entries.keySet().removeIf(key -> key.source.equals(source));
+        }
+    }
+
+    /**
+     * Drops every cached result of a command. Loads that are still running for any command are not cached when they
+     * finish.
+     *
+     * @param command the command name
+     */
+    public void invalidateCommand(String command)
+    {
+        String name = command.toLowerCase();
+        synchronized (entries)
+        {
+            epoch++;
+            entries.keySet().removeIf(key -> key.command.equals(name));
+        }
+    }
+
+    /**
+     * Drops every cached result.
+     */
+    public void invalidateAll()
+    {
+        synchronized (entries)
+        {
+            epoch++;
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the number of cached results, including expired ones not evicted yet and loads still running.
+     *
+     * @return the number of cache entries
+     */
+    public int size()
+    {
+        synchronized (entries)
+        {
+            return entries.size();
+        }
+    }
+
+    private boolean isPerSender(String source)
+    {
+        Boolean override = perSender.get(source);
+        return override != null ? override : !TYPE_SOURCES.contains(source);
+    }
+
+    /**
+     * Settings for a {@link CompletionCache}.
+     */
+    public static final class Builder
+    {
+        private int maxEntries = 1024;
+        private Duration ttl = Duration.ofSeconds(10);
+        private final Map<String, Long> ttls = new HashMap<>();
+        private final Map<String, Boolean> perSender = new HashMap<>();
+
+        private Builder()
+        {
+        }
+
+        /**
+         * Sets the maximum number of cached results.
+         *
+         * @param maxEntries the maximum number of entries, at least 1
+         * @return this builder for chaining
+         */
+        public Builder maxEntries(int maxEntries)
+        {
+            if (maxEntries < 1)
+            {
+                throw new IllegalArgumentException("maxEntries must be at least 1");
+            }
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Sets how long results are cached, unless their source has its own time to live.
+         *
+         * @param ttl the time to live
+         * @return this builder for chaining
+         */
+        public Builder ttl(Duration ttl)
+        {
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Sets how long results of one completion source are cached. A zero duration disables caching for it.
+         *
+         * @param source the completion source
+         * @param ttl    the time to live
+         * @return this builder for chaining
+         */
+        public Builder ttl(String source, Duration ttl)
+        {
+            ttls.put(source, ttl.toNanos());
+            return this;
+        }
+
+        /**
+         * Sets whether results of a completion source depend on the sender and are cached per sender.
+         *
+         * @param source    the completion source
+         * @param perSender true to cache per sender, false to share results between senders
+         * @return this builder for chaining
+         */
+        public Builder perSender(String source, boolean perSender)
+        {
+            this.perSender.put(source, perSender);
+            return this;
+        }
+
+        /**
+         * Creates the cache.
+         *
+         * @return a new cache
+         */
+        public CompletionCache build()
+        {
+            return new CompletionCache(this);
+        }
+    }
+
+    private record Key(String command, int argIndex, String source, String scope, String input)
+    {
+    }
+
+    /**
+     * A cached result and the load replacing it, guarded by the lock on {@link #entries}.
+     */
+    private static final class Cached
+    {
+        private List<String> completions;
+        private long expiresAt;
+        private CompletableFuture<List<String>> loading;
+    }
+
+    /**
+     * The outcome of a lookup: a fresh result, or the load to wait for, which the caller has to run if it owns it.
+     */
+    private record Lookup(List<String> fresh, List<String> expired, CompletableFuture<List<String>> loading,
+                          boolean owner, long generation)
+    {
+    }
+}
@@ -1,10 +1,13 @@
 package org.pistonworks.core.api.command;
 
 import org.pistonworks.core.api.model.CommandSender;
+import org.pistonworks.core.api.processor.GeneratedClasses;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -14,17 +17,55 @@ import java.util.stream.Collectors;
  */
 public class DefaultCommandRegistry implements CommandRegistry
 {
+    private static final ClassValue<Optional<CommandDispatcher>> DISPATCHERS = new ClassValue<>()
+    {
+        @Override
+        protected Optional<CommandDispatcher> computeValue(Class<?> type)
+        {
+            return Optional.ofNullable(GeneratedClasses.load(type, CommandDispatcher.INDEX_RESOURCE,
+                    CommandDispatcher.CLASS_SUFFIX, CommandDispatcher.class));
+        }
+    };
+
     private final Map<String, RegisteredCommand> commands = new ConcurrentHashMap<>();
-    private final Map<String, TabCompleter> tabCompleters = new ConcurrentHashMap<>();
+    private final CommandTrie commandTrie = new CommandTrie();
+    private final Map<String, AsyncTabCompleter> tabCompleters = new ConcurrentHashMap<>();
+    private final Set<String> asyncTabCompleters = ConcurrentHashMap.newKeySet();
+    private final Map<Class<?>, ArgumentParser<?>> argumentParsers = new ConcurrentHashMap<>();
     private final Map<CommandHandler, Set<String>> handlerCommands = new ConcurrentHashMap<>();
+    private volatile CompletionCache completionCache;
+    private volatile Duration completionTimeout = Duration.ofMillis(500);
 
     public DefaultCommandRegistry()
     {
         // Register built-in tab completers
-        registerTabCompleter("boolean", (sender, command, args, currentArg) ->
+        tabCompleters.put("boolean", (sender, command, args, currentArg) -> CompletableFuture.completedFuture(
                 Arrays.asList("true", "false").stream()
                         .filter(s -> s.toLowerCase().startsWith(currentArg.toLowerCase()))
-                        .collect(Collectors.toList()));
+                        .collect(Collectors.toList())));
+
+        // Register built-in argument parsers; boxed types take an empty argument as null
+        argumentParsers.put(String.class, (ArgumentParser<String>) (value, argument) -> CommandArguments.parseString(value));
+        argumentParsers.put(int.class, (ArgumentParser<Integer>) (value, argument) ->
+                CommandArguments.parseInt(value, "int", argument));
+        argumentParsers.put(Integer.class, (ArgumentParser<Integer>) (value, argument) ->
+                value.isEmpty() ? null : CommandArguments.parseInt(value, "Integer", argument));
+        argumentParsers.put(long.class, (ArgumentParser<Long>) (value, argument) ->
+                CommandArguments.parseLong(value, "long", argument));
+        argumentParsers.put(Long.class, (ArgumentParser<Long>) (value, argument) ->
+                value.isEmpty() ? null : CommandArguments.parseLong(value, "Long", argument));
+        argumentParsers.put(double.class, (ArgumentParser<Double>) (value, argument) ->
+                CommandArguments.parseDouble(value, "double", argument));
+        argumentParsers.put(Double.class, (ArgumentParser<Double>) (value, argument) ->
+                value.isEmpty() ? null : CommandArguments.parseDouble(value, "Double", argument));
+        argumentParsers.put(float.class, (ArgumentParser<Float>) (value, argument) ->
+                CommandArguments.parseFloat(value, "float", argument));
+        argumentParsers.put(Float.class, (ArgumentParser<Float>) (value, argument) ->
+                value.isEmpty() ? null : CommandArguments.parseFloat(value, "Float", argument));
+        argumentParsers.put(boolean.class, (ArgumentParser<Boolean>) (value, argument) ->
+                CommandArguments.parseBoolean(value));
+        argumentParsers.put(Boolean.class, (ArgumentParser<Boolean>) (value, argument) ->
+                value.isEmpty() ? null : CommandArguments.parseBoolean(value));
     }
 
     @Override
@@ -33,22 +74,23 @@ public class DefaultCommandRegistry implements CommandRegistry
         Class<?> clazz = handler.getClass();
         Set<String> registeredCommands = new HashSet<>();
 
-        for (Method method : clazz.getDeclaredMethods())
+        // Handlers compiled with the CommandProcessor come with generated executors
+        CommandDispatcher dispatcher = DISPATCHERS.get(clazz).orElse(null);
+        if (dispatcher != null)
         {
-            if (method.isAnnotationPresent(Command.class))
+            for (CommandDispatcher.CompiledCommand command : dispatcher.commands())
             {
-                Command cmdAnnotation = method.getAnnotation(Command.class);
-                String commandName = getCommandName(cmdAnnotation, method.getName());
-
-                RegisteredCommand registeredCommand = createRegisteredCommand(handler, method, cmdAnnotation);
-                commands.put(commandName.toLowerCase(), registeredCommand);
-                registeredCommands.add(commandName.toLowerCase());
-
-                // Register aliases
-                for (String alias : cmdAnnotation.aliases())
+                addCommand(new RegisteredCommand(handler, command.info(), command.executor(), command.completer(),
+                        command.asyncCompletions(), this), registeredCommands);
+            }
+        } else
+        {
+            for (Method method : clazz.getDeclaredMethods())
+            {
+                if (method.isAnnotationPresent(Command.class))
                 {
-                    commands.put(alias.toLowerCase(), registeredCommand);
-                    registeredCommands.add(alias.toLowerCase());
+                    addCommand(createRegisteredCommand(handler, method, method.getAnnotation(Command.class)),
+                            registeredCommands);
                 }
             }
         }
@@ -56,6 +98,39 @@ public class DefaultCommandRegistry implements CommandRegistry
         handlerCommands.put(handler, registeredCommands);
     }
 
+    private void addCommand(RegisteredCommand registeredCommand, Set<String> registeredCommands)
+    {
+        CommandInfo info = registeredCommand.getCommandInfo();
+        putCommand(info.getName().toLowerCase(), registeredCommand);
+        registeredCommands.add(info.getName().toLowerCase());
+
+        // Register aliases
+        for (String alias : info.getAliases())
+        {
+            putCommand(alias.toLowerCase(), registeredCommand);
+            registeredCommands.add(alias.toLowerCase());
+        }
+    }
+
+    // The trie is updated inside the map's per-key lock so both always agree on which names exist
+    private void putCommand(String name, RegisteredCommand registeredCommand)
+    {
+        commands.compute(name, (key, previous) ->
+        {
+            commandTrie.add(key);
+            return registeredCommand;
+        });
+    }
+
+    private void removeCommand(String name)
+    {
+        commands.computeIfPresent(name, (key, previous) ->
+        {
+            commandTrie.remove(key);
+            return null;
+        });
+    }
+
     @Override
     public void registerCommands(Class<? extends CommandHandler> handlerClass)
     {
@@ -75,7 +150,7 @@ public class DefaultCommandRegistry implements CommandRegistry
         Set<String> commandNames = handlerCommands.remove(handler);
         if (commandNames != null)
         {
-            commandNames.forEach(commands::remove);
+            commandNames.forEach(this::removeCommand);
         }
     }
 
@@ -86,7 +161,7 @@ public class DefaultCommandRegistry implements CommandRegistry
         {
             if (entry.getKey().getClass().equals(handlerClass))
             {
-                entry.getValue().forEach(commands::remove);
+                entry.getValue().forEach(this::removeCommand);
                 return true;
             }
             return false;
@@ -95,8 +170,41 @@ public class DefaultCommandRegistry implements CommandRegistry
 
     @Override
     public void registerTabCompleter(String type, TabCompleter completer)
+    {
+        tabCompleters.put(type.toLowerCase(), (sender, command, args, currentArg) ->
+                CompletableFuture.completedFuture(completer.complete(sender, command, args, currentArg)));
+        asyncTabCompleters.remove(type.toLowerCase());
+    }
+
+    @Override
+    public void registerAsyncTabCompleter(String type, AsyncTabCompleter completer)
     {
         tabCompleters.put(type.toLowerCase(), completer);
+        asyncTabCompleters.add(type.toLowerCase());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the type is String, a type a String can be passed as, or a primitive
+     *                                  or boxed number or boolean; handlers compiled with the CommandProcessor parse
+     *                                  those inline, so replacing their parsers would make them behave differently
+     *                                  from reflectively registered handlers
+     */
+    @Override
+    public <T> void registerArgumentParser(Class<T> type, ArgumentParser<? extends T> parser)
+    {
+        if (isBuiltInType(type))
+        {
+            throw new IllegalArgumentException("Cannot replace the built-in argument parser for " + type.getName());
+        }
+        argumentParsers.put(type, parser);
+    }
+
+    private static boolean isBuiltInType(Class<?> type)
+    {
+        return type.isPrimitive() || type.isAssignableFrom(String.class) || type == Integer.class
+                || type == Long.class || type == Double.class || type == Float.class || type == Boolean.class;
     }
 
     @Override
@@ -111,10 +219,22 @@ public class DefaultCommandRegistry implements CommandRegistry
             commandName = commandName.substring(1);
         }
 
-        RegisteredCommand registeredCommand = commands.get(commandName);
-        if (registeredCommand == null) return false;
-
         String[] args = parts.length > 1 ? Arrays.copyOfRange(parts, 1, parts.length) : new String[0];
+        return executeCommand(sender, commandName, args);
+    }
+
+    /**
+     * Executes a command whose arguments are already split, as platforms receive them.
+     *
+     * @param sender      the command sender
+     * @param commandName the command name or alias, without a leading slash
+     * @param args        the arguments
+     * @return true if the command was executed successfully, false if it failed or is not registered
+     */
+    public boolean executeCommand(CommandSender sender, String commandName, String[] args)
+    {
+        RegisteredCommand registeredCommand = commands.get(commandName.toLowerCase());
+        if (registeredCommand == null) return false;
 
         try
         {
@@ -127,11 +247,29 @@ public class DefaultCommandRegistry implements CommandRegistry
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Asynchronous completion sources are never waited for. Their completions are only used once they are cached,
+     * so without a {@link #setCompletionCache completion cache} these sources yield no completions here.
+     */
     @Override
     public List<String> getTabCompletions(CommandSender sender, String commandLine)
+    {
+        // Never wait for asynchronous completion sources on the calling thread
+        return getTabCompletions(sender, commandLine, Duration.ZERO).join();
+    }
+
+    @Override
+    public CompletableFuture<List<String>> getTabCompletionsAsync(CommandSender sender, String commandLine)
+    {
+        return getTabCompletions(sender, commandLine, completionTimeout);
+    }
+
+    private CompletableFuture<List<String>> getTabCompletions(CommandSender sender, String commandLine, Duration timeout)
     {
         String[] parts = commandLine.split("\\s+", -1); // -1 to preserve trailing empty strings
-        if (parts.length == 0) return Collections.emptyList();
+        if (parts.length == 0) return CompletableFuture.completedFuture(Collections.emptyList());
 
         String commandName = parts[0].toLowerCase();
         if (commandName.startsWith("/"))
@@ -145,17 +283,69 @@ public class DefaultCommandRegistry implements CommandRegistry
         // If we're still typing the command name
         if (parts.length == 1 && !commandLine.endsWith(" "))
         {
-            return commands.keySet().stream()
-                    .filter(cmd -> cmd.startsWith(finalCommandName))
-                    .sorted()
-                    .collect(Collectors.toList());
+            return CompletableFuture.completedFuture(getCommandNames(finalCommandName, Integer.MAX_VALUE));
         }
 
         RegisteredCommand registeredCommand = commands.get(finalCommandName);
-        if (registeredCommand == null) return Collections.emptyList();
+        if (registeredCommand == null) return CompletableFuture.completedFuture(Collections.emptyList());
 
         String[] args = parts.length > 1 ? Arrays.copyOfRange(parts, 1, parts.length) : new String[]{""};
-        return registeredCommand.getTabCompletions(sender, finalCommandName, args);
+        return registeredCommand.getTabCompletions(sender, finalCommandName, args, timeout);
+    }
+
+    /**
+     * Checks whether the argument being completed in a command line has an asynchronous completion source: a
+     * {@link TabCompletion} method returning a CompletableFuture, or a tab completer registered with
+     * {@link #registerAsyncTabCompleter}. Platforms use this to complete only those arguments off the main thread,
+     * since other sources may expect to run on it.
+     *
+     * @param commandLine the current command line being typed
+     * @return true if the argument being completed has an asynchronous source
+     */
+    public boolean hasAsyncCompletions(String commandLine)
+    {
+        String[] parts = commandLine.split("\\s+", -1);
+        if (parts.length < 2)
+        {
+            return false;
+        }
+
+        String commandName = parts[0].toLowerCase();
+        if (commandName.startsWith("/"))
+        {
+            commandName = commandName.substring(1);
+        }
+        RegisteredCommand registeredCommand = commands.get(commandName);
+        return registeredCommand != null && registeredCommand.completesAsynchronously(parts.length - 2);
+    }
+
+    /**
+     * Gets argument completions for a command whose arguments are already split, as platforms receive them.
+     * Like {@link #getTabCompletions(CommandSender, String)}, this never waits for asynchronous completion sources.
+     *
+     * @param sender      the command sender
+     * @param commandName the command name or alias, without a leading slash
+     * @param args        the arguments typed so far, the last one being completed
+     * @return list of possible completions
+     */
+    public List<String> getTabCompletions(CommandSender sender, String commandName, String[] args)
+    {
+        RegisteredCommand registeredCommand = commands.get(commandName.toLowerCase());
+        if (registeredCommand == null) return Collections.emptyList();
+
+        return registeredCommand.getTabCompletions(sender, commandName, args, Duration.ZERO).join();
+    }
+
+    /**
+     * Gets the registered command names and aliases starting with a prefix, ignoring case.
+     *
+     * @param prefix the prefix typed so far
+     * @param limit  the maximum number of names to return
+     * @return the matching names in sorted order, lower case
+     */
+    public List<String> getCommandNames(String prefix, int limit)
+    {
+        return commandTrie.complete(prefix, limit);
     }
 
     @Override
@@ -171,15 +361,102 @@ public class DefaultCommandRegistry implements CommandRegistry
         return registeredCommand != null ? registeredCommand.getCommandInfo() : null;
     }
 
+    /**
+     * Gets the commands registered from a handler, one entry per command regardless of its aliases.
+     *
+     * @param handler the command handler instance
+     * @return the handler's commands, or an empty list if it is not registered
+     */
+    public List<CommandInfo> getCommands(CommandHandler handler)
+    {
+        Set<String> commandNames = handlerCommands.get(handler);
+        if (commandNames == null)
+        {
+            return Collections.emptyList();
+        }
+
+        Set<CommandInfo> infos = new LinkedHashSet<>();
+        for (String name : commandNames)
+        {
+            RegisteredCommand registeredCommand = commands.get(name);
+            if (registeredCommand != null && registeredCommand.handler == handler)
+            {
+                infos.add(registeredCommand.getCommandInfo());
+            }
+        }
+        return new ArrayList<>(infos);
+    }
+
+    /**
+     * Sets the cache for argument completions. Completions are computed on every request without one, and the
+     * synchronous tab completion methods then never receive completions from asynchronous sources.
+     *
+     * @param completionCache the cache, or null to disable caching
+     */
+    public void setCompletionCache(CompletionCache completionCache)
+    {
+        this.completionCache = completionCache;
+    }
+
+    /**
+     * Gets the cache for argument completions.
+     *
+     * @return the cache, or null if caching is disabled
+     */
+    public CompletionCache getCompletionCache()
+    {
+        return completionCache;
+    }
+
+    /**
+     * Sets how long {@link #getTabCompletionsAsync} waits for asynchronous completion sources before falling back
+     * to cached or empty completions. Defaults to 500 milliseconds.
+     *
+     * @param completionTimeout the completion timeout
+     */
+    public void setCompletionTimeout(Duration completionTimeout)
+    {
+        this.completionTimeout = completionTimeout;
+    }
+
     /**
      * Gets the tab completer for the specified type.
      * Package-private method for use by RegisteredCommand.
      */
-    TabCompleter getTabCompleter(String type)
+    AsyncTabCompleter getTabCompleter(String type)
     {
         return tabCompleters.get(type.toLowerCase());
     }
 
+    /**
+     * Checks whether the tab completer for the specified type was registered as asynchronous.
+     * Package-private method for use by RegisteredCommand.
+     */
+    boolean isAsyncTabCompleter(String type)
+    {
+        return asyncTabCompleters.contains(type.toLowerCase());
+    }
+
+    /**
+     * Checks whether an argument type is parsed by a built-in parser, including types without a parser, which
+     * receive the raw string. Built-in parsers are stateless, so a default value can be parsed once at registration.
+     * Package-private method for use by RegisteredCommand.
+     */
+    boolean hasBuiltInParser(Class<?> type)
+    {
+        return isBuiltInType(type) || !argumentParsers.containsKey(type);
+    }
+
+    /**
+     * Gets the parser for an argument type. Types without a parser receive the raw string.
+     * Package-private method for use by RegisteredCommand.
+     */
+    ArgumentParser<?> getArgumentParser(Class<?> type)
+    {
+        ArgumentParser<?> parser = argumentParsers.get(type);
+        return parser != null ? parser : argumentParsers.get(String.class);
+    }
+
     private RegisteredCommand createRegisteredCommand(CommandHandler handler, Method method, Command cmdAnnotation)
     {
         method.setAccessible(true);
@@ -223,15 +500,44 @@ public class DefaultCommandRegistry implements CommandRegistry
             }
         }
 
-        return new RegisteredCommand(handler, method, cmdAnnotation, arguments, this, completionMethods);
+        Set<Integer> asyncCompletions = new HashSet<>();
+        for (int i = 0; i < arguments.size(); i++)
+        {
+            Method completionMethod = completionMethods.get(arguments.get(i).getCompletionMethod());
+            if (completionMethod != null && CompletableFuture.class.isAssignableFrom(completionMethod.getReturnType()))
+            {
+                asyncCompletions.add(i);
+            }
+        }
+
+        String commandName = getCommandName(cmdAnnotation, method.getName());
+        CommandInfo info = new CommandInfo(
+                commandName,
+                Arrays.asList(cmdAnnotation.aliases()),
+                cmdAnnotation.description(),
+                RegisteredCommand.generateUsage(cmdAnnotation, commandName, arguments),
+                cmdAnnotation.permission(),
+                cmdAnnotation.playerOnly(),
+                cmdAnnotation.consoleOnly(),
+                arguments
+        );
+
+        return new RegisteredCommand(handler, info, RegisteredCommand.reflectiveExecutor(method, arguments, this),
+                RegisteredCommand.reflectiveCompleter(arguments, completionMethods), Set.copyOf(asyncCompletions), this);
     }
 
-    private String getCommandName(Command cmdAnnotation, String methodName)
+    /**
+     * Resolves a command's name: {@link Command#value()}, then {@link Command#name()}, then the method name.
+     */
+    static String getCommandName(Command cmdAnnotation, String methodName)
     {
-        String name = cmdAnnotation.name();
-        if (!name.isEmpty())
+        if (!cmdAnnotation.value().isEmpty())
+        {
+            return cmdAnnotation.value();
+        }
+        if (!cmdAnnotation.name().isEmpty())
         {
-            return name;
+            return cmdAnnotation.name();
         }
         return methodName;
     }
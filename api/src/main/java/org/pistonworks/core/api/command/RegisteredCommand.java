@@ -3,38 +3,43 @@ package org.pistonworks.core.api.command;
 import org.pistonworks.core.api.model.CommandSender;
 import org.pistonworks.core.api.model.ConsoleCommandSender;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
  * Internal class representing a registered command with all its metadata and execution logic.
+ * Commands run through an {@link CommandDispatcher.Executor}, either generated at compile time or
+ * built reflectively from the command method.
  */
 class RegisteredCommand
 {
     final CommandHandler handler;
-    private final Method method;
-    private final Command annotation;
-    private final List<CommandInfo.ArgumentInfo> arguments;
+    private final CommandInfo info;
+    private final CommandDispatcher.Executor executor;
+    private final CommandDispatcher.Completer completer;
+    private final Set<Integer> asyncCompletions;
     private final DefaultCommandRegistry registry;
-    private final Map<String, Method> completionMethods;
 
-    RegisteredCommand(CommandHandler handler, Method method, Command annotation,
-                      List<CommandInfo.ArgumentInfo> arguments, DefaultCommandRegistry registry,
-                      Map<String, Method> completionMethods)
+    RegisteredCommand(CommandHandler handler, CommandInfo info, CommandDispatcher.Executor executor,
+                      CommandDispatcher.Completer completer, Set<Integer> asyncCompletions,
+                      DefaultCommandRegistry registry)
     {
         this.handler = handler;
-        this.method = method;
-        this.annotation = annotation;
-        this.arguments = arguments;
+        this.info = info;
+        this.executor = executor;
+        this.completer = completer;
+        this.asyncCompletions = asyncCompletions;
         this.registry = registry;
-        this.completionMethods = completionMethods;
     }
 
     boolean execute(CommandSender sender, String commandName, String[] args)
     {
         // Check permissions
-        if (!annotation.permission().isEmpty() && !sender.hasPermission(annotation.permission()))
+        if (!info.getPermission().isEmpty() && !sender.hasPermission(info.getPermission()))
         {
             handler.onCommandError(sender, commandName,
                     new CommandError(CommandError.ErrorType.NO_PERMISSION, "No permission"));
@@ -42,14 +47,14 @@ class RegisteredCommand
         }
 
         // Check sender type restrictions
-        if (annotation.playerOnly() && sender instanceof ConsoleCommandSender)
+        if (info.isPlayerOnly() && sender instanceof ConsoleCommandSender)
         {
             handler.onCommandError(sender, commandName,
                     new CommandError(CommandError.ErrorType.PLAYER_ONLY, "Players only"));
             return false;
         }
 
-        if (annotation.consoleOnly() && !(sender instanceof ConsoleCommandSender))
+        if (info.isConsoleOnly() && !(sender instanceof ConsoleCommandSender))
         {
             handler.onCommandError(sender, commandName,
                     new CommandError(CommandError.ErrorType.CONSOLE_ONLY, "Console only"));
@@ -64,205 +69,145 @@ class RegisteredCommand
 
         try
         {
-            // Parse arguments
-            Object[] parsedArgs = parseArguments(sender, commandName, args);
-            if (parsedArgs == null) return false; // Error already handled
-
-            // Execute the command
-            Object[] methodArgs = new Object[parsedArgs.length + 1];
-            methodArgs[0] = sender;
-            System.arraycopy(parsedArgs, 0, methodArgs, 1, parsedArgs.length);
-
-            method.invoke(handler, methodArgs);
+            // Parse arguments and execute the command
+            executor.execute(handler, sender, args);
 
             // Post-execution hook
             handler.onAfterCommand(sender, commandName, args);
 
             return true;
+        } catch (ArgumentParseException e)
+        {
+            handler.onCommandError(sender, commandName,
+                    new CommandError(CommandError.ErrorType.INVALID_ARGUMENTS, e.getMessage(), info.getUsage()));
+            return false;
         } catch (Exception e)
         {
             handler.onCommandError(sender, commandName,
-                    new CommandError(CommandError.ErrorType.EXECUTION_ERROR, e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+                    new CommandError(CommandError.ErrorType.EXECUTION_ERROR, e.getMessage()));
             return false;
         }
     }
 
-    List<String> getTabCompletions(CommandSender sender, String commandName, String[] args)
+    /**
+     * Gets tab completions, waiting for asynchronous completion sources up to the timeout.
+     * With a zero timeout only completions that are already available are used, and a source that is still running
+     * yields the cached or empty fallback.
+     */
+    CompletableFuture<List<String>> getTabCompletions(CommandSender sender, String commandName, String[] args,
+                                                      Duration timeout)
     {
+        List<CommandInfo.ArgumentInfo> arguments = info.getArguments();
         if (args.length == 0 || args.length > arguments.size())
         {
-            return Collections.emptyList();
+            return CompletableFuture.completedFuture(Collections.emptyList());
         }
 
         int argIndex = args.length - 1;
         CommandInfo.ArgumentInfo argInfo = arguments.get(argIndex);
+        CompletionCache cache = registry.getCompletionCache();
+        if (cache == null)
+        {
+            return CompletionCache.withFallback(computeTabCompletions(sender, commandName, args, argIndex, argInfo),
+                    timeout, Collections.emptyList());
+        }
+        return cache.getAsync(info.getName(), argIndex, CompletionCache.sourceOf(argInfo), sender, args,
+                () -> computeTabCompletions(sender, commandName, args, argIndex, argInfo), timeout);
+    }
+
+    private CompletableFuture<List<String>> computeTabCompletions(CommandSender sender, String commandName,
+                                                                  String[] args, int argIndex,
+                                                                  CommandInfo.ArgumentInfo argInfo)
+    {
         String currentArg = args[argIndex];
 
         // Get completions based on the argument type
-        List<String> completions = getCompletionsForArgument(sender, commandName, args, argInfo, currentArg);
+        CompletableFuture<List<String>> completions =
+                getCompletionsForArgument(sender, commandName, args, argIndex, argInfo, currentArg);
 
         // Filter completions that start with the current input
-        return completions.stream()
+        return completions.thenApply(list -> list.stream()
                 .filter(completion -> completion.toLowerCase().startsWith(currentArg.toLowerCase()))
                 .sorted()
-                .collect(Collectors.toList());
-    }
-
-    CommandInfo getCommandInfo()
-    {
-        return new CommandInfo(
-                annotation.name().isEmpty() ? method.getName() : annotation.name(),
-                Arrays.asList(annotation.aliases()),
-                annotation.description(),
-                generateUsage(),
-                annotation.permission(),
-                annotation.playerOnly(),
-                annotation.consoleOnly(),
-                arguments
-        );
-    }
-
-    private Object[] parseArguments(CommandSender sender, String commandName, String[] args)
-    {
-        List<Object> parsedArgs = new ArrayList<>();
-
-        for (int i = 0; i < arguments.size(); i++)
-        {
-            CommandInfo.ArgumentInfo argInfo = arguments.get(i);
-
-            if (i >= args.length)
-            {
-                // Missing argument
-                if (argInfo.isOptional())
-                {
-                    // Use default value
-                    Object defaultValue = parseArgument(argInfo.getType(), argInfo.getDefaultValue());
-                    if (defaultValue == null && !argInfo.getDefaultValue().isEmpty())
-                    {
-                        handler.onCommandError(sender, commandName,
-                                new CommandError(CommandError.ErrorType.INVALID_ARGUMENTS,
-                                        "Invalid default value for argument: " + argInfo.getName(), generateUsage()));
-                        return null;
-                    }
-                    parsedArgs.add(defaultValue);
-                } else
-                {
-                    // Required argument missing
-                    handler.onCommandError(sender, commandName,
-                            new CommandError(CommandError.ErrorType.INVALID_ARGUMENTS,
-                                    "Missing required argument: " + argInfo.getName(), generateUsage()));
-                    return null;
-                }
-            } else
-            {
-                // Parse the provided argument
-                Object parsedArg = parseArgument(argInfo.getType(), args[i]);
-                if (parsedArg == null && !args[i].isEmpty())
-                {
-                    handler.onCommandError(sender, commandName,
-                            new CommandError(CommandError.ErrorType.INVALID_ARGUMENTS,
-                                    "Invalid " + argInfo.getType().getSimpleName() + " for argument: " + argInfo.getName(), generateUsage()));
-                    return null;
-                }
-                parsedArgs.add(parsedArg);
-            }
-        }
-
-        return parsedArgs.toArray();
+                .collect(Collectors.toList()));
     }
 
-    private Object parseArgument(Class<?> type, String value)
+    /**
+     * Checks whether an argument is completed by an asynchronous source: a @TabCompletion method returning a
+     * CompletableFuture, or a tab completer registered as asynchronous for its completion type.
+     */
+    boolean completesAsynchronously(int argIndex)
     {
-        if (value == null || value.isEmpty())
+        List<CommandInfo.ArgumentInfo> arguments = info.getArguments();
+        if (argIndex < 0 || argIndex >= arguments.size())
         {
-            return getDefaultValueForType(type);
+            return false;
         }
 
-        try
-        {
-            if (type == String.class)
-            {
-                return value;
-            } else if (type == int.class || type == Integer.class)
-            {
-                return Integer.parseInt(value);
-            } else if (type == double.class || type == Double.class)
-            {
-                return Double.parseDouble(value);
-            } else if (type == float.class || type == Float.class)
-            {
-                return Float.parseFloat(value);
-            } else if (type == long.class || type == Long.class)
-            {
-                return Long.parseLong(value);
-            } else if (type == boolean.class || type == Boolean.class)
-            {
-                return Boolean.parseBoolean(value);
-            } else
-            {
-                return value; // Default to string for unknown types
-            }
-        } catch (NumberFormatException e)
+        CommandInfo.ArgumentInfo argInfo = arguments.get(argIndex);
+        if (argInfo.getCompletionType() == Arg.CompletionType.METHOD && completer != null
+                && asyncCompletions.contains(argIndex))
         {
-            return null;
+            return true;
         }
+        return argInfo.getCompletions().isEmpty()
+                && registry.isAsyncTabCompleter(argInfo.getCompletionType().name().toLowerCase());
     }
 
-    private Object getDefaultValueForType(Class<?> type)
+    CommandInfo getCommandInfo()
     {
-        if (type == int.class) return 0;
-        if (type == double.class) return 0.0;
-        if (type == float.class) return 0.0f;
-        if (type == long.class) return 0L;
-        if (type == boolean.class) return false;
-        return null; // For reference types
+        return info;
     }
 
-    private List<String> getCompletionsForArgument(CommandSender sender, String commandName, String[] args,
-                                                   CommandInfo.ArgumentInfo argInfo, String currentArg)
+    private CompletableFuture<List<String>> getCompletionsForArgument(CommandSender sender, String commandName,
+                                                                      String[] args, int argIndex,
+                                                                      CommandInfo.ArgumentInfo argInfo,
+                                                                      String currentArg)
     {
         // Check for method-based completions first
-        if (argInfo.getCompletionType() == Arg.CompletionType.METHOD && !argInfo.getCompletionMethod().isEmpty())
+        if (argInfo.getCompletionType() == Arg.CompletionType.METHOD && completer != null)
         {
-            Method completionMethod = completionMethods.get(argInfo.getCompletionMethod());
-            if (completionMethod != null)
+            try
             {
-                try
-                {
-                    Object result = completionMethod.invoke(handler, sender, commandName, args, currentArg);
-                    if (result instanceof List<?> list)
-                    {
-                        // Check if all elements are strings
-                        if (list.isEmpty() || list.get(0) instanceof String)
-                        {
-                            @SuppressWarnings("unchecked")
-                            List<String> stringList = (List<String>) list;
-                            return stringList;
-                        }
-                    }
-                } catch (Exception e)
+                CompletableFuture<List<String>> completions =
+                        completer.complete(handler, sender, commandName, args, argIndex, currentArg);
+                if (completions != null)
                 {
-                    // Log error and fall back to empty list
-                    return Collections.emptyList();
+                    return completions;
                 }
+            } catch (Exception e)
+            {
+                // Log error and fall back to empty list
+                return CompletableFuture.completedFuture(Collections.emptyList());
             }
         }
 
         // Check for custom completions
         if (!argInfo.getCompletions().isEmpty())
         {
-            return argInfo.getCompletions();
+            return CompletableFuture.completedFuture(argInfo.getCompletions());
         }
 
         // Check for registered tab completers
         String completionTypeName = argInfo.getCompletionType().name().toLowerCase();
-        TabCompleter tabCompleter = registry.getTabCompleter(completionTypeName);
+        AsyncTabCompleter tabCompleter = registry.getTabCompleter(completionTypeName);
         if (tabCompleter != null)
         {
-            return tabCompleter.complete(sender, commandName, args, currentArg);
+            try
+            {
+                return tabCompleter.complete(sender, commandName, args, currentArg);
+            } catch (RuntimeException e)
+            {
+                return CompletableFuture.failedFuture(e);
+            }
         }
 
         // Built-in completion types
+        return CompletableFuture.completedFuture(builtInCompletions(argInfo));
+    }
+
+    private static List<String> builtInCompletions(CommandInfo.ArgumentInfo argInfo)
+    {
         return switch (argInfo.getCompletionType())
         {
             case BOOLEAN -> Arrays.asList("true", "false");
@@ -277,7 +222,10 @@ class RegisteredCommand
         };
     }
 
-    private String generateUsage()
+    /**
+     * Generates a usage string such as {@code /give <player> [amount]} unless the annotation declares one.
+     */
+    static String generateUsage(Command annotation, String commandName, List<CommandInfo.ArgumentInfo> arguments)
     {
         if (!annotation.usage().isEmpty())
         {
@@ -285,7 +233,7 @@ class RegisteredCommand
         }
 
         StringBuilder usage = new StringBuilder();
-        usage.append("/").append(annotation.name().isEmpty() ? method.getName() : annotation.name());
+        usage.append("/").append(commandName);
 
         for (CommandInfo.ArgumentInfo arg : arguments)
         {
@@ -301,4 +249,124 @@ class RegisteredCommand
 
         return usage.toString();
     }
+
+    /**
+     * Creates an executor that parses arguments with the registry's parsers and invokes the command method
+     * reflectively. Parsers and the default values of built-in types are resolved here, once. Defaults of types with
+     * a registered parser, such as players, depend on server state and are parsed on each execution instead.
+     * Used for handlers that were not compiled with the {@code CommandProcessor}.
+     *
+     * @throws IllegalArgumentException if a default value does not parse as its built-in argument type
+     */
+    static CommandDispatcher.Executor reflectiveExecutor(Method method, List<CommandInfo.ArgumentInfo> arguments,
+                                                         DefaultCommandRegistry registry)
+    {
+        CompiledArgument[] compiled = new CompiledArgument[arguments.size()];
+        for (int i = 0; i < compiled.length; i++)
+        {
+            Class<?> type = arguments.get(i).getType();
+            compiled[i] = CompiledArgument.compile(arguments.get(i), registry.getArgumentParser(type),
+                    registry.hasBuiltInParser(type));
+        }
+
+        return (handler, sender, args) ->
+        {
+            Object[] methodArgs = new Object[compiled.length + 1];
+            methodArgs[0] = sender;
+            for (int i = 0; i < compiled.length; i++)
+            {
+                methodArgs[i + 1] = compiled[i].parse(args, i);
+            }
+
+            try
+            {
+                method.invoke(handler, methodArgs);
+            } catch (InvocationTargetException e)
+            {
+                if (e.getCause() instanceof Exception cause)
+                {
+                    throw cause;
+                }
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Creates a completer that invokes @TabCompletion methods reflectively.
+     */
+    static CommandDispatcher.Completer reflectiveCompleter(List<CommandInfo.ArgumentInfo> arguments,
+                                                           Map<String, Method> completionMethods)
+    {
+        return (handler, sender, command, args, argIndex, currentArg) ->
+        {
+            Method completionMethod = completionMethods.get(arguments.get(argIndex).getCompletionMethod());
+            if (completionMethod == null)
+            {
+                return null;
+            }
+
+            Object result = completionMethod.invoke(handler, sender, command, args, currentArg);
+            if (result instanceof CompletableFuture<?> future)
+            {
+                @SuppressWarnings("unchecked")
+                CompletableFuture<List<String>> completions = (CompletableFuture<List<String>>) future;
+                return completions;
+            }
+            if (result instanceof List<?> list)
+            {
+                // Check if all elements are strings
+                if (list.isEmpty() || list.get(0) instanceof String)
+                {
+                    @SuppressWarnings("unchecked")
+                    List<String> stringList = (List<String>) list;
+                    return CompletableFuture.completedFuture(stringList);
+                }
+            }
+            return null;
+        };
+    }
+
+    /**
+     * An argument resolved at registration: its parser and, for optional arguments, its default value.
+     * A default parsed by a built-in parser is stored parsed; any other non-empty default is kept as
+     * {@code lateDefault} and parsed when the argument is omitted. An empty default of a custom type is null.
+     */
+    private record CompiledArgument(String name, ArgumentParser<?> parser, boolean optional, Object defaultValue,
+                                    String lateDefault)
+    {
+        private static CompiledArgument compile(CommandInfo.ArgumentInfo argInfo, ArgumentParser<?> parser,
+                                                boolean builtIn)
+        {
+            Object defaultValue = null;
+            String lateDefault = null;
+            if (argInfo.isOptional() && builtIn)
+            {
+                try
+                {
+                    defaultValue = parser.parse(argInfo.getDefaultValue(), argInfo.getName());
+                } catch (ArgumentParseException e)
+                {
+                    throw new IllegalArgumentException("Invalid default value for argument: " + argInfo.getName(), e);
+                }
+            } else if (argInfo.isOptional() && !argInfo.getDefaultValue().isEmpty())
+            {
+                lateDefault = argInfo.getDefaultValue();
+            }
+            return new CompiledArgument(argInfo.getName(), parser, argInfo.isOptional(), defaultValue, lateDefault);
+        }
+
+        private Object parse(String[] args, int index) throws ArgumentParseException
+        {
+            if (index < args.length)
+            {
+                return parser.parse(args[index], name);
+            }
+            if (!optional)
+            {
+                throw CommandArguments.missing(name);
+            }
+            return lateDefault != null ? parser.parse(lateDefault, name) : defaultValue;
+        }
+    }
 }
@@ -7,7 +7,8 @@ import java.lang.annotation.Target;
 
 /**
  * Annotation to mark a method as providing tab completions for command arguments.
- * The method must return List&lt;String&gt; and can optionally take CommandSender, String command, String[] args, and String currentArg parameters.
+ * The method must return List&lt;String&gt;, or CompletableFuture&lt;List&lt;String&gt;&gt; for completions computed
+ * asynchronously, and can optionally take CommandSender, String command, String[] args, and String currentArg parameters.
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
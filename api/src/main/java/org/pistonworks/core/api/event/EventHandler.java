@@ -27,4 +27,22 @@ public @interface EventHandler
      * @return true to receive cancelled events
      */
     boolean ignoreCancelled() default true;
+
+    /**
+     * Whether this handler does blocking work, such as database writes or HTTP calls.
+     * Blocking handlers run on their own virtual thread instead of the thread that fired the event,
+     * so they cannot influence the event's outcome.
+     *
+     * @return true to run this handler on a virtual thread
+     */
+    boolean blocking() default false;
+
+    /**
+     * The maximum number of concurrent invocations of a blocking handler.
+     * Invocations over the limit wait for a free slot in a backlog of up to 1024 events; events that do not fit are
+     * dropped and reported as listener errors. Ignored for non-blocking handlers.
+     *
+     * @return the concurrency limit, or 0 for no limit
+     */
+    int maxConcurrency() default 0;
 }
@@ -0,0 +1,35 @@
+package org.pistonworks.core.api.event;
+
+/**
+ * A set of listener registrations that take effect together.
+ * Nothing is registered until {@link #commit()} is called, which publishes all listeners in one step.
+ * Obtain one from {@link org.pistonworks.core.api.service.EventService#beginBatch()}.
+ */
+public interface ListenerBatch
+{
+
+    /**
+     * Adds an object containing event handler methods to the batch.
+     *
+     * @param listener the listener object
+     * @return this batch for chaining
+     */
+    ListenerBatch listen(Object listener);
+
+    /**
+     * Adds a functional event listener to the batch.
+     *
+     * @param eventClass the class of event to listen for
+     * @param listener   the listener function
+     * @param <T>        the event type
+     * @return this batch for chaining
+     */
+    <T extends Event> ListenerBatch listen(Class<T> eventClass, EventListener<T> listener);
+
+    /**
+     * Registers every listener in the batch at once.
+     *
+     * @throws IllegalStateException if the batch was already committed
+     */
+    void commit();
+}
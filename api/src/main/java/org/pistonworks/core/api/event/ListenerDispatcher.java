@@ -0,0 +1,65 @@
+package org.pistonworks.core.api.event;
+
+import java.util.List;
+
+/**
+ * Compile-time description of a listener class's event handlers, generated by
+ * the {@code org.pistonworks.core.processor.EventHandlerProcessor} from the {@code processor} artifact.
+ * <p>
+ * For a listener class {@code com.example.MyListener}, the processor generates
+ * {@code com.example.MyListener$$PistonDispatcher} and lists the listener class in {@link #INDEX_RESOURCE}.
+ * Event services use it to register the listener without reflection, and each handler is called directly.
+ * This interface is implemented by generated code and is not meant to be implemented by hand.
+ */
+public interface ListenerDispatcher
+{
+
+    /**
+     * Resource listing the binary names of listener classes that have a generated dispatcher, one per line.
+     */
+    String INDEX_RESOURCE = "META-INF/piston/listeners.index";
+
+    /**
+     * Suffix appended to a listener's binary class name to get its dispatcher class name.
+     */
+    String CLASS_SUFFIX = "$$PistonDispatcher";
+
+    /**
+     * Gets every public @EventHandler method of the listener class, including inherited ones.
+     *
+     * @return the handlers
+     */
+    List<Handler> handlers();
+
+    /**
+     * A single @EventHandler method and its annotation values.
+     *
+     * @param methodName      the handler method's name
+     * @param eventType       the handler method's parameter type
+     * @param priority        the handler priority
+     * @param ignoreCancelled whether the handler skips cancelled events
+     * @param blocking        whether the handler runs on a virtual thread
+     * @param maxConcurrency  the concurrency limit of a blocking handler, or 0 for no limit
+     * @param invoker         calls the handler method directly
+     */
+    record Handler(String methodName, Class<? extends Event> eventType, EventPriority priority,
+                   boolean ignoreCancelled, boolean blocking, int maxConcurrency, Invoker invoker)
+    {
+    }
+
+    /**
+     * Calls one handler method on a listener instance.
+     */
+    @FunctionalInterface
+    interface Invoker
+    {
+        /**
+         * Invokes the handler.
+         *
+         * @param listener the listener instance, ignored for static handlers
+         * @param event    the event to deliver
+         * @throws Exception if the handler throws
+         */
+        void invoke(Object listener, Event event) throws Exception;
+    }
+}
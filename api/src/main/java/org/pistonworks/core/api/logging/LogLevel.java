@@ -0,0 +1,24 @@
+package org.pistonworks.core.api.logging;
+
+/**
+ * Severity of a log message, from least to most severe.
+ */
+public enum LogLevel
+{
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    CRITICAL;
+
+    /**
+     * Checks whether this level is at least as severe as another.
+     *
+     * @param threshold the level to compare against
+     * @return true if messages at this level pass a threshold of the given level
+     */
+    public boolean isAtLeast(LogLevel threshold)
+    {
+        return ordinal() >= threshold.ordinal();
+    }
+}
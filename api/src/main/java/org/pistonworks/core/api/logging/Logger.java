@@ -1,5 +1,17 @@
 package org.pistonworks.core.api.logging;
 
+/**
+ * Logger for Piston Core and plugins.
+ * <p>
+ * The parameterized methods take a format in which each {@code {}} is replaced with the next argument, as described
+ * in {@link MessageFormatter}, and a trailing {@link Throwable} is logged with its stack trace. Nothing is formatted
+ * unless the level is enabled, and the one- and two-argument forms do not allocate an argument array either, so a
+ * disabled debug message costs a level check:
+ * <pre>{@code
+ * logger.debug("Loaded {} chunks in {} ms", count, elapsed);
+ * logger.error("Could not save {}", file, exception);
+ * }</pre>
+ */
 public interface Logger
 {
     void debug(String message);
@@ -11,4 +23,161 @@ public interface Logger
     void error(String message);
 
     void critical(String message);
+
+    /**
+     * Checks whether messages at a level are logged.
+     *
+     * @param level the level
+     * @return true if messages at the level are logged
+     */
+    default boolean isEnabled(LogLevel level)
+    {
+        return true;
+    }
+
+    default boolean isDebugEnabled()
+    {
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    /**
+     * Logs a message with an exception. Implementations should override this to keep the stack trace; the default
+     * appends the exception to the message.
+     *
+     * @param level   the level
+     * @param message the message
+     * @param thrown  the exception, or null
+     */
+    default void log(LogLevel level, String message, Throwable thrown)
+    {
+        String text = thrown != null ? message + ": " + thrown : message;
+        switch (level)
+        {
+            case DEBUG -> debug(text);
+            case INFO -> info(text);
+            case WARN -> warn(text);
+            case ERROR -> error(text);
+            case CRITICAL -> critical(text);
+        }
+    }
+
+    /**
+     * Logs a parameterized message if the level is enabled.
+     *
+     * @param level  the level
+     * @param format the message format
+     * @param args   the arguments, optionally followed by an exception
+     */
+    default void log(LogLevel level, String format, Object... args)
+    {
+        if (isEnabled(level))
+        {
+            log(level, MessageFormatter.format(format, args), MessageFormatter.getThrowable(args));
+        }
+    }
+
+    default void debug(String format, Object arg)
+    {
+        if (isEnabled(LogLevel.DEBUG))
+        {
+            log(LogLevel.DEBUG, format, new Object[]{arg});
+        }
+    }
+
+    default void debug(String format, Object arg1, Object arg2)
+    {
+        if (isEnabled(LogLevel.DEBUG))
+        {
+            log(LogLevel.DEBUG, format, new Object[]{arg1, arg2});
+        }
+    }
+
+    default void debug(String format, Object... args)
+    {
+        log(LogLevel.DEBUG, format, args);
+    }
+
+    default void info(String format, Object arg)
+    {
+        if (isEnabled(LogLevel.INFO))
+        {
+            log(LogLevel.INFO, format, new Object[]{arg});
+        }
+    }
+
+    default void info(String format, Object arg1, Object arg2)
+    {
+        if (isEnabled(LogLevel.INFO))
+        {
+            log(LogLevel.INFO, format, new Object[]{arg1, arg2});
+        }
+    }
+
+    default void info(String format, Object... args)
+    {
+        log(LogLevel.INFO, format, args);
+    }
+
+    default void warn(String format, Object arg)
+    {
+        if (isEnabled(LogLevel.WARN))
+        {
+            log(LogLevel.WARN, format, new Object[]{arg});
+        }
+    }
+
+    default void warn(String format, Object arg1, Object arg2)
+    {
+        if (isEnabled(LogLevel.WARN))
+        {
+            log(LogLevel.WARN, format, new Object[]{arg1, arg2});
+        }
+    }
+
+    default void warn(String format, Object... args)
+    {
+        log(LogLevel.WARN, format, args);
+    }
+
+    default void error(String format, Object arg)
+    {
+        if (isEnabled(LogLevel.ERROR))
+        {
+            log(LogLevel.ERROR, format, new Object[]{arg});
+        }
+    }
+
+    default void error(String format, Object arg1, Object arg2)
+    {
+        if (isEnabled(LogLevel.ERROR))
+        {
+            log(LogLevel.ERROR, format, new Object[]{arg1, arg2});
+        }
+    }
+
+    default void error(String format, Object... args)
+    {
+        log(LogLevel.ERROR, format, args);
+    }
+
+    default void critical(String format, Object arg)
+    {
+        if (isEnabled(LogLevel.CRITICAL))
+        {
+            log(LogLevel.CRITICAL, format, new Object[]{arg});
+        }
+    }
+
+    default void critical(String format, Object arg1, Object arg2)
+    {
+        if (isEnabled(LogLevel.CRITICAL))
+        {
+            log(LogLevel.CRITICAL, format, new Object[]{arg1, arg2});
+        }
+    }
+
+    default void critical(String format, Object... args)
+    {
+        log(LogLevel.CRITICAL, format, args);
+    }
 }
@@ -0,0 +1,67 @@
+package org.pistonworks.core.api.logging;
+
+/**
+ * Formats the messages of {@link Logger}'s parameterized methods.
+ * Each {@code {}} in the format is replaced with the next argument, and {@code \{}} stands for a literal
+ * {@code {}}. Placeholders without an argument are left as they are. A {@link Throwable} in last position is the
+ * message's exception rather than an argument.
+ */
+public final class MessageFormatter
+{
+
+    private MessageFormatter()
+    {
+    }
+
+    /**
+     * Formats a message.
+     *
+     * @param format the message format
+     * @param args   the arguments
+     * @return the formatted message
+     */
+    public static String format(String format, Object... args)
+    {
+        if (format == null || args == null)
+        {
+            return format;
+        }
+        int argCount = getThrowable(args) != null ? args.length - 1 : args.length;
+        if (argCount == 0)
+        {
+            return format;
+        }
+
+        StringBuilder message = new StringBuilder(format.length() + 16 * argCount);
+        int arg = 0;
+        int start = 0;
+        int placeholder;
+        while (arg < argCount && (placeholder = format.indexOf("{}", start)) >= 0)
+        {
+            if (placeholder > 0 && format.charAt(placeholder - 1) == '\\')
+            {
+                message.append(format, start, placeholder - 1).append("{}");
+            } else
+            {
+                message.append(format, start, placeholder).append(args[arg++]);
+            }
+            start = placeholder + 2;
+        }
+        return message.append(format, start, format.length()).toString();
+    }
+
+    /**
+     * Gets the exception of a message.
+     *
+     * @param args the arguments
+     * @return the last argument if it is a Throwable, otherwise null
+     */
+    public static Throwable getThrowable(Object... args)
+    {
+        if (args != null && args.length > 0 && args[args.length - 1] instanceof Throwable thrown)
+        {
+            return thrown;
+        }
+        return null;
+    }
+}
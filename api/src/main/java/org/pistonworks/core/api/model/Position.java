@@ -14,7 +14,7 @@ public record Position(World world, double x, double y, double z)
      * @param dz the offset in the z direction
      * @return a new Position object with the updated coordinates
      */
-    Position add(double dx, double dy, double dz)
+    public Position add(double dx, double dy, double dz)
     {
         return new Position(world, x + dx, y + dy, z + dz);
     }
@@ -25,7 +25,7 @@ public record Position(World world, double x, double y, double z)
      * @param position the Position to add
      * @return a new Position object with the updated coordinates
      */
-    Position add(Position position)
+    public Position add(Position position)
     {
         return add(position.x, position.y, position.z);
     }
@@ -38,7 +38,7 @@ public record Position(World world, double x, double y, double z)
      * @param dz the offset in the z direction
      * @return a new Position object with the updated coordinates
      */
-    Position subtract(double dx, double dy, double dz)
+    public Position subtract(double dx, double dy, double dz)
     {
         return new Position(world, x - dx, y - dy, z - dz);
     }
@@ -49,7 +49,7 @@ public record Position(World world, double x, double y, double z)
      * @param position the Position to subtract
      * @return a new Position object with the updated coordinates
      */
-    Position subtract(Position position)
+    public Position subtract(Position position)
     {
         return subtract(position.x, position.y, position.z);
     }
@@ -60,7 +60,7 @@ public record Position(World world, double x, double y, double z)
      * @param d the scalar value to multiply by
      * @return a new Position object with the coordinates multiplied by the scalar
      */
-    Position multiply(double d)
+    public Position multiply(double d)
     {
         return new Position(world, x * d, y * d, z * d);
     }
@@ -72,7 +72,7 @@ public record Position(World world, double x, double y, double z)
      * @return a new Position object with the coordinates divided by the scalar
      * @throws ArithmeticException if division by zero is attempted
      */
-    Position divide(double d)
+    public Position divide(double d)
     {
         if (d == 0)
         {
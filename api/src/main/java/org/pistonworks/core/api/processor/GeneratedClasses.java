@@ -0,0 +1,100 @@
+package org.pistonworks.core.api.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Loads classes generated by the Piston Core annotation processors.
+ * <p>
+ * Each processor writes an index resource listing the classes it generated code for. An index is read once per
+ * class loader, so checking a class that was never processed costs a set lookup rather than a failed class load.
+ */
+public final class GeneratedClasses
+{
+
+    private static final Map<ClassLoader, Map<String, Set<String>>> INDEXES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private GeneratedClasses()
+    {
+    }
+
+    /**
+     * Instantiates the class generated for a source class, if the source class appears in the given index.
+     *
+     * @param type          the class code was generated for
+     * @param indexResource the index resource written by the processor
+     * @param suffix        the suffix the processor appends to the binary class name
+     * @param contract      the interface the generated class implements
+     * @param <T>           the contract type
+     * @return a new instance of the generated class, or null if there is none
+     */
+    public static <T> T load(Class<?> type, String indexResource, String suffix, Class<T> contract)
+    {
+        ClassLoader loader = type.getClassLoader();
+        if (loader == null || !index(loader, indexResource).contains(type.getName()))
+        {
+            return null;
+        }
+
+        try
+        {
+            return Class.forName(type.getName() + suffix, true, loader)
+                    .asSubclass(contract)
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e)
+        {
+            // A stale index entry, callers fall back to reflection
+            return null;
+        }
+    }
+
+    private static Set<String> index(ClassLoader loader, String indexResource)
+    {
+        synchronized (INDEXES)
+        {
+            return INDEXES.computeIfAbsent(loader, k -> new HashMap<>())
+                    .computeIfAbsent(indexResource, resource -> read(loader, resource));
+        }
+    }
+
+    private static Set<String> read(ClassLoader loader, String indexResource)
+    {
+        Set<String> classNames = new HashSet<>();
+        try
+        {
+            Enumeration<URL> indexes = loader.getResources(indexResource);
+            while (indexes.hasMoreElements())
+            {
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(indexes.nextElement().openStream(), StandardCharsets.UTF_8)))
+                {
+                    String line;
+                    while ((line = reader.readLine()) != null)
+                    {
+                        line = line.trim();
+                        if (!line.isEmpty() && !line.startsWith("#"))
+                        {
+                            classNames.add(line);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e)
+        {
+            // Without an index every class falls back to reflection
+        }
+        return classNames;
+    }
+}
@@ -0,0 +1,86 @@
+package org.pistonworks.core.api.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Conversions from raw piston-core.yml values to typed ones.
+ * Shared by the default methods of {@link PluginMetadataService} and by platform implementations that cache the
+ * converted values, so both accept exactly the same input.
+ */
+public final class ConfigValues
+{
+
+    private ConfigValues()
+    {
+    }
+
+    /**
+     * Converts a value to a whole number. Integral numbers and numeric strings are accepted.
+     *
+     * @param value the raw value, not null
+     * @return the number, or null if the value is not a whole number
+     */
+    public static Long toLong(Object value)
+    {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)
+        {
+            return ((Number) value).longValue();
+        }
+        try
+        {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Converts a value to a duration. Numbers are read as milliseconds, anything else as
+     * {@link PluginMetadataService#parseDuration} reads it.
+     *
+     * @param value the raw value, not null
+     * @return the duration, or null if the value is not a duration
+     */
+    public static Duration toDuration(Object value)
+    {
+        if (value instanceof Number millis)
+        {
+            return Duration.ofMillis(millis.longValue());
+        }
+        try
+        {
+            return PluginMetadataService.parseDuration(value.toString());
+        } catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Converts a value to a read-only list of strings. A single value becomes a one-element list.
+     *
+     * @param value the raw value, or null
+     * @return the strings, or an empty list if the value is null
+     */
+    public static List<String> toStrings(Object value)
+    {
+        if (value == null)
+        {
+            return List.of();
+        }
+        if (value instanceof List<?> list)
+        {
+            List<String> strings = new ArrayList<>(list.size());
+            for (Object element : list)
+            {
+                strings.add(String.valueOf(element));
+            }
+            return Collections.unmodifiableList(strings);
+        }
+        return List.of(value.toString());
+    }
+}
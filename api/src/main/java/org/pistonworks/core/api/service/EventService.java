@@ -2,7 +2,11 @@ package org.pistonworks.core.api.service;
 
 import org.pistonworks.core.api.event.Event;
 import org.pistonworks.core.api.event.EventListener;
+import org.pistonworks.core.api.event.ListenerBatch;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -37,6 +41,71 @@ public interface EventService
      */
     <T extends Event> void registerListener(Class<T> eventClass, EventListener<T> listener);
 
+    /**
+     * Starts a batch of registrations that are published together when the batch is committed.
+     * Prefer this over many single registrations when enabling a plugin.
+     * <p>
+     * The default implementation only collects the registrations and performs them one at a time on commit;
+     * implementations should override it to publish the whole batch at once.
+     *
+     * @return a new, empty batch
+     */
+    default ListenerBatch beginBatch()
+    {
+        return new ListenerBatch()
+        {
+            private final List<Runnable> registrations = new ArrayList<>();
+            private boolean committed;
+
+            @Override
+            public ListenerBatch listen(Object listener)
+            {
+                checkOpen();
+                registrations.add(() -> registerListener(listener));
+                return this;
+            }
+
+            @Override
+            public <T extends Event> ListenerBatch listen(Class<T> eventClass, EventListener<T> listener)
+            {
+                checkOpen();
+                registrations.add(() -> registerListener(eventClass, listener));
+                return this;
+            }
+
+            @Override
+            public void commit()
+            {
+                checkOpen();
+                committed = true;
+                registrations.forEach(Runnable::run);
+            }
+
+            private void checkOpen()
+            {
+                if (committed)
+                {
+                    throw new IllegalStateException("Listener batch has already been committed");
+                }
+            }
+        };
+    }
+
+    /**
+     * Registers several objects containing event handler methods in one batch.
+     *
+     * @param listeners the listener objects
+     */
+    default void registerListeners(Collection<?> listeners)
+    {
+        ListenerBatch batch = beginBatch();
+        for (Object listener : listeners)
+        {
+            batch.listen(listener);
+        }
+        batch.commit();
+    }
+
     /**
      * Fires an event synchronously to all registered listeners.
      *
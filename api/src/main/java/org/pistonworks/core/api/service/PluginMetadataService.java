@@ -1,6 +1,9 @@
 package org.pistonworks.core.api.service;
 
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
@@ -52,7 +55,8 @@ public interface PluginMetadataService
     String getPluginAuthorsString();
 
     /**
-     * Gets a specific property from piston-core.yml
+     * Gets a specific property from piston-core.yml.
+     * Nested properties are addressed with dotted paths, such as {@code logging.file.enabled}.
      *
      * @param key the property key
      * @return the property value, or empty if not found
@@ -60,19 +64,116 @@ public interface PluginMetadataService
     Optional<Object> getProperty(String key);
 
     /**
-     * Gets a specific property from piston-core.yml with a default value
+     * Gets a specific property from piston-core.yml with a default value.
+     * The value is returned if it has the default's type, or is a list or map where the default is one. Prefer
+     * {@link #getInt} and {@link #getLong} for numbers, since YAML decides whether a number is read as an Integer or
+     * a Long.
      *
      * @param key          the property key
-     * @param defaultValue the default value if not found
+     * @param defaultValue the default value if not found or of another type
      * @param <T>          the type of the value
      * @return the property value or default value
      */
     <T> T getProperty(String key, T defaultValue);
 
+    /**
+     * Gets an integer property from piston-core.yml. Numbers and numeric strings are accepted.
+     *
+     * @param key          the property key
+     * @param defaultValue the default value if not found or not an integer
+     * @return the property value or default value
+     */
+    default int getInt(String key, int defaultValue)
+    {
+        long value = getLong(key, defaultValue);
+        return value == (int) value ? (int) value : defaultValue;
+    }
+
+    /**
+     * Gets a long property from piston-core.yml. Numbers and numeric strings are accepted.
+     * The default implementation converts the property on every call; implementations may cache the result.
+     *
+     * @param key          the property key
+     * @param defaultValue the default value if not found or not a whole number
+     * @return the property value or default value
+     */
+    default long getLong(String key, long defaultValue)
+    {
+        Long value = getProperty(key).map(ConfigValues::toLong).orElse(null);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Gets a duration property from piston-core.yml, written as a number of milliseconds or in any form
+     * {@link #parseDuration} accepts.
+     * The default implementation converts the property on every call; implementations may cache the result.
+     *
+     * @param key          the property key
+     * @param defaultValue the default value if not found or not a duration
+     * @return the property value or default value
+     */
+    default Duration getDuration(String key, Duration defaultValue)
+    {
+        return getProperty(key).map(ConfigValues::toDuration).orElse(defaultValue);
+    }
+
+    /**
+     * Gets a list property from piston-core.yml as strings. A single value is returned as a one-element list.
+     * The default implementation converts the property on every call; implementations may cache the result.
+     *
+     * @param key the property key
+     * @return the values, or an empty list if not found
+     */
+    default List<String> getStringList(String key)
+    {
+        return ConfigValues.toStrings(getProperty(key).orElse(null));
+    }
+
+    /**
+     * Parses a duration written as a number of milliseconds, a number with one of the units {@code ms}, {@code s},
+     * {@code m}, {@code h} or {@code d} (such as {@code 30s}), or an ISO-8601 duration such as {@code PT1M30S}.
+     *
+     * @param text the duration
+     * @return the parsed duration
+     * @throws IllegalArgumentException if the text is not a duration
+     */
+    static Duration parseDuration(String text)
+    {
+        String value = text.trim().toLowerCase(Locale.ROOT);
+        try
+        {
+            if (value.startsWith("p"))
+            {
+                return Duration.parse(value.toUpperCase(Locale.ROOT));
+            }
+            if (value.endsWith("ms"))
+            {
+                return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2).trim()));
+            }
+            if (value.isEmpty() || Character.isDigit(value.charAt(value.length() - 1)))
+            {
+                return Duration.ofMillis(Long.parseLong(value));
+            }
+
+            long amount = Long.parseLong(value.substring(0, value.length() - 1).trim());
+            return switch (value.charAt(value.length() - 1))
+            {
+                case 's' -> Duration.ofSeconds(amount);
+                case 'm' -> Duration.ofMinutes(amount);
+                case 'h' -> Duration.ofHours(amount);
+                case 'd' -> Duration.ofDays(amount);
+                default -> throw new IllegalArgumentException("Unknown duration unit: " + text);
+            };
+        } catch (DateTimeParseException | ArithmeticException e)
+        {
+            throw new IllegalArgumentException("Not a duration: " + text, e);
+        }
+    }
+
     /**
      * Gets all metadata properties
      *
-     * @return a map of all properties from piston-core.yml
+     * @return a read-only map of all properties from piston-core.yml
      */
     Map<String, Object> getAllProperties();
 
@@ -0,0 +1,147 @@
+package org.pistonworks.core.api.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CommandTrieTest
+{
+
+    @Test
+    void completesPrefixesInSortedOrder()
+    {
+        CommandTrie trie = new CommandTrie();
+        for (String name : List.of("teleport", "tell", "team", "time", "give", "gamemode"))
+        {
+            trie.add(name);
+        }
+
+        assertEquals(List.of("team", "teleport", "tell"), trie.complete("te", Integer.MAX_VALUE));
+        assertEquals(List.of("teleport", "tell"), trie.complete("tel", Integer.MAX_VALUE));
+        assertEquals(List.of("gamemode", "give", "team", "teleport", "tell", "time"),
+                trie.complete("", Integer.MAX_VALUE));
+        assertEquals(List.of(), trie.complete("x", Integer.MAX_VALUE));
+        assertEquals(List.of(), trie.complete("teleports", Integer.MAX_VALUE));
+    }
+
+    @Test
+    void prefixEndingInsideAnEdgeMatchesTheSubtree()
+    {
+        CommandTrie trie = new CommandTrie();
+        trie.add("teleport");
+        trie.add("teleporthere");
+
+        assertEquals(List.of("teleport", "teleporthere"), trie.complete("telep", Integer.MAX_VALUE));
+        assertEquals(List.of("teleporthere"), trie.complete("teleporth", Integer.MAX_VALUE));
+    }
+
+    @Test
+    void ignoresCase()
+    {
+        CommandTrie trie = new CommandTrie();
+        trie.add("Warp");
+        trie.add("WARPS");
+
+        assertEquals(List.of("warp", "warps"), trie.complete("wA", Integer.MAX_VALUE));
+    }
+
+    @Test
+    void stopsAtTheLimit()
+    {
+        CommandTrie trie = new CommandTrie();
+        for (String name : List.of("a", "ab", "abc", "abd", "b"))
+        {
+            trie.add(name);
+        }
+
+        assertEquals(List.of("a", "ab"), trie.complete("a", 2));
+        assertEquals(List.of(), trie.complete("a", 0));
+    }
+
+    @Test
+    void addingTwiceKeepsOneName()
+    {
+        CommandTrie trie = new CommandTrie();
+        trie.add("spawn");
+        trie.add("spawn");
+
+        assertEquals(List.of("spawn"), trie.complete("s", Integer.MAX_VALUE));
+    }
+
+    @Test
+    void removesNamesAndKeepsTheirNeighbours()
+    {
+        CommandTrie trie = new CommandTrie();
+        for (String name : List.of("home", "homes", "sethome", "delhome"))
+        {
+            trie.add(name);
+        }
+
+        trie.remove("home");
+        assertEquals(List.of("homes"), trie.complete("h", Integer.MAX_VALUE));
+
+        trie.remove("homes");
+        assertEquals(List.of(), trie.complete("h", Integer.MAX_VALUE));
+        assertEquals(List.of("delhome", "sethome"), trie.complete("", Integer.MAX_VALUE));
+
+        // Removing a name that is absent, or only a prefix of others, changes nothing
+        trie.remove("sethomes");
+        trie.remove("set");
+        assertEquals(List.of("delhome", "sethome"), trie.complete("", Integer.MAX_VALUE));
+    }
+
+    @Test
+    void matchesASortedSetUnderRandomChanges()
+    {
+        Random random = new Random(42);
+        CommandTrie trie = new CommandTrie();
+        TreeSet<String> expected = new TreeSet<>();
+        for (int i = 0; i < 5000; i++)
+        {
+            String name = randomName(random);
+            if (random.nextInt(3) == 0)
+            {
+                trie.remove(name);
+                expected.remove(name);
+            } else
+            {
+                trie.add(name);
+                expected.add(name);
+            }
+
+            String prefix = name.substring(0, random.nextInt(name.length() + 1));
+            assertEquals(startingWith(expected, prefix), trie.complete(prefix, Integer.MAX_VALUE), prefix);
+        }
+    }
+
+    private static String randomName(Random random)
+    {
+        // A small alphabet makes names share prefixes, so edges are split and merged often
+        StringBuilder name = new StringBuilder();
+        int length = 1 + random.nextInt(5);
+        for (int i = 0; i < length; i++)
+        {
+            name.append((char) ('a' + random.nextInt(3)));
+        }
+        return name.toString();
+    }
+
+    private static List<String> startingWith(TreeSet<String> names, String prefix)
+    {
+        List<String> matches = new ArrayList<>();
+        for (String name : names.tailSet(prefix))
+        {
+            if (!name.startsWith(prefix))
+            {
+                break;
+            }
+            matches.add(name);
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,211 @@
+package org.pistonworks.core.api.command;
+
+import org.junit.jupiter.api.Test;
+import org.pistonworks.core.api.model.CommandSender;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompletionCacheTest
+{
+
+    private static final String[] ARGS = {"a"};
+
+    private final CommandSender alice = sender("alice");
+    private final CommandSender bob = sender("bob");
+
+    @Test
+    void cachesResultsUntilInvalidated()
+    {
+        CompletionCache cache = CompletionCache.builder().build();
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(List.of("alex"), cache.get("tp", 0, "player", alice, ARGS, () -> load(loads, "alex")));
+        assertEquals(List.of("alex"), cache.get("tp", 0, "player", alice, ARGS, () -> load(loads, "other")));
+        assertEquals(1, loads.get());
+
+        cache.invalidate("player");
+        assertEquals(List.of("anna"), cache.get("tp", 0, "player", alice, ARGS, () -> load(loads, "anna")));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void typeSourcesAreSharedAndMethodSourcesArePerSender()
+    {
+        CompletionCache cache = CompletionCache.builder().build();
+
+        cache.get("tp", 0, "player", alice, ARGS, () -> List.of("alex"));
+        assertEquals(List.of("alex"), cache.get("tp", 0, "player", bob, ARGS, () -> List.of("other")));
+
+        cache.get("home", 0, "homes", alice, ARGS, () -> List.of("alice's home"));
+        assertEquals(List.of("bob's home"), cache.get("home", 0, "homes", bob, ARGS, () -> List.of("bob's home")));
+    }
+
+    @Test
+    void keysIncludeTheArgumentsTyped()
+    {
+        CompletionCache cache = CompletionCache.builder().build();
+
+        cache.get("tp", 0, "player", alice, new String[]{"a"}, () -> List.of("alex"));
+        assertEquals(List.of("bert"), cache.get("tp", 0, "player", alice, new String[]{"b"}, () -> List.of("bert")));
+    }
+
+    @Test
+    void zeroTimeToLiveDisablesCachingForASource()
+    {
+        CompletionCache cache = CompletionCache.builder().ttl("world", Duration.ZERO).build();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("mv", 0, "world", alice, ARGS, () -> load(loads, "world"));
+        cache.get("mv", 0, "world", alice, ARGS, () -> load(loads, "world"));
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntries()
+    {
+        CompletionCache cache = CompletionCache.builder().maxEntries(2).build();
+
+        cache.get("a", 0, "player", alice, ARGS, () -> List.of("a"));
+        cache.get("b", 0, "player", alice, ARGS, () -> List.of("b"));
+        cache.get("a", 0, "player", alice, ARGS, () -> List.of("stale"));
+        cache.get("c", 0, "player", alice, ARGS, () -> List.of("c"));
+
+        assertEquals(2, cache.size());
+        assertEquals(List.of("a"), cache.get("a", 0, "player", alice, ARGS, () -> List.of("reloaded")));
+        assertEquals(List.of("reloaded"), cache.get("b", 0, "player", alice, ARGS, () -> List.of("reloaded")));
+    }
+
+    @Test
+    void invalidatesByCommand()
+    {
+        CompletionCache cache = CompletionCache.builder().build();
+        cache.get("tp", 0, "player", alice, ARGS, () -> List.of("alex"));
+        cache.get("msg", 0, "player", alice, ARGS, () -> List.of("alex"));
+
+        cache.invalidateCommand("TP");
+        assertEquals(1, cache.size());
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad()
+    {
+        CompletionCache cache = CompletionCache.builder().build();
+        CompletableFuture<List<String>> pending = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<List<String>> first = cache.getAsync("tp", 0, "player", alice, ARGS, () ->
+        {
+            loads.incrementAndGet();
+            return pending;
+        }, Duration.ofSeconds(5));
+        CompletableFuture<List<String>> second = cache.getAsync("tp", 0, "player", alice, ARGS, () ->
+        {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(List.of("other"));
+        }, Duration.ofSeconds(5));
+
+        pending.complete(List.of("alex"));
+        assertEquals(List.of("alex"), first.join());
+        assertEquals(List.of("alex"), second.join());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void loadsRacingAnInvalidationAreNotCached()
+    {
+        CompletionCache cache = CompletionCache.builder().build();
+        CompletableFuture<List<String>> pending = new CompletableFuture<>();
+        cache.getAsync("tp", 0, "player", alice, ARGS, () -> pending, Duration.ZERO);
+
+        cache.invalidate("player");
+        pending.complete(List.of("left"));
+
+        assertEquals(List.of("joined"), cache.get("tp", 0, "player", alice, ARGS, () -> List.of("joined")));
+    }
+
+    @Test
+    void slowLoadsFallBackAndAreCachedWhenTheyFinish()
+    {
+        CompletionCache cache = CompletionCache.builder().build();
+        CompletableFuture<List<String>> pending = new CompletableFuture<>();
+
+        CompletableFuture<List<String>> result = cache.getAsync("tp", 0, "player", alice, ARGS, () -> pending,
+                Duration.ZERO);
+        assertEquals(List.of(), result.join());
+
+        pending.complete(List.of("alex"));
+        assertEquals(List.of("alex"), cache.getAsync("tp", 0, "player", alice, ARGS,
+                () -> CompletableFuture.completedFuture(List.of("other")), Duration.ZERO).join());
+    }
+
+    @Test
+    void failedLoadsAreNotCached()
+    {
+        CompletionCache cache = CompletionCache.builder().build();
+
+        CompletableFuture<List<String>> result = cache.getAsync("tp", 0, "player", alice, ARGS,
+                () -> CompletableFuture.failedFuture(new IllegalStateException()), Duration.ofSeconds(1));
+        assertEquals(List.of(), result.join());
+        assertEquals(0, cache.size());
+
+        assertThrows(IllegalStateException.class, () -> cache.get("tp", 0, "player", alice, ARGS, () ->
+        {
+            throw new IllegalStateException();
+        }));
+        assertEquals(List.of("alex"), cache.get("tp", 0, "player", alice, ARGS, () -> List.of("alex")));
+    }
+
+    @Test
+    void resultsAreReadOnly()
+    {
+        CompletionCache cache = CompletionCache.builder().build();
+        List<String> completions = cache.get("tp", 0, "player", alice, ARGS, () -> new ArrayList<>(List.of("a")));
+
+        assertThrows(UnsupportedOperationException.class, () -> completions.add("b"));
+    }
+
+    @Test
+    void rejectsInvalidSettings()
+    {
+        assertThrows(IllegalArgumentException.class, () -> CompletionCache.builder().maxEntries(0));
+    }
+
+    private static List<String> load(AtomicInteger loads, String name)
+    {
+        loads.incrementAndGet();
+        return List.of(name);
+    }
+
+    private static CommandSender sender(String name)
+    {
+        return new CommandSender()
+        {
+            @Override
+            public void sendMessage(String message)
+            {
+            }
+
+            @Override
+            public boolean hasPermission(String permission)
+            {
+                return true;
+            }
+
+            @Override
+            public String getName()
+            {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package org.pistonworks.core.api.command;
+
+import org.junit.jupiter.api.Test;
+import org.pistonworks.core.api.model.CommandSender;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefaultCommandRegistryTest
+{
+
+    private final DefaultCommandRegistry registry = new DefaultCommandRegistry();
+    private final CompletionHandler handler = new CompletionHandler();
+
+    @Test
+    void futureCompletionMethodsAreAsynchronous()
+    {
+        registry.registerCommands(handler);
+
+        assertTrue(registry.hasAsyncCompletions("/home "));
+        assertTrue(registry.hasAsyncCompletions("home "));
+        assertFalse(registry.hasAsyncCompletions("warp "));
+        assertFalse(registry.hasAsyncCompletions("home"));
+        assertFalse(registry.hasAsyncCompletions("home a b"));
+        assertFalse(registry.hasAsyncCompletions("unknown "));
+    }
+
+    @Test
+    void typeCompletersAreAsynchronousOnlyWhenRegisteredSo()
+    {
+        registry.registerCommands(handler);
+
+        registry.registerAsyncTabCompleter("player", (sender, command, args, currentArg) ->
+                CompletableFuture.completedFuture(List.of("alex")));
+        assertTrue(registry.hasAsyncCompletions("tp "));
+
+        registry.registerTabCompleter("player", (sender, command, args, currentArg) -> List.of("alex"));
+        assertFalse(registry.hasAsyncCompletions("tp "));
+    }
+
+    @Test
+    void synchronousCompletionNeverWaits()
+    {
+        registry.registerCommands(handler);
+
+        assertEquals(List.of(), registry.getTabCompletions(sender(), "home "));
+        assertEquals(List.of("north", "south"), registry.getTabCompletions(sender(), "warp "));
+
+        handler.homes.complete(List.of("base", "farm"));
+        assertEquals(List.of("farm"), registry.getTabCompletions(sender(), "home f"));
+    }
+
+    @Test
+    void asynchronousCompletionFallsBackAfterTheTimeout()
+    {
+        registry.registerCommands(handler);
+        registry.setCompletionTimeout(Duration.ofMillis(10));
+
+        assertEquals(List.of(), registry.getTabCompletionsAsync(sender(), "home ").join());
+
+        handler.homes.complete(List.of("base"));
+        assertEquals(List.of("base"), registry.getTabCompletionsAsync(sender(), "home ").join());
+    }
+
+    @Test
+    void cachedAsynchronousResultsServeLaterSynchronousCompletion()
+    {
+        registry.registerCommands(handler);
+        registry.setCompletionCache(CompletionCache.builder().build());
+
+        assertEquals(List.of(), registry.getTabCompletions(sender(), "home "));
+
+        handler.homes.complete(List.of("base"));
+        assertEquals(List.of("base"), registry.getTabCompletions(sender(), "home "));
+    }
+
+    private static CommandSender sender()
+    {
+        return new CommandSender()
+        {
+            @Override
+            public void sendMessage(String message)
+            {
+            }
+
+            @Override
+            public boolean hasPermission(String permission)
+            {
+                return true;
+            }
+
+            @Override
+            public String getName()
+            {
+                return "alice";
+            }
+        };
+    }
+
+    static class CompletionHandler extends CommandHandler
+    {
+        final CompletableFuture<List<String>> homes = new CompletableFuture<>();
+
+        @Command("home")
+        void home(CommandSender sender,
+                  @Arg(value = "name", completionType = Arg.CompletionType.METHOD, completionMethod = "homes") String name)
+        {
+        }
+
+        @Command("warp")
+        void warp(CommandSender sender,
+                  @Arg(value = "name", completionType = Arg.CompletionType.METHOD, completionMethod = "warps") String name)
+        {
+        }
+
+        @Command("tp")
+        void teleport(CommandSender sender, @Arg(value = "target", completionType = Arg.CompletionType.PLAYER) String target)
+        {
+        }
+
+        @TabCompletion("homes")
+        CompletableFuture<List<String>> homes(CommandSender sender, String command, String[] args,
+                                              String currentArg)
+        {
+            return homes;
+        }
+
+        @TabCompletion("warps")
+        List<String> warps(CommandSender sender, String command, String[] args, String currentArg)
+        {
+            return List.of("south", "north");
+        }
+    }
+}
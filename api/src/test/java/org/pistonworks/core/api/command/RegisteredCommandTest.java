@@ -0,0 +1,162 @@
+package org.pistonworks.core.api.command;
+
+import org.junit.jupiter.api.Test;
+import org.pistonworks.core.api.model.CommandSender;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegisteredCommandTest
+{
+
+    private final DefaultCommandRegistry registry = new DefaultCommandRegistry();
+    private final List<String> online = new ArrayList<>();
+    private int lookups;
+
+    RegisteredCommandTest()
+    {
+        // Stands in for a platform parser that depends on who is online
+        registry.registerArgumentParser(Target.class, (value, argument) ->
+        {
+            lookups++;
+            for (String name : online)
+            {
+                if (name.startsWith(value))
+                {
+                    return new Target(name);
+                }
+            }
+            throw new ArgumentParseException("No player matches " + value);
+        });
+    }
+
+    @Test
+    void parsesBuiltInDefaults()
+    {
+        DefaultsHandler handler = new DefaultsHandler();
+        registry.registerCommands(handler);
+
+        assertTrue(registry.executeCommand(sender(), "give diamond"));
+        assertTrue(registry.executeCommand(sender(), "give diamond 3"));
+
+        assertEquals(List.of("diamond x5", "diamond x3"), handler.calls);
+    }
+
+    @Test
+    void rejectsInvalidBuiltInDefaultsAtRegistration()
+    {
+        assertThrows(IllegalArgumentException.class, () -> registry.registerCommands(new InvalidDefaultHandler()));
+    }
+
+    @Test
+    void parsesCustomDefaultsOnEachExecution()
+    {
+        DefaultsHandler handler = new DefaultsHandler();
+        registry.registerCommands(handler);
+        assertEquals(0, lookups);
+
+        online.add("bob");
+        assertTrue(registry.executeCommand(sender(), "heal"));
+        online.add(0, "bella");
+        assertTrue(registry.executeCommand(sender(), "heal"));
+
+        assertEquals(List.of("heal bob", "heal bella"), handler.calls);
+    }
+
+    @Test
+    void emptyCustomDefaultsAreNull()
+    {
+        DefaultsHandler handler = new DefaultsHandler();
+        registry.registerCommands(handler);
+
+        assertTrue(registry.executeCommand(sender(), "kick"));
+        online.add("alice");
+        assertTrue(registry.executeCommand(sender(), "kick al"));
+
+        assertEquals(List.of("kick null", "kick alice"), handler.calls);
+        assertEquals(1, lookups);
+    }
+
+    @Test
+    void customDefaultsThatNoLongerParseAreArgumentErrors()
+    {
+        DefaultsHandler handler = new DefaultsHandler();
+        registry.registerCommands(handler);
+
+        assertFalse(registry.executeCommand(sender(), "heal"));
+
+        assertEquals(List.of(), handler.calls);
+        assertEquals(List.of(CommandError.ErrorType.INVALID_ARGUMENTS), handler.errors);
+    }
+
+    static CommandSender sender()
+    {
+        return new CommandSender()
+        {
+            @Override
+            public void sendMessage(String message)
+            {
+            }
+
+            @Override
+            public boolean hasPermission(String permission)
+            {
+                return true;
+            }
+
+            @Override
+            public String getName()
+            {
+                return "alice";
+            }
+        };
+    }
+
+    record Target(String name)
+    {
+    }
+
+    static class DefaultsHandler extends CommandHandler
+    {
+        final List<String> calls = new ArrayList<>();
+        final List<CommandError.ErrorType> errors = new ArrayList<>();
+
+        @Command("give")
+        void give(CommandSender sender, @Arg("item") String item,
+                  @Arg(value = "amount", optional = true, defaultValue = "5") int amount)
+        {
+            calls.add(item + " x" + amount);
+        }
+
+        @Command("heal")
+        void heal(CommandSender sender, @Arg(value = "target", optional = true, defaultValue = "b") Target target)
+        {
+            calls.add("heal " + target.name());
+        }
+
+        @Command("kick")
+        void kick(CommandSender sender, @Arg(value = "target", optional = true) Target target)
+        {
+            calls.add("kick " + (target != null ? target.name() : null));
+        }
+
+        @Override
+        protected void onCommandError(CommandSender sender, String command, CommandError error)
+        {
+            errors.add(error.getType());
+        }
+    }
+
+    static class InvalidDefaultHandler extends CommandHandler
+    {
+        @Command("broken")
+        void broken(CommandSender sender, @Arg(value = "amount", optional = true, defaultValue = "many") int amount)
+        {
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.pistonworks.core.api.logging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MessageFormatterTest
+{
+
+    @Test
+    void replacesPlaceholdersInOrder()
+    {
+        assertEquals("alex joined world in 12 ms", MessageFormatter.format("{} joined {} in {} ms", "alex", "world", 12));
+        assertEquals("{}", MessageFormatter.format("{}", "{}"));
+        assertEquals("null", MessageFormatter.format("{}", (Object) null));
+    }
+
+    @Test
+    void leavesPlaceholdersWithoutArgumentsAlone()
+    {
+        assertEquals("a and {}", MessageFormatter.format("{} and {}", "a"));
+        assertEquals("no placeholders", MessageFormatter.format("no placeholders", "a"));
+        assertEquals("{} left", MessageFormatter.format("{} left"));
+    }
+
+    @Test
+    void escapedPlaceholdersAreLiteral()
+    {
+        assertEquals("{} is a", MessageFormatter.format("\\{} is {}", "a"));
+    }
+
+    @Test
+    void trailingThrowableIsNotAnArgument()
+    {
+        IllegalStateException thrown = new IllegalStateException("boom");
+
+        assertEquals("failed {}", MessageFormatter.format("failed {}", thrown));
+        assertEquals("failed a", MessageFormatter.format("failed {}", "a", thrown));
+        assertSame(thrown, MessageFormatter.getThrowable("a", thrown));
+    }
+
+    @Test
+    void throwableElsewhereIsAnArgument()
+    {
+        IllegalStateException thrown = new IllegalStateException("boom");
+
+        assertEquals("failed " + thrown + " a", MessageFormatter.format("failed {} {}", thrown, "a"));
+        assertNull(MessageFormatter.getThrowable(thrown, "a"));
+    }
+
+    @Test
+    void acceptsNulls()
+    {
+        assertNull(MessageFormatter.format(null, "a"));
+        assertEquals("{}", MessageFormatter.format("{}", (Object[]) null));
+        assertNull(MessageFormatter.getThrowable((Object[]) null));
+        assertNull(MessageFormatter.getThrowable());
+    }
+}
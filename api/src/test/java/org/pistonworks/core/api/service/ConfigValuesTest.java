@@ -0,0 +1,39 @@
+package org.pistonworks.core.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConfigValuesTest
+{
+
+    @Test
+    void convertsWholeNumbers()
+    {
+        assertEquals(Long.valueOf(5), ConfigValues.toLong(5));
+        assertEquals(Long.valueOf(5_000_000_000L), ConfigValues.toLong(" 5000000000 "));
+        assertNull(ConfigValues.toLong(1.5));
+        assertNull(ConfigValues.toLong("many"));
+    }
+
+    @Test
+    void convertsDurations()
+    {
+        assertEquals(Duration.ofMillis(250), ConfigValues.toDuration(250));
+        assertEquals(Duration.ofSeconds(30), ConfigValues.toDuration("30s"));
+        assertEquals(Duration.ofSeconds(90), ConfigValues.toDuration("PT1M30S"));
+        assertNull(ConfigValues.toDuration("soon"));
+    }
+
+    @Test
+    void convertsStringLists()
+    {
+        assertEquals(List.of(), ConfigValues.toStrings(null));
+        assertEquals(List.of("a", "1"), ConfigValues.toStrings(List.of("a", 1)));
+        assertEquals(List.of("single"), ConfigValues.toStrings("single"));
+    }
+}
@@ -0,0 +1,66 @@
+plugins {
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+// JMH suites for the platform-agnostic layers. Nothing here needs a Minecraft server;
+// run with ./gradlew :benchmarks:jmh (filter with -Pjmh.includes=<regex>).
+
+dependencies {
+    jmh(project(":api"))
+    jmh(project(":common"))
+    // Generates listener dispatchers for the @EventHandler classes in the suites
+    jmhAnnotationProcessor(project(":processor"))
+}
+
+// Depends on :common, which targets Java 21
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    includes.set(listOfNotNull(findProperty("jmh.includes") as String?))
+    resultFormat.set("JSON")
+}
+
+// Generates command handlers with 10, 100 and 1000 annotated commands so the registry
+// can be measured against large command sets without hand-writing thousands of methods.
+val generateCommandHandlers by tasks.registering {
+    val outputDir = layout.buildDirectory.dir("generated/sources/commandHandlers/java")
+    outputs.dir(outputDir)
+    doLast {
+        val packageDir = outputDir.get().asFile.resolve("org/pistonworks/core/benchmarks/generated")
+        packageDir.mkdirs()
+        for (size in listOf(10, 100, 1000)) {
+            val className = "Generated${size}CommandHandler"
+            val source = StringBuilder()
+            source.append("package org.pistonworks.core.benchmarks.generated;\n\n")
+            source.append("import org.pistonworks.core.api.command.Arg;\n")
+            source.append("import org.pistonworks.core.api.command.Command;\n")
+            source.append("import org.pistonworks.core.api.command.CommandHandler;\n")
+            source.append("import org.pistonworks.core.api.model.CommandSender;\n\n")
+            source.append("public class $className extends CommandHandler\n{\n")
+            source.append("    public int invocations;\n")
+            for (i in 0 until size) {
+                val name = "cmd%04d".format(i)
+                val alias = "c%04d".format(i)
+                source.append("\n    @Command(name = \"$name\", aliases = {\"$alias\"})\n")
+                source.append("    public void $name(CommandSender sender,\n")
+                source.append("            @Arg(value = \"target\", completions = {\"alpha\", \"beta\", \"gamma\", \"delta\"}) String target,\n")
+                source.append("            @Arg(value = \"amount\", optional = true, defaultValue = \"1\") int amount)\n")
+                source.append("    {\n        invocations += amount;\n    }\n")
+            }
+            source.append("}\n")
+            packageDir.resolve("$className.java").writeText(source.toString())
+        }
+    }
+}
+
+sourceSets.named("jmh") {
+    java.srcDir(generateCommandHandlers)
+}
@@ -0,0 +1,35 @@
+package org.pistonworks.core.benchmarks;
+
+import org.pistonworks.core.api.model.CommandSender;
+
+/**
+ * Command sender that has every permission and discards messages.
+ */
+public class BenchmarkCommandSender implements CommandSender
+{
+
+    private int messages;
+
+    @Override
+    public String getName()
+    {
+        return "benchmark";
+    }
+
+    @Override
+    public void sendMessage(String message)
+    {
+        messages++;
+    }
+
+    @Override
+    public boolean hasPermission(String permission)
+    {
+        return true;
+    }
+
+    public int getMessages()
+    {
+        return messages;
+    }
+}
@@ -0,0 +1,64 @@
+package org.pistonworks.core.benchmarks;
+
+import org.pistonworks.core.common.event.AbstractCancellableEvent;
+import org.pistonworks.core.common.event.AbstractEvent;
+
+/**
+ * Event types used by the event benchmarks.
+ * The deep hierarchies are five levels below the common base class so dispatch has to flatten several supertypes.
+ */
+public final class BenchmarkEvents
+{
+
+    private BenchmarkEvents()
+    {
+    }
+
+    public static class ShallowEvent extends AbstractEvent
+    {
+    }
+
+    public static class ShallowCancellableEvent extends AbstractCancellableEvent
+    {
+    }
+
+    public static class DeepEvent1 extends AbstractEvent
+    {
+    }
+
+    public static class DeepEvent2 extends DeepEvent1
+    {
+    }
+
+    public static class DeepEvent3 extends DeepEvent2
+    {
+    }
+
+    public static class DeepEvent4 extends DeepEvent3
+    {
+    }
+
+    public static class DeepEvent5 extends DeepEvent4
+    {
+    }
+
+    public static class DeepCancellableEvent1 extends AbstractCancellableEvent
+    {
+    }
+
+    public static class DeepCancellableEvent2 extends DeepCancellableEvent1
+    {
+    }
+
+    public static class DeepCancellableEvent3 extends DeepCancellableEvent2
+    {
+    }
+
+    public static class DeepCancellableEvent4 extends DeepCancellableEvent3
+    {
+    }
+
+    public static class DeepCancellableEvent5 extends DeepCancellableEvent4
+    {
+    }
+}
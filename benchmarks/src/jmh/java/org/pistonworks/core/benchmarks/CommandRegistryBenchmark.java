@@ -0,0 +1,89 @@
+package org.pistonworks.core.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.pistonworks.core.api.command.CommandHandler;
+import org.pistonworks.core.api.command.DefaultCommandRegistry;
+import org.pistonworks.core.benchmarks.generated.Generated1000CommandHandler;
+import org.pistonworks.core.benchmarks.generated.Generated100CommandHandler;
+import org.pistonworks.core.benchmarks.generated.Generated10CommandHandler;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures command execution and tab completion on {@link DefaultCommandRegistry}.
+ * Each registered command has one alias, so the registry holds twice {@code commandCount} names.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CommandRegistryBenchmark
+{
+
+    @Param({"10", "100", "1000"})
+    public int commandCount;
+
+    private DefaultCommandRegistry registry;
+    private BenchmarkCommandSender sender;
+    private String commandLine;
+    private String aliasLine;
+    private String defaultedLine;
+    private String namePrefix;
+    private String argumentLine;
+
+    @Setup
+    public void setUp()
+    {
+        registry = new DefaultCommandRegistry();
+        sender = new BenchmarkCommandSender();
+        registry.registerCommands(createHandler());
+
+        String last = String.format("%04d", commandCount - 1);
+        commandLine = "cmd" + last + " alpha 5";
+        aliasLine = "c" + last + " alpha 5";
+        defaultedLine = "cmd" + last + " alpha";
+        namePrefix = "cmd0";
+        argumentLine = "cmd" + last + " g";
+    }
+
+    private CommandHandler createHandler()
+    {
+        return switch (commandCount)
+        {
+            case 10 -> new Generated10CommandHandler();
+            case 100 -> new Generated100CommandHandler();
+            case 1000 -> new Generated1000CommandHandler();
+            default -> throw new IllegalArgumentException("No generated handler for " + commandCount + " commands");
+        };
+    }
+
+    @Benchmark
+    public boolean executeCommand()
+    {
+        return registry.executeCommand(sender, commandLine);
+    }
+
+    @Benchmark
+    public boolean executeAlias()
+    {
+        return registry.executeCommand(sender, aliasLine);
+    }
+
+    @Benchmark
+    public boolean executeWithDefaultArgument()
+    {
+        return registry.executeCommand(sender, defaultedLine);
+    }
+
+    @Benchmark
+    public List<String> completeCommandName()
+    {
+        return registry.getTabCompletions(sender, namePrefix);
+    }
+
+    @Benchmark
+    public List<String> completeArgument()
+    {
+        return registry.getTabCompletions(sender, argumentLine);
+    }
+}
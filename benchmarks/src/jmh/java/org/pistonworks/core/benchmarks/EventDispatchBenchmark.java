@@ -0,0 +1,74 @@
+package org.pistonworks.core.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.pistonworks.core.api.event.Event;
+import org.pistonworks.core.common.event.EventServiceImpl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link EventServiceImpl#fireEvent} across listener counts, hierarchy depth and cancellability.
+ * In the deep variants listeners are spread evenly over all five levels of the hierarchy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class EventDispatchBenchmark
+{
+
+    @Param({"0", "1", "10", "100"})
+    public int listenerCount;
+
+    @Param({"shallow", "deep"})
+    public String hierarchy;
+
+    @Param({"false", "true"})
+    public boolean cancellable;
+
+    private EventServiceImpl eventService;
+    private Event event;
+    private int handled;
+
+    @Setup
+    public void setUp()
+    {
+        eventService = new EventServiceImpl();
+
+        List<Class<? extends Event>> levels;
+        if (hierarchy.equals("shallow"))
+        {
+            levels = cancellable
+                    ? List.of(BenchmarkEvents.ShallowCancellableEvent.class)
+                    : List.of(BenchmarkEvents.ShallowEvent.class);
+        } else
+        {
+            levels = cancellable
+                    ? List.of(BenchmarkEvents.DeepCancellableEvent1.class, BenchmarkEvents.DeepCancellableEvent2.class,
+                    BenchmarkEvents.DeepCancellableEvent3.class, BenchmarkEvents.DeepCancellableEvent4.class,
+                    BenchmarkEvents.DeepCancellableEvent5.class)
+                    : List.of(BenchmarkEvents.DeepEvent1.class, BenchmarkEvents.DeepEvent2.class,
+                    BenchmarkEvents.DeepEvent3.class, BenchmarkEvents.DeepEvent4.class,
+                    BenchmarkEvents.DeepEvent5.class);
+        }
+
+        for (int i = 0; i < listenerCount; i++)
+        {
+            eventService.registerListener(levels.get(i % levels.size()), e -> handled++);
+        }
+
+        try
+        {
+            event = levels.get(levels.size() - 1).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public Event fireEvent()
+    {
+        return eventService.fireEvent(event);
+    }
+}
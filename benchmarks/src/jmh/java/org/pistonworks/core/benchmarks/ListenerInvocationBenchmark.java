@@ -0,0 +1,82 @@
+package org.pistonworks.core.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.pistonworks.core.api.event.EventHandler;
+import org.pistonworks.core.api.event.EventPriority;
+import org.pistonworks.core.common.event.FunctionalRegisteredListener;
+import org.pistonworks.core.common.event.RegisteredListener;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of invoking a single @EventHandler method through plain reflection,
+ * through the executor bound by {@link RegisteredListener}, through the dispatcher generated at compile time,
+ * and through a functional listener.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ListenerInvocationBenchmark
+{
+
+    private final BenchmarkEvents.ShallowEvent event = new BenchmarkEvents.ShallowEvent();
+    private Handler handler;
+    private Method method;
+    private RegisteredListener generated;
+    private RegisteredListener compiled;
+    private RegisteredListener functional;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException
+    {
+        handler = new Handler();
+        method = Handler.class.getMethod("onEvent", BenchmarkEvents.ShallowEvent.class);
+        method.setAccessible(true);
+        generated = new RegisteredListener(handler, method, EventPriority.NORMAL, true);
+        compiled = new RegisteredListener(handler,
+                new ListenerInvocationBenchmark$Handler$$PistonDispatcher().handlers().get(0));
+        functional = new FunctionalRegisteredListener<BenchmarkEvents.ShallowEvent>(handler::onEvent, EventPriority.NORMAL);
+    }
+
+    @Benchmark
+    public void reflective() throws Exception
+    {
+        method.invoke(handler, event);
+    }
+
+    @Benchmark
+    public void generated() throws Exception
+    {
+        generated.call(event);
+    }
+
+    @Benchmark
+    public void compiled() throws Exception
+    {
+        compiled.call(event);
+    }
+
+    @Benchmark
+    public void functional() throws Exception
+    {
+        functional.call(event);
+    }
+
+    @Benchmark
+    public void direct()
+    {
+        handler.onEvent(event);
+    }
+
+    public static class Handler
+    {
+        public int handled;
+
+        @EventHandler
+        public void onEvent(BenchmarkEvents.ShallowEvent event)
+        {
+            handled++;
+        }
+    }
+}
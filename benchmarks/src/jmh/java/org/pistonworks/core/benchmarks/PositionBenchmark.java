@@ -0,0 +1,62 @@
+package org.pistonworks.core.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.pistonworks.core.api.model.Position;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the vector arithmetic on {@link Position}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class PositionBenchmark
+{
+
+    private Position a;
+    private Position b;
+
+    @Setup
+    public void setUp()
+    {
+        a = new Position(null, 128.5, 64.0, -312.25);
+        b = new Position(null, 130.75, 65.5, -300.0);
+    }
+
+    @Benchmark
+    public Position addOffsets()
+    {
+        return a.add(1.0, 0.5, -1.0);
+    }
+
+    @Benchmark
+    public Position addPosition()
+    {
+        return a.add(b);
+    }
+
+    @Benchmark
+    public Position subtractPosition()
+    {
+        return a.subtract(b);
+    }
+
+    @Benchmark
+    public Position multiply()
+    {
+        return a.multiply(2.5);
+    }
+
+    @Benchmark
+    public Position divide()
+    {
+        return a.divide(2.5);
+    }
+
+    @Benchmark
+    public double distanceTo()
+    {
+        return a.distanceTo(b);
+    }
+}
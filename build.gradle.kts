@@ -41,8 +41,8 @@ allprojects {
         useJUnitPlatform()
     }
 
-    // Configure publishing for all projects except gradle-plugin
-    if (project.name != "gradle-plugin") {
+    // Configure publishing for all projects except gradle-plugin and benchmarks
+    if (project.name != "gradle-plugin" && project.name != "benchmarks") {
         publishing {
             publications {
                 create<MavenPublication>("maven") {
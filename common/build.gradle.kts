@@ -3,6 +3,13 @@ dependencies {
     implementation(project(":api"))
 }
 
+// Blocking event listeners run on virtual threads, which need Java 21
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
 // Configure JAR output to root directory
 tasks.jar {
     destinationDirectory.set(rootProject.projectDir.resolve("build/libs"))
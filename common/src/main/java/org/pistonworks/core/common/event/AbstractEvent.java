@@ -36,6 +36,17 @@ public abstract class AbstractEvent implements Event
         return timestamp;
     }
 
+    /**
+     * Called on the firing thread before the event is handed to a listener that runs on another thread, such as a
+     * blocking or demoted listener. Events that read their state lazily from a mutable platform event must copy it
+     * here, since the platform event may have changed, or be unsafe to read, by the time that listener runs.
+     * Called at most once per handed-off listener, so implementations should do nothing once they hold a copy.
+     */
+    protected void detach()
+    {
+        // Default implementation does nothing
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,387 @@
+package org.pistonworks.core.common.event;
+
+import org.pistonworks.core.api.event.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch pipeline behind {@link EventServiceImpl#fireEventAsync}.
+ * <p>
+ * Each worker thread owns a bounded queue, and every event type is pinned to one worker. Events of the same type
+ * are therefore delivered one at a time and in submission order, so a listener sees them in the order they were
+ * fired, unless {@link OverflowPolicy#CALLER_RUNS} delivers an event on the firing thread. A listener registered
+ * for a supertype spanning several event types may be called from more than one worker; use a single worker if it
+ * needs a global order.
+ * <p>
+ * Workers drain their queue in batches and deliver each batch grouped by event type, resolving the listener array
+ * once per group. What happens when a queue is full is decided by the {@link OverflowPolicy}; the default drops the
+ * event and counts it in the {@link EventMetrics}, so a slow listener can never stall the thread firing the event.
+ * <p>
+ * After {@link #shutdown()}, queued events are still delivered, and every event that can no longer be delivered has
+ * its future failed with a {@link RejectedExecutionException}, so no future is left pending.
+ */
+public final class AsyncEventDispatcher
+{
+
+    private final EventServiceImpl eventService;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final Worker[] workers;
+    private volatile boolean running = true;
+
+    private AsyncEventDispatcher(EventServiceImpl eventService, Builder builder)
+    {
+        this.eventService = eventService;
+        this.overflowPolicy = builder.overflowPolicy;
+        this.batchSize = builder.batchSize;
+        this.workers = new Worker[builder.workers];
+        for (int i = 0; i < workers.length; i++)
+        {
+            workers[i] = new Worker(builder.threadName + " #" + (i + 1), builder.queueCapacity);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Creates a builder with the default settings: one worker per two processors, 8192 queued events per worker,
+     * batches of 64 and {@link OverflowPolicy#DROP}.
+     *
+     * @return a new builder instance
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Queues an event for delivery.
+     *
+     * @param event the event to fire
+     * @param <T>   the event type
+     * @return a future completed with the event once every listener has run
+     */
+    public <T extends Event> CompletableFuture<T> submit(T event)
+    {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (!running)
+        {
+            future.completeExceptionally(new RejectedExecutionException("Async event dispatcher has been shut down"));
+            return future;
+        }
+
+        @SuppressWarnings("unchecked")
+        Task task = new Task(event, (CompletableFuture<Event>) (CompletableFuture<?>) future);
+        Worker worker = workers[Math.floorMod(event.getClass().hashCode(), workers.length)];
+        if (worker.queue.offer(task))
+        {
+            rejectIfStopped(worker, task);
+            return future;
+        }
+
+        switch (overflowPolicy)
+        {
+            case DROP ->
+            {
+                eventService.getMetrics().recordAsyncDrop(event.getClass());
+                future.completeExceptionally(
+                        new RejectedExecutionException("Async event queue is full, dropped " + event.getEventName()));
+            }
+            case BLOCK ->
+            {
+                // A worker waiting on its own queue would never wake up, so it delivers inline instead
+                if (Thread.currentThread() == worker)
+                {
+                    runInline(task);
+                } else
+                {
+                    put(worker, task);
+                }
+            }
+            case CALLER_RUNS -> runInline(task);
+        }
+        return future;
+    }
+
+    /**
+     * Waits for room in a worker's queue, giving up if the dispatcher shuts down meanwhile.
+     */
+    private void put(Worker worker, Task task)
+    {
+        try
+        {
+            while (!worker.queue.offer(task, 100, TimeUnit.MILLISECONDS))
+            {
+                if (!running)
+                {
+                    reject(task);
+                    return;
+                }
+            }
+            rejectIfStopped(worker, task);
+        } catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            task.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Takes back a task queued after shutdown, unless its worker already took it for delivery.
+     * A worker only exits once it sees the dispatcher stopped and its queue empty, so a task that is still queued
+     * when this sees the dispatcher stopped may never be delivered.
+     */
+    private void rejectIfStopped(Worker worker, Task task)
+    {
+        if (!running && worker.queue.remove(task))
+        {
+            reject(task);
+        }
+    }
+
+    private static void reject(Task task)
+    {
+        task.future.completeExceptionally(new RejectedExecutionException(
+                "Async event dispatcher has been shut down, dropped " + task.event.getEventName()));
+    }
+
+    /**
+     * Gets the number of events waiting across all worker queues.
+     *
+     * @return the number of queued events
+     */
+    public int getQueuedEvents()
+    {
+        int queued = 0;
+        for (Worker worker : workers)
+        {
+            queued += worker.queue.size();
+        }
+        return queued;
+    }
+
+    /**
+     * Stops accepting events. Workers deliver what is already queued and then exit.
+     */
+    public void shutdown()
+    {
+        running = false;
+    }
+
+    private void runInline(Task task)
+    {
+        eventService.callListeners(task.event, eventService.getListenersForEvent(task.event.getClass()));
+        task.future.complete(task.event);
+    }
+
+    /**
+     * What to do with an event when its worker's queue is full.
+     */
+    public enum OverflowPolicy
+    {
+        /**
+         * Discard the event, count it in {@link EventMetrics#getAsyncDrops()} and fail its future with a
+         * RejectedExecutionException
+         */
+        DROP,
+        /**
+         * Wait for room in the queue. The firing thread, possibly the server thread, is parked until a slow listener
+         * catches up, so only choose this if losing events is worse than stalling
+         */
+        BLOCK,
+        /**
+         * Deliver the event synchronously on the firing thread.
+         * This gives up the ordering guarantee: the event may be delivered before events of its type that are still
+         * queued, and concurrently with the worker delivering them.
+         */
+        CALLER_RUNS
+    }
+
+    /**
+     * Settings for an {@link AsyncEventDispatcher}.
+     * Pass it to {@link EventServiceImpl#configureAsyncDispatch} to apply it.
+     */
+    public static final class Builder
+    {
+        private int workers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        private int queueCapacity = 8192;
+        private int batchSize = 64;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+        private String threadName = "Piston Async Events";
+
+        private Builder()
+        {
+        }
+
+        /**
+         * Sets the number of worker threads.
+         *
+         * @param workers the number of workers, at least 1
+         * @return this builder for chaining
+         */
+        public Builder workers(int workers)
+        {
+            if (workers < 1)
+            {
+                throw new IllegalArgumentException("workers must be at least 1");
+            }
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * Sets how many events each worker can hold before the overflow policy applies.
+         *
+         * @param queueCapacity the queue capacity per worker, at least 1
+         * @return this builder for chaining
+         */
+        public Builder queueCapacity(int queueCapacity)
+        {
+            if (queueCapacity < 1)
+            {
+                throw new IllegalArgumentException("queueCapacity must be at least 1");
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of events a worker takes from its queue at once.
+         *
+         * @param batchSize the batch size, at least 1
+         * @return this builder for chaining
+         */
+        public Builder batchSize(int batchSize)
+        {
+            if (batchSize < 1)
+            {
+                throw new IllegalArgumentException("batchSize must be at least 1");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets what happens when a worker's queue is full.
+         *
+         * @param overflowPolicy the overflow policy
+         * @return this builder for chaining
+         */
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy)
+        {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the name prefix for worker threads.
+         *
+         * @param threadName the thread name prefix
+         * @return this builder for chaining
+         */
+        public Builder threadName(String threadName)
+        {
+            this.threadName = threadName;
+            return this;
+        }
+
+        AsyncEventDispatcher build(EventServiceImpl eventService)
+        {
+            return new AsyncEventDispatcher(eventService, this);
+        }
+    }
+
+    private record Task(Event event, CompletableFuture<Event> future)
+    {
+    }
+
+    private final class Worker extends Thread
+    {
+        private final BlockingQueue<Task> queue;
+
+        private Worker(String name, int capacity)
+        {
+            super(name);
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run()
+        {
+            List<Task> batch = new ArrayList<>(batchSize);
+            boolean[] delivered = new boolean[batchSize];
+
+            while (running || !queue.isEmpty())
+            {
+                try
+                {
+                    Task first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null)
+                    {
+                        continue;
+                    }
+                    batch.add(first);
+                } catch (InterruptedException e)
+                {
+                    // Workers stop through shutdown only; stopping here would strand every event queued later
+                    continue;
+                }
+
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch, delivered);
+                batch.clear();
+            }
+
+            Task task;
+            while ((task = queue.poll()) != null)
+            {
+                reject(task);
+            }
+        }
+
+        /**
+         * Delivers a batch grouped by event type, keeping submission order within each type.
+         */
+        private void deliver(List<Task> batch, boolean[] delivered)
+        {
+            int size = batch.size();
+            for (int i = 0; i < size; i++)
+            {
+                delivered[i] = false;
+            }
+
+            for (int i = 0; i < size; i++)
+            {
+                if (delivered[i])
+                {
+                    continue;
+                }
+
+                Class<? extends Event> eventClass = batch.get(i).event.getClass();
+                RegisteredListener[] eventListeners = eventService.getListenersForEvent(eventClass);
+                for (int j = i; j < size; j++)
+                {
+                    Task task = batch.get(j);
+                    if (!delivered[j] && task.event.getClass() == eventClass)
+                    {
+                        delivered[j] = true;
+                        try
+                        {
+                            eventService.callListeners(task.event, eventListeners);
+                            task.future.complete(task.event);
+                        } catch (RuntimeException | Error e)
+                        {
+                            task.future.completeExceptionally(e);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.pistonworks.core.common.event;
+
+import org.pistonworks.core.api.event.Event;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Directly invokes a single @EventHandler method.
+ * Executors are bound once at registration so dispatch does not go through {@link Method#invoke}.
+ */
+@FunctionalInterface
+public interface EventExecutor
+{
+
+    /**
+     * Invokes the handler with the given event.
+     *
+     * @param event the event to deliver
+     * @throws Exception if the handler throws
+     */
+    void execute(Event event) throws Exception;
+
+    /**
+     * Creates the fastest available executor for a handler method.
+     * A LambdaMetafactory-generated class is used when the listener's class can be looked up with full privileges,
+     * which is the case when it is in Piston Core's own module, such as a plugin that shades Piston Core. Listeners
+     * loaded by another plugin's class loader are in a different unnamed module, where a private lookup lacks module
+     * access; they use plain reflection, unless their plugin was compiled with the annotation processor and has a
+     * generated dispatcher.
+     *
+     * @param listener the listener instance, ignored for static methods
+     * @param method   the handler method
+     * @return an executor for the method
+     */
+    static EventExecutor create(Object listener, Method method)
+    {
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        try
+        {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(),
+                    MethodHandles.lookup());
+            if (!lookup.hasFullPrivilegeAccess())
+            {
+                return reflective(listener, method);
+            }
+
+            MethodHandle handle = lookup.unreflect(method);
+            MethodType factoryType = isStatic
+                    ? MethodType.methodType(EventExecutor.class)
+                    : MethodType.methodType(EventExecutor.class, method.getDeclaringClass());
+            CallSite site = LambdaMetafactory.metafactory(lookup, "execute", factoryType,
+                    MethodType.methodType(void.class, Event.class), handle,
+                    MethodType.methodType(void.class, method.getParameterTypes()[0]));
+            return isStatic
+                    ? (EventExecutor) site.getTarget().invoke()
+                    : (EventExecutor) site.getTarget().invoke(listener);
+        } catch (Throwable e)
+        {
+            return reflective(listener, method);
+        }
+    }
+
+    private static EventExecutor reflective(Object listener, Method method)
+    {
+        method.setAccessible(true);
+        return event ->
+        {
+            try
+            {
+                method.invoke(listener, event);
+            } catch (InvocationTargetException e)
+            {
+                if (e.getCause() instanceof Exception cause)
+                {
+                    throw cause;
+                }
+                throw e;
+            }
+        };
+    }
+}
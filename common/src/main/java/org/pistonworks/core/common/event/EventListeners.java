@@ -2,6 +2,7 @@ package org.pistonworks.core.common.event;
 
 import org.pistonworks.core.api.event.Event;
 import org.pistonworks.core.api.event.EventListener;
+import org.pistonworks.core.api.event.ListenerBatch;
 
 /**
  * Utility class for creating event listeners with fluent API.
@@ -18,16 +19,29 @@ public class EventListeners
      */
     public static Builder using(org.pistonworks.core.api.service.EventService eventService)
     {
-        return new Builder(eventService);
+        return new Builder(eventService, null);
+    }
+
+    /**
+     * Creates a builder that collects listeners and registers them together on {@link Builder#register()}.
+     *
+     * @param eventService the event service to register with
+     * @return a new builder instance
+     */
+    public static Builder batch(org.pistonworks.core.api.service.EventService eventService)
+    {
+        return new Builder(eventService, eventService.beginBatch());
     }
 
     public static class Builder
     {
         private final org.pistonworks.core.api.service.EventService eventService;
+        private final ListenerBatch batch;
 
-        private Builder(org.pistonworks.core.api.service.EventService eventService)
+        private Builder(org.pistonworks.core.api.service.EventService eventService, ListenerBatch batch)
         {
             this.eventService = eventService;
+            this.batch = batch;
         }
 
         /**
@@ -40,7 +54,13 @@ public class EventListeners
          */
         public <T extends Event> Builder listen(Class<T> eventClass, EventListener<T> listener)
         {
-            eventService.registerListener(eventClass, listener);
+            if (batch != null)
+            {
+                batch.listen(eventClass, listener);
+            } else
+            {
+                eventService.registerListener(eventClass, listener);
+            }
             return this;
         }
 
@@ -52,8 +72,26 @@ public class EventListeners
          */
         public Builder listen(Object listenerObject)
         {
-            eventService.registerListener(listenerObject);
+            if (batch != null)
+            {
+                batch.listen(listenerObject);
+            } else
+            {
+                eventService.registerListener(listenerObject);
+            }
             return this;
         }
+
+        /**
+         * Registers everything collected by a builder from {@link EventListeners#batch}.
+         * Builders from {@link EventListeners#using} register immediately, so this does nothing for them.
+         */
+        public void register()
+        {
+            if (batch != null)
+            {
+                batch.commit();
+            }
+        }
     }
 }
@@ -0,0 +1,212 @@
+package org.pistonworks.core.common.event;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime instrumentation for an {@link EventServiceImpl}.
+ * While enabled, every fire is counted per event type and every listener invocation is timed into the listener's
+ * {@link ListenerMetrics}. While disabled, dispatch only pays for reading one volatile flag.
+ * Async events dropped because their worker's queue was full are always counted, since each one is a lost event.
+ */
+public class EventMetrics
+{
+
+    private final Map<Class<?>, LongAdder> fires = new ConcurrentHashMap<>();
+    private final Map<Class<?>, LongAdder> asyncDrops = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+    private volatile long sinceMillis = System.currentTimeMillis();
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Turns metrics collection on or off. Collected values are kept when turned off.
+     *
+     * @param enabled true to collect metrics
+     */
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Counts one fire of an event type.
+     *
+     * @param eventClass the concrete event class
+     */
+    public void recordFire(Class<?> eventClass)
+    {
+        LongAdder counter = fires.get(eventClass);
+        if (counter == null)
+        {
+            counter = fires.computeIfAbsent(eventClass, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Counts one async event of a type that was dropped because its worker's queue was full.
+     *
+     * @param eventClass the concrete event class
+     */
+    public void recordAsyncDrop(Class<?> eventClass)
+    {
+        asyncDrops.computeIfAbsent(eventClass, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Gets the number of async events dropped because their worker's queue was full.
+     *
+     * @return the number of dropped events since collection started or was last reset
+     */
+    public long getAsyncDrops()
+    {
+        long dropped = 0;
+        for (LongAdder counter : asyncDrops.values())
+        {
+            dropped += counter.sum();
+        }
+        return dropped;
+    }
+
+    /**
+     * Gets the time collection started or was last reset.
+     *
+     * @return the start of the measurement window in epoch milliseconds
+     */
+    public long getSinceMillis()
+    {
+        return sinceMillis;
+    }
+
+    void reset()
+    {
+        fires.clear();
+        asyncDrops.clear();
+        sinceMillis = System.currentTimeMillis();
+    }
+
+    Snapshot snapshot(Map<? extends Class<?>, RegisteredListener[]> listenersByType)
+    {
+        long now = System.currentTimeMillis();
+        double seconds = Math.max(1, now - sinceMillis) / 1000.0;
+
+        Set<Class<?>> types = new HashSet<>(fires.keySet());
+        types.addAll(asyncDrops.keySet());
+        List<EventTypeStats> eventTypes = new ArrayList<>();
+        for (Class<?> type : types)
+        {
+            long count = sum(fires.get(type));
+            eventTypes.add(new EventTypeStats(type.getName(), count, count / seconds, sum(asyncDrops.get(type))));
+        }
+        eventTypes.sort(Comparator.comparingLong(EventTypeStats::fires).reversed());
+
+        List<ListenerStats> listenerStats = new ArrayList<>();
+        for (Map.Entry<? extends Class<?>, RegisteredListener[]> entry : listenersByType.entrySet())
+        {
+            for (RegisteredListener listener : entry.getValue())
+            {
+                ListenerMetrics metrics = listener.getMetrics();
+                listenerStats.add(new ListenerStats(listener.describe(), entry.getKey().getName(),
+                        listener.getPriority().name(), metrics.getInvocations(), metrics.getTotalNanos(),
+                        metrics.getMaxNanos(), metrics.getExceptions()));
+            }
+        }
+        listenerStats.sort(Comparator.comparingLong(ListenerStats::totalNanos).reversed());
+
+        return new Snapshot(sinceMillis, now, List.copyOf(eventTypes), List.copyOf(listenerStats));
+    }
+
+    private static long sum(LongAdder counter)
+    {
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Point-in-time copy of all event metrics.
+     *
+     * @param sinceMillis start of the measurement window in epoch milliseconds
+     * @param takenMillis when the snapshot was taken in epoch milliseconds
+     * @param eventTypes  fire counts per event type, most fired first
+     * @param listeners   per-listener statistics, most expensive first
+     */
+    public record Snapshot(long sinceMillis, long takenMillis, List<EventTypeStats> eventTypes,
+                           List<ListenerStats> listeners)
+    {
+        /**
+         * Renders this snapshot as a JSON document.
+         *
+         * @return the JSON representation
+         */
+        public String toJson()
+        {
+            StringBuilder json = new StringBuilder();
+            json.append("{\"sinceMillis\":").append(sinceMillis)
+                    .append(",\"takenMillis\":").append(takenMillis)
+                    .append(",\"eventTypes\":[");
+            for (int i = 0; i < eventTypes.size(); i++)
+            {
+                EventTypeStats stats = eventTypes.get(i);
+                if (i > 0) json.append(',');
+                json.append("{\"eventType\":\"").append(escape(stats.eventType()))
+                        .append("\",\"fires\":").append(stats.fires())
+                        .append(",\"firesPerSecond\":").append(stats.firesPerSecond())
+                        .append(",\"asyncDrops\":").append(stats.asyncDrops())
+                        .append('}');
+            }
+            json.append("],\"listeners\":[");
+            for (int i = 0; i < listeners.size(); i++)
+            {
+                ListenerStats stats = listeners.get(i);
+                if (i > 0) json.append(',');
+                json.append("{\"listener\":\"").append(escape(stats.listener()))
+                        .append("\",\"eventType\":\"").append(escape(stats.eventType()))
+                        .append("\",\"priority\":\"").append(stats.priority())
+                        .append("\",\"invocations\":").append(stats.invocations())
+                        .append(",\"totalNanos\":").append(stats.totalNanos())
+                        .append(",\"maxNanos\":").append(stats.maxNanos())
+                        .append(",\"exceptions\":").append(stats.exceptions())
+                        .append('}');
+            }
+            return json.append("]}").toString();
+        }
+
+        private static String escape(String value)
+        {
+            return value.replace("\\", "\\\\").replace("\"", "\\\"");
+        }
+    }
+
+    /**
+     * Fire statistics for one concrete event type.
+     */
+    public record EventTypeStats(String eventType, long fires, double firesPerSecond, long asyncDrops)
+    {
+    }
+
+    /**
+     * Invocation statistics for one registered listener.
+     */
+    public record ListenerStats(String listener, String eventType, String priority, long invocations,
+                                long totalNanos, long maxNanos, long exceptions)
+    {
+        /**
+         * Gets the mean invocation time.
+         *
+         * @return the mean time in nanoseconds, or 0 if never invoked
+         */
+        public long meanNanos()
+        {
+            return invocations == 0 ? 0 : totalNanos / invocations;
+        }
+    }
+}
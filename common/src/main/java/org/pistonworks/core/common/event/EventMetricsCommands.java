@@ -0,0 +1,115 @@
+package org.pistonworks.core.common.event;
+
+import org.pistonworks.core.api.command.Arg;
+import org.pistonworks.core.api.command.Command;
+import org.pistonworks.core.api.command.CommandHandler;
+import org.pistonworks.core.api.model.CommandSender;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Command for inspecting event metrics at runtime.
+ * <p>
+ * {@code /pistonevents [on|off|reset|top|types|export]}
+ */
+public class EventMetricsCommands extends CommandHandler
+{
+
+    private static final int TOP_ENTRIES = 10;
+
+    private final EventServiceImpl eventService;
+    private final Path exportDirectory;
+
+    /**
+     * Creates the metrics command.
+     *
+     * @param eventService    the event service to report on
+     * @param exportDirectory where {@code export} writes snapshot files
+     */
+    public EventMetricsCommands(EventServiceImpl eventService, Path exportDirectory)
+    {
+        this.eventService = eventService;
+        this.exportDirectory = exportDirectory;
+    }
+
+    @Command(name = "pistonevents", description = "Inspect event listener metrics",
+            usage = "/pistonevents [on|off|reset|top|types|export]", permission = "pistoncore.metrics")
+    public void pistonEvents(CommandSender sender,
+                             @Arg(value = "action", optional = true, defaultValue = "top",
+                                     completions = {"on", "off", "reset", "top", "types", "export"}) String action)
+    {
+        EventMetrics metrics = eventService.getMetrics();
+        switch (action == null || action.isEmpty() ? "top" : action.toLowerCase())
+        {
+            case "on" ->
+            {
+                metrics.setEnabled(true);
+                sender.sendMessage("Event metrics enabled.");
+            }
+            case "off" ->
+            {
+                metrics.setEnabled(false);
+                sender.sendMessage("Event metrics disabled.");
+            }
+            case "reset" ->
+            {
+                eventService.resetMetrics();
+                sender.sendMessage("Event metrics reset.");
+            }
+            case "types" -> showEventTypes(sender, eventService.snapshotMetrics());
+            case "export" -> export(sender, eventService.snapshotMetrics());
+            default -> showTopListeners(sender, eventService.snapshotMetrics());
+        }
+    }
+
+    private void showTopListeners(CommandSender sender, EventMetrics.Snapshot snapshot)
+    {
+        sender.sendMessage(String.format("Top listeners by total time (metrics %s):",
+                eventService.getMetrics().isEnabled() ? "on" : "off"));
+        List<EventMetrics.ListenerStats> listeners = snapshot.listeners();
+        for (int i = 0; i < Math.min(TOP_ENTRIES, listeners.size()); i++)
+        {
+            EventMetrics.ListenerStats stats = listeners.get(i);
+            sender.sendMessage(String.format("%d. %s (%s): %d calls, %.3f ms total, avg %.1f us, max %.1f us, %d errors",
+                    i + 1, stats.listener(), simpleName(stats.eventType()), stats.invocations(),
+                    stats.totalNanos() / 1_000_000.0, stats.meanNanos() / 1_000.0, stats.maxNanos() / 1_000.0,
+                    stats.exceptions()));
+        }
+    }
+
+    private void showEventTypes(CommandSender sender, EventMetrics.Snapshot snapshot)
+    {
+        sender.sendMessage("Event fire rates:");
+        List<EventMetrics.EventTypeStats> eventTypes = snapshot.eventTypes();
+        for (int i = 0; i < Math.min(TOP_ENTRIES, eventTypes.size()); i++)
+        {
+            EventMetrics.EventTypeStats stats = eventTypes.get(i);
+            sender.sendMessage(String.format("%s: %d fires, %.1f/s%s",
+                    simpleName(stats.eventType()), stats.fires(), stats.firesPerSecond(),
+                    stats.asyncDrops() > 0 ? ", " + stats.asyncDrops() + " async events dropped" : ""));
+        }
+    }
+
+    private void export(CommandSender sender, EventMetrics.Snapshot snapshot)
+    {
+        Path file = exportDirectory.resolve("event-metrics-" + snapshot.takenMillis() + ".json");
+        try
+        {
+            Files.createDirectories(exportDirectory);
+            Files.writeString(file, snapshot.toJson(), StandardCharsets.UTF_8);
+            sender.sendMessage("Event metrics exported to " + file);
+        } catch (IOException e)
+        {
+            sender.sendMessage("Failed to export event metrics: " + e.getMessage());
+        }
+    }
+
+    private static String simpleName(String className)
+    {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
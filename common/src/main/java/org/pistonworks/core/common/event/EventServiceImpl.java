@@ -2,14 +2,20 @@ package org.pistonworks.core.common.event;
 
 import org.pistonworks.core.api.event.*;
 import org.pistonworks.core.api.service.EventService;
+import org.pistonworks.core.common.logging.ErrorThrottle;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Core event service implementation that handles event registration and firing.
@@ -18,15 +24,57 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class EventServiceImpl implements EventService
 {
 
-    private final Map<Class<? extends Event>, List<RegisteredListener>> listeners = new ConcurrentHashMap<>();
+    private final ListenerRegistry registry = new ListenerRegistry();
     private final Map<Object, List<RegisteredListener>> listenersByObject = new ConcurrentHashMap<>();
+    // Keeps listenersByObject and the registry in step for listener objects; dispatch never takes it
+    private final Object registrationLock = new Object();
+
+    private volatile AsyncEventDispatcher asyncDispatcher;
+    private final EventMetrics metrics = new EventMetrics();
+    private volatile ListenerWatchdog watchdog;
+    private volatile ErrorThrottle listenerErrors = ErrorThrottle.builder().build();
+
+    private static final ThreadFactory BLOCKING_LISTENER_THREADS =
+            Thread.ofVirtual().name("Piston Blocking Listener #", 1).factory();
+
+    static final Comparator<RegisteredListener> PRIORITY_ORDER =
+            (a, b) -> Integer.compare(b.getPriority().getValue(), a.getPriority().getValue());
 
     @Override
     public void registerListener(Object listener)
+    {
+        List<RegisteredListener> registeredListeners = createListeners(listener);
+        if (!registeredListeners.isEmpty())
+        {
+            synchronized (registrationLock)
+            {
+                trackListeners(listener, registeredListeners);
+                registry.update(registeredListeners, List.of());
+            }
+            onListenersChanged();
+        }
+    }
+
+    /**
+     * Creates a registered listener for every @EventHandler method of an object, without registering them.
+     * Classes compiled with the {@code EventHandlerProcessor} use their
+     * generated dispatcher; anything else is scanned with reflection.
+     */
+    private static List<RegisteredListener> createListeners(Object listener)
     {
         Class<?> clazz = listener.getClass();
         List<RegisteredListener> registeredListeners = new ArrayList<>();
 
+        ListenerDispatcher dispatcher = GeneratedDispatchers.find(clazz);
+        if (dispatcher != null)
+        {
+            for (ListenerDispatcher.Handler handler : dispatcher.handlers())
+            {
+                registeredListeners.add(new RegisteredListener(listener, handler));
+            }
+            return registeredListeners;
+        }
+
         for (Method method : clazz.getMethods())
         {
             if (!method.isAnnotationPresent(EventHandler.class))
@@ -51,35 +99,39 @@ public class EventServiceImpl implements EventService
 
             EventHandler annotation = method.getAnnotation(EventHandler.class);
             RegisteredListener registeredListener = new RegisteredListener(
-                    listener, method, annotation.priority(), annotation.ignoreCancelled());
-
-            registeredListeners.add(registeredListener);
+                    listener, method, annotation.priority(), annotation.ignoreCancelled(),
+                    annotation.blocking(), annotation.maxConcurrency());
 
             @SuppressWarnings("unchecked")
             Class<? extends Event> eventType = (Class<? extends Event>) eventClass;
-            listeners.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<>()).add(registeredListener);
+            registeredListener.setEventType(eventType);
+            registeredListeners.add(registeredListener);
         }
+        return registeredListeners;
+    }
 
-        if (!registeredListeners.isEmpty())
+    private void trackListeners(Object listener, List<RegisteredListener> registeredListeners)
+    {
+        listenersByObject.merge(listener, registeredListeners, (existing, added) ->
         {
-            listenersByObject.put(listener, registeredListeners);
-            sortListeners();
-        }
+            List<RegisteredListener> merged = new ArrayList<>(existing);
+            merged.addAll(added);
+            return merged;
+        });
     }
 
     @Override
     public void unregisterListener(Object listener)
     {
-        List<RegisteredListener> registeredListeners = listenersByObject.remove(listener);
-        if (registeredListeners != null)
+        boolean changed;
+        synchronized (registrationLock)
         {
-            for (RegisteredListener registeredListener : registeredListeners)
-            {
-                for (List<RegisteredListener> eventListeners : listeners.values())
-                {
-                    eventListeners.remove(registeredListener);
-                }
-            }
+            List<RegisteredListener> registeredListeners = listenersByObject.remove(listener);
+            changed = registeredListeners != null && registry.update(List.of(), registeredListeners);
+        }
+        if (changed)
+        {
+            onListenersChanged();
         }
     }
 
@@ -87,25 +139,102 @@ public class EventServiceImpl implements EventService
     public <T extends Event> void registerListener(Class<T> eventClass, EventListener<T> listener)
     {
         RegisteredListener registeredListener = new FunctionalRegisteredListener<>(listener, EventPriority.NORMAL);
-        listeners.computeIfAbsent(eventClass, k -> new CopyOnWriteArrayList<>()).add(registeredListener);
-        sortListeners();
+        registerFunctional(eventClass, registeredListener);
+    }
+
+    /**
+     * Registers a functional listener that does blocking work.
+     * It runs on its own virtual thread for every event, like an @EventHandler with {@code blocking = true}.
+     *
+     * @param eventClass     the class of event to listen for
+     * @param listener       the listener function
+     * @param maxConcurrency the maximum concurrent invocations, or 0 for no limit
+     * @param <T>            the event type
+     */
+    public <T extends Event> void registerBlockingListener(Class<T> eventClass, EventListener<T> listener,
+                                                           int maxConcurrency)
+    {
+        RegisteredListener registeredListener =
+                new FunctionalRegisteredListener<>(listener, EventPriority.NORMAL, true, maxConcurrency);
+        registerFunctional(eventClass, registeredListener);
+    }
+
+    private void registerFunctional(Class<? extends Event> eventClass, RegisteredListener registeredListener)
+    {
+        registeredListener.setEventType(eventClass);
+        registry.update(List.of(registeredListener), List.of());
+        onListenersChanged();
+    }
+
+    /**
+     * Starts a batch whose listeners are published to the registry in a single update on commit,
+     * so dispatch arrays and platform bridges are refreshed once per batch rather than once per listener.
+     * Handler methods are validated as they are added, so a bad listener fails before anything is registered.
+     */
+    @Override
+    public ListenerBatch beginBatch()
+    {
+        return new Batch();
     }
 
     @Override
     public <T extends Event> T fireEvent(T event)
     {
-        Class<? extends Event> eventClass = event.getClass();
-        List<RegisteredListener> eventListeners = getListenersForEvent(eventClass);
+        callListeners(event, getListenersForEvent(event.getClass()), watchdog);
+        return event;
+    }
+
+    /**
+     * Delivers an event to an already resolved listener array in order.
+     */
+    void callListeners(Event event, RegisteredListener[] eventListeners)
+    {
+        callListeners(event, eventListeners, null);
+    }
+
+    private void callListeners(Event event, RegisteredListener[] eventListeners, ListenerWatchdog watchdog)
+    {
+        Cancellable cancellable = event instanceof Cancellable ? (Cancellable) event : null;
+        boolean recordMetrics = metrics.isEnabled();
+        if (recordMetrics)
+        {
+            metrics.recordFire(event.getClass());
+        }
+
+        boolean timed = recordMetrics || watchdog != null;
+        long dispatchStart = watchdog != null ? System.nanoTime() : 0;
+        RegisteredListener slowest = null;
+        long slowestNanos = 0;
 
         for (RegisteredListener listener : eventListeners)
         {
-            if (event instanceof Cancellable)
+            if (cancellable != null && cancellable.isCancelled() && listener.isIgnoreCancelled())
             {
-                Cancellable cancellable = (Cancellable) event;
-                if (cancellable.isCancelled() && listener.isIgnoreCancelled())
+                continue;
+            }
+
+            if (listener.isBlocking())
+            {
+                callBlockingListener(listener, event, recordMetrics);
+                continue;
+            }
+
+            if (timed)
+            {
+                long nanos = callTimed(listener, event, recordMetrics);
+                if (watchdog != null)
                 {
-                    continue;
+                    if (nanos > slowestNanos)
+                    {
+                        slowest = listener;
+                        slowestNanos = nanos;
+                    }
+                    if (nanos >= watchdog.getListenerThresholdNanos())
+                    {
+                        strike(watchdog, listener, event, nanos);
+                    }
                 }
+                continue;
             }
 
             try
@@ -113,75 +242,526 @@ public class EventServiceImpl implements EventService
                 listener.call(event);
             } catch (Exception e)
             {
-                handleListenerException(listener, event, e);
+                reportListenerException(listener, event, e);
             }
         }
 
-        return event;
+        if (watchdog != null)
+        {
+            long dispatchNanos = System.nanoTime() - dispatchStart;
+            if (dispatchNanos >= watchdog.getDispatchBudgetNanos()
+                    && watchdog.shouldReport(watchdog.recordSlowDispatch(event.getClass())))
+            {
+                handleSlowDispatch(event, dispatchNanos, slowest, slowestNanos);
+            }
+        }
+    }
+
+    /**
+     * Calls a listener and measures it, excluding the time spent handling a failure.
+     *
+     * @return the duration of the call in nanoseconds
+     */
+    private long callTimed(RegisteredListener listener, Event event, boolean recordMetrics)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            listener.call(event);
+            long nanos = System.nanoTime() - start;
+            if (recordMetrics)
+            {
+                listener.getMetrics().record(nanos, false);
+            }
+            return nanos;
+        } catch (Exception e)
+        {
+            long nanos = System.nanoTime() - start;
+            if (recordMetrics)
+            {
+                listener.getMetrics().record(nanos, true);
+            }
+            reportListenerException(listener, event, e);
+            return nanos;
+        }
+    }
+
+    /**
+     * Counts a slow call against a listener and applies the watchdog action once it reaches the strike limit
+     * within the strike window.
+     */
+    private void strike(ListenerWatchdog watchdog, RegisteredListener listener, Event event, long nanos)
+    {
+        int strikes = listener.recordSlowCall();
+        boolean limitReached = listener.recordStrike(System.nanoTime(), watchdog.getStrikeLimit(),
+                watchdog.getStrikeWindowNanos());
+        ListenerWatchdog.Action action = limitReached
+                ? watchdog.getAction()
+                : ListenerWatchdog.Action.LOG;
+
+        switch (action)
+        {
+            case DEMOTE -> listener.demote();
+            case DISABLE -> disableListener(listener);
+            case LOG ->
+            {
+                if (!watchdog.shouldReport(strikes))
+                {
+                    return;
+                }
+            }
+        }
+        handleSlowListener(listener, event, nanos, strikes, action);
+    }
+
+    /**
+     * Unregisters a single listener, also forgetting it in its listener object's entry so
+     * {@link #unregisterListener} does not try to remove it again and the object is not kept alive by it.
+     */
+    private void disableListener(RegisteredListener listener)
+    {
+        boolean changed;
+        synchronized (registrationLock)
+        {
+            listenersByObject.computeIfPresent(listener.getListener(), (object, registeredListeners) ->
+            {
+                List<RegisteredListener> remaining = new ArrayList<>(registeredListeners);
+                remaining.remove(listener);
+                return remaining.isEmpty() ? null : remaining;
+            });
+            changed = registry.update(List.of(), List.of(listener));
+        }
+        if (changed)
+        {
+            onListenersChanged();
+        }
+    }
+
+    /**
+     * Hands a blocking listener its own virtual thread.
+     * A limited listener only gets a thread while one of its slots is free; events over the limit wait in the
+     * listener's bounded backlog and are picked up by the threads already running, so an overloaded listener does
+     * not pile up parked threads. Events that do not fit in the backlog are dropped and reported as failures.
+     * The event is {@linkplain AbstractEvent#detach() detached} from its platform event first.
+     */
+    private void callBlockingListener(RegisteredListener listener, Event event, boolean timed)
+    {
+        if (event instanceof AbstractEvent abstractEvent)
+        {
+            abstractEvent.detach();
+        }
+
+        Semaphore limit = listener.getConcurrencyLimit();
+        if (limit == null)
+        {
+            BLOCKING_LISTENER_THREADS.newThread(() -> callBlocking(listener, event, timed)).start();
+            return;
+        }
+
+        BlockingQueue<Event> backlog = listener.getBacklog();
+        if (!backlog.offer(event))
+        {
+            reportListenerException(listener, event, new RejectedExecutionException(
+                    "Backlog of " + RegisteredListener.BACKLOG_CAPACITY + " events is full, dropped "
+                            + event.getEventName()));
+            return;
+        }
+        if (limit.tryAcquire())
+        {
+            BLOCKING_LISTENER_THREADS.newThread(() -> drainBacklog(listener, limit, backlog, timed)).start();
+        }
     }
 
+    private void drainBacklog(RegisteredListener listener, Semaphore limit, BlockingQueue<Event> backlog,
+                              boolean timed)
+    {
+        while (true)
+        {
+            Event event;
+            while ((event = backlog.poll()) != null)
+            {
+                callBlocking(listener, event, timed);
+            }
+            limit.release();
+
+            // An event queued between the last poll and the release found no free slot, so take it on here
+            if (backlog.isEmpty() || !limit.tryAcquire())
+            {
+                return;
+            }
+        }
+    }
+
+    private void callBlocking(RegisteredListener listener, Event event, boolean timed)
+    {
+        try
+        {
+            if (timed)
+            {
+                callTimed(listener, event, true);
+            } else
+            {
+                listener.call(event);
+            }
+        } catch (Exception e)
+        {
+            reportListenerException(listener, event, e);
+        }
+    }
+
+    /**
+     * Fires an event on the async dispatcher's worker threads.
+     * Events of the same type are delivered in submission order; see {@link AsyncEventDispatcher}.
+     */
     @Override
     public <T extends Event> CompletableFuture<T> fireEventAsync(T event)
     {
-        return CompletableFuture.supplyAsync(() -> fireEvent(event));
+        AsyncEventDispatcher dispatcher = asyncDispatcher;
+        if (dispatcher == null)
+        {
+            synchronized (this)
+            {
+                if (asyncDispatcher == null)
+                {
+                    asyncDispatcher = AsyncEventDispatcher.builder().build(this);
+                }
+                dispatcher = asyncDispatcher;
+            }
+        }
+        return dispatcher.submit(event);
+    }
+
+    /**
+     * Replaces the async dispatch pipeline with one built from the given settings.
+     * Events already queued on the previous pipeline are still delivered before its workers stop.
+     *
+     * @param settings the dispatcher settings
+     */
+    public synchronized void configureAsyncDispatch(AsyncEventDispatcher.Builder settings)
+    {
+        AsyncEventDispatcher previous = asyncDispatcher;
+        asyncDispatcher = settings.build(this);
+        if (previous != null)
+        {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Stops the async dispatch pipeline after it has delivered the events already queued.
+     * A later {@link #fireEventAsync} starts a fresh pipeline with default settings.
+     */
+    public synchronized void shutdown()
+    {
+        if (asyncDispatcher != null)
+        {
+            asyncDispatcher.shutdown();
+            asyncDispatcher = null;
+        }
+    }
+
+    /**
+     * Installs a watchdog that enforces time budgets on synchronous dispatch through {@link #fireEvent}.
+     * Async and blocking dispatch is not checked.
+     *
+     * @param watchdog the watchdog, or null to turn enforcement off
+     */
+    public void setWatchdog(ListenerWatchdog watchdog)
+    {
+        this.watchdog = watchdog;
+    }
+
+    /**
+     * Gets the installed watchdog.
+     *
+     * @return the watchdog, or null if none is installed
+     */
+    public ListenerWatchdog getWatchdog()
+    {
+        return watchdog;
+    }
+
+    /**
+     * Sets the throttle that limits how often exceptions from the same listener are reported, so a listener failing
+     * on every event does not flood the log. A throttle with the default settings is installed initially.
+     *
+     * @param listenerErrors the throttle, or null to report every exception
+     */
+    public void setListenerErrorThrottle(ErrorThrottle listenerErrors)
+    {
+        this.listenerErrors = listenerErrors;
+    }
+
+    /**
+     * Gets the throttle that limits how often listener exceptions are reported.
+     *
+     * @return the throttle, or null if every exception is reported
+     */
+    public ErrorThrottle getListenerErrorThrottle()
+    {
+        return listenerErrors;
+    }
+
+    /**
+     * Reports listener exceptions that were suppressed by the throttle and not followed by a report within its
+     * summary interval. This also happens whenever a listener throws; platforms can call it periodically so a
+     * burst of errors is summarized even if no listener fails afterwards.
+     */
+    public void reportSuppressedListenerErrors()
+    {
+        ErrorThrottle throttle = listenerErrors;
+        if (throttle != null)
+        {
+            for (ErrorThrottle.Summary summary : throttle.drainSummaries())
+            {
+                handleSuppressedListenerErrors(summary);
+            }
+        }
+    }
+
+    private void reportListenerException(RegisteredListener listener, Event event, Exception exception)
+    {
+        ErrorThrottle throttle = listenerErrors;
+        if (throttle == null)
+        {
+            handleListenerException(listener, event, exception, ErrorThrottle.Report.UNTHROTTLED);
+            return;
+        }
+
+        ErrorThrottle.Report report = throttle.check(listener.describe(), exception);
+        if (report != null)
+        {
+            handleListenerException(listener, event, exception, report);
+        }
+        reportSuppressedListenerErrors();
     }
 
     @Override
     public int getListenerCount(Class<? extends Event> eventClass)
     {
-        List<RegisteredListener> eventListeners = listeners.get(eventClass);
-        return eventListeners != null ? eventListeners.size() : 0;
+        return registry.getRegistered(eventClass).length;
+    }
+
+    /**
+     * Gets the instrumentation for this event service.
+     * Collection is off by default; turn it on with {@link EventMetrics#setEnabled}.
+     *
+     * @return the event metrics
+     */
+    public EventMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Takes a snapshot of fire counts per event type and timing statistics for every registered listener.
+     *
+     * @return the metrics snapshot
+     */
+    public EventMetrics.Snapshot snapshotMetrics()
+    {
+        return metrics.snapshot(registry.getAll());
+    }
+
+    /**
+     * Resets fire counts and all listener statistics, starting a new measurement window.
+     */
+    public void resetMetrics()
+    {
+        metrics.reset();
+        for (RegisteredListener[] eventListeners : registry.getAll().values())
+        {
+            for (RegisteredListener listener : eventListeners)
+            {
+                listener.getMetrics().reset();
+            }
+        }
+    }
+
+    /**
+     * Checks whether firing an event of the given concrete class would reach any listener,
+     * including listeners registered for its supertypes.
+     * Platform bridges use this to skip converting events that nobody listens to.
+     *
+     * @param eventClass the concrete event class
+     * @return true if at least one listener would be called
+     */
+    public boolean hasListeners(Class<? extends Event> eventClass)
+    {
+        return getListenersForEvent(eventClass).length > 0;
     }
 
     @Override
     public void unregisterAll()
     {
-        listeners.clear();
-        listenersByObject.clear();
+        synchronized (registrationLock)
+        {
+            registry.clear();
+            listenersByObject.clear();
+        }
+        onListenersChanged();
+    }
+
+    /**
+     * Gets the baked dispatch array for an event class, containing the listeners of the class and all its
+     * supertypes in priority order. The returned array is shared and must not be modified.
+     */
+    RegisteredListener[] getListenersForEvent(Class<? extends Event> eventClass)
+    {
+        return registry.getListenersForEvent(eventClass);
     }
 
-    private List<RegisteredListener> getListenersForEvent(Class<? extends Event> eventClass)
+    private final class Batch implements ListenerBatch
     {
-        List<RegisteredListener> result = new ArrayList<>();
+        private final Map<Object, List<RegisteredListener>> byObject = new LinkedHashMap<>();
+        private final List<RegisteredListener> added = new ArrayList<>();
+        private boolean committed;
 
-        // Add direct listeners
-        List<RegisteredListener> directListeners = listeners.get(eventClass);
-        if (directListeners != null)
+        @Override
+        public ListenerBatch listen(Object listener)
         {
-            result.addAll(directListeners);
+            checkOpen();
+            List<RegisteredListener> registeredListeners = createListeners(listener);
+            if (!registeredListeners.isEmpty())
+            {
+                byObject.computeIfAbsent(listener, k -> new ArrayList<>()).addAll(registeredListeners);
+                added.addAll(registeredListeners);
+            }
+            return this;
+        }
+
+        @Override
+        public <T extends Event> ListenerBatch listen(Class<T> eventClass, EventListener<T> listener)
+        {
+            checkOpen();
+            RegisteredListener registeredListener = new FunctionalRegisteredListener<>(listener, EventPriority.NORMAL);
+            registeredListener.setEventType(eventClass);
+            added.add(registeredListener);
+            return this;
         }
 
-        // Add listeners for parent classes/interfaces
-        for (Map.Entry<Class<? extends Event>, List<RegisteredListener>> entry : listeners.entrySet())
+        @Override
+        public void commit()
         {
-            if (entry.getKey().isAssignableFrom(eventClass) && !entry.getKey().equals(eventClass))
+            checkOpen();
+            committed = true;
+            if (added.isEmpty())
             {
-                result.addAll(entry.getValue());
+                return;
             }
-        }
 
-        // Sort by priority
-        result.sort((a, b) -> Integer.compare(b.getPriority().getValue(), a.getPriority().getValue()));
+            synchronized (registrationLock)
+            {
+                byObject.forEach(EventServiceImpl.this::trackListeners);
+                registry.update(added, List.of());
+            }
+            onListenersChanged();
+        }
 
-        return result;
+        private void checkOpen()
+        {
+            if (committed)
+            {
+                throw new IllegalStateException("Listener batch has already been committed");
+            }
+        }
     }
 
-    private void sortListeners()
+    /**
+     * Called after every change to the listener registry.
+     * Subclasses can override this to react to listeners being added or removed, e.g. to attach
+     * platform event bridges only while something listens for them.
+     */
+    protected void onListenersChanged()
     {
-        for (List<RegisteredListener> eventListeners : listeners.values())
-        {
-            eventListeners.sort((a, b) -> Integer.compare(b.getPriority().getValue(), a.getPriority().getValue()));
-        }
+        // Default implementation does nothing
     }
 
     /**
-     * Handles exceptions thrown by event listeners.
+     * Handles exceptions thrown by event listeners that pass the {@link ErrorThrottle}.
      * Subclasses can override this to provide platform-specific error handling.
+     * The default implementation calls {@link #handleListenerException(RegisteredListener, Event, Exception)}, so
+     * subclasses that override that method keep working.
+     *
+     * @param listener  the listener that threw
+     * @param event     the event it was handling
+     * @param exception the exception
+     * @param report    the throttle's report; only the first occurrence of an error should include the stack trace
      */
+    protected void handleListenerException(RegisteredListener listener, Event event, Exception exception,
+                                           ErrorThrottle.Report report)
+    {
+        handleListenerException(listener, event, exception);
+    }
+
+    /**
+     * Handles exceptions thrown by event listeners that pass the {@link ErrorThrottle}.
+     *
+     * @param listener  the listener that threw
+     * @param event     the event it was handling
+     * @param exception the exception
+     * @deprecated override {@link #handleListenerException(RegisteredListener, Event, Exception, ErrorThrottle.Report)}
+     * instead, which says whether the error was seen before
+     */
+    @Deprecated
     protected void handleListenerException(RegisteredListener listener, Event event, Exception exception)
     {
         System.err.printf("Error in event listener %s handling event %s: %s%n",
-                listener.getClass().getSimpleName(), event.getEventName(), exception.getMessage());
+                listener.describe(), event.getEventName(), exception);
         exception.printStackTrace();
     }
+
+    /**
+     * Reports listener exceptions that were suppressed by the {@link ErrorThrottle}.
+     * Subclasses can override this to log through the platform.
+     *
+     * @param summary the suppressed exceptions
+     */
+    protected void handleSuppressedListenerErrors(ErrorThrottle.Summary summary)
+    {
+        System.err.printf("Event listener %s threw %s %d more times (%d in total)%n",
+                summary.source(), summary.description(), summary.suppressed(), summary.total());
+    }
+
+    /**
+     * Reports a listener call that exceeded the {@link ListenerWatchdog} threshold.
+     * Subclasses can override this to log through the platform and name the listener's owning plugin.
+     *
+     * @param listener the slow listener
+     * @param event    the event it was handling
+     * @param nanos    the duration of the call in nanoseconds
+     * @param strikes  the number of slow calls by this listener so far
+     * @param action   the action applied to the listener, {@link ListenerWatchdog.Action#LOG} if none
+     */
+    protected void handleSlowListener(RegisteredListener listener, Event event, long nanos, int strikes,
+                                      ListenerWatchdog.Action action)
+    {
+        System.err.printf("Slow event listener %s took %.2f ms handling %s (%d slow calls)%s%n",
+                listener.describe(), nanos / 1_000_000.0, event.getEventName(), strikes, describeAction(action));
+    }
+
+    /**
+     * Reports a synchronous dispatch that ran over the {@link ListenerWatchdog} budget.
+     *
+     * @param event        the event that was fired
+     * @param nanos        the duration of the whole dispatch in nanoseconds
+     * @param slowest      the slowest listener in the dispatch, or null if no listener ran
+     * @param slowestNanos the duration of the slowest listener's call in nanoseconds
+     */
+    protected void handleSlowDispatch(Event event, long nanos, RegisteredListener slowest, long slowestNanos)
+    {
+        System.err.printf("Dispatching %s took %.2f ms, slowest listener: %s (%.2f ms)%n",
+                event.getEventName(), nanos / 1_000_000.0,
+                slowest != null ? slowest.describe() : "none", slowestNanos / 1_000_000.0);
+    }
+
+    protected static String describeAction(ListenerWatchdog.Action action)
+    {
+        return switch (action)
+        {
+            case LOG -> "";
+            case DEMOTE -> ", moved off the firing thread";
+            case DISABLE -> ", disabled";
+        };
+    }
 }
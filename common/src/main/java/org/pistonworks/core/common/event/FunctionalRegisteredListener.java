@@ -14,7 +14,13 @@ public class FunctionalRegisteredListener<T extends Event> extends RegisteredLis
 
     public FunctionalRegisteredListener(EventListener<T> listener, EventPriority priority)
     {
-        super(listener, null, priority, true);
+        this(listener, priority, false, 0);
+    }
+
+    public FunctionalRegisteredListener(EventListener<T> listener, EventPriority priority,
+                                        boolean blocking, int maxConcurrency)
+    {
+        super(listener, null, priority, true, blocking, maxConcurrency);
         this.listener = listener;
     }
 
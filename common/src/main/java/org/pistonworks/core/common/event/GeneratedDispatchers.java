@@ -0,0 +1,40 @@
+package org.pistonworks.core.common.event;
+
+import org.pistonworks.core.api.event.ListenerDispatcher;
+import org.pistonworks.core.api.processor.GeneratedClasses;
+
+import java.util.Optional;
+
+/**
+ * Finds the {@link ListenerDispatcher} generated at compile time for a listener class.
+ * The lookup result is cached per listener class, so registering another instance of a known class costs a single
+ * {@link ClassValue} read. Classes without a generated dispatcher fall back to reflection in {@link EventServiceImpl}.
+ */
+final class GeneratedDispatchers
+{
+
+    private static final ClassValue<Optional<ListenerDispatcher>> DISPATCHERS = new ClassValue<>()
+    {
+        @Override
+        protected Optional<ListenerDispatcher> computeValue(Class<?> type)
+        {
+            return Optional.ofNullable(GeneratedClasses.load(type, ListenerDispatcher.INDEX_RESOURCE,
+                    ListenerDispatcher.CLASS_SUFFIX, ListenerDispatcher.class));
+        }
+    };
+
+    private GeneratedDispatchers()
+    {
+    }
+
+    /**
+     * Gets the generated dispatcher for a listener class.
+     *
+     * @param listenerClass the listener's runtime class
+     * @return the dispatcher, or null if the class was not processed
+     */
+    static ListenerDispatcher find(Class<?> listenerClass)
+    {
+        return DISPATCHERS.get(listenerClass).orElse(null);
+    }
+}
@@ -0,0 +1,65 @@
+package org.pistonworks.core.common.event;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timing and failure counters for a single registered listener.
+ * Counters are striped so listeners called from many threads do not contend on a single cache line.
+ */
+public class ListenerMetrics
+{
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+    private final LongAdder exceptions = new LongAdder();
+
+    /**
+     * Records one invocation.
+     *
+     * @param nanos  how long the invocation took
+     * @param failed whether the listener threw
+     */
+    public void record(long nanos, boolean failed)
+    {
+        invocations.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (failed)
+        {
+            exceptions.increment();
+        }
+    }
+
+    public long getInvocations()
+    {
+        return invocations.sum();
+    }
+
+    public long getTotalNanos()
+    {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos()
+    {
+        return maxNanos.get();
+    }
+
+    public long getExceptions()
+    {
+        return exceptions.sum();
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public void reset()
+    {
+        invocations.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        exceptions.reset();
+    }
+}
@@ -0,0 +1,252 @@
+package org.pistonworks.core.common.event;
+
+import org.pistonworks.core.api.event.Event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free, copy-on-write store of registered listeners.
+ * <p>
+ * The registry is an immutable {@link Snapshot} mapping each event type to a priority-sorted array, swapped
+ * atomically on every change. A change copies only the arrays of the event types it touches, inserting new
+ * listeners at their priority position instead of re-sorting. Each listener records its event type at
+ * registration, so removing it goes straight to its own array.
+ * <p>
+ * Every snapshot carries its own cache of baked dispatch arrays. A new snapshot keeps the baked arrays of event
+ * classes the change cannot reach, and a bake racing with a change lands in the snapshot it read.
+ */
+final class ListenerRegistry
+{
+
+    private final AtomicReference<Snapshot> current =
+            new AtomicReference<>(new Snapshot(Map.of(), new ConcurrentHashMap<>()));
+
+    /**
+     * Gets the baked dispatch array for an event class, building it on first use.
+     * The returned array is shared and must not be modified.
+     */
+    RegisteredListener[] getListenersForEvent(Class<? extends Event> eventClass)
+    {
+        Snapshot snapshot = current.get();
+        RegisteredListener[] baked = snapshot.baked.get(eventClass);
+        if (baked == null)
+        {
+            baked = snapshot.bake(eventClass);
+            snapshot.baked.put(eventClass, baked);
+        }
+        return baked;
+    }
+
+    /**
+     * Gets the listeners registered for exactly the given event type.
+     * The returned array is shared and must not be modified.
+     */
+    RegisteredListener[] getRegistered(Class<? extends Event> eventType)
+    {
+        return current.get().byType.getOrDefault(eventType, Snapshot.EMPTY);
+    }
+
+    /**
+     * Gets every registered listener grouped by the event type it was registered for.
+     */
+    Map<Class<? extends Event>, RegisteredListener[]> getAll()
+    {
+        return current.get().byType;
+    }
+
+    /**
+     * Adds and removes listeners in one atomic step. Added listeners must already have their event type set.
+     *
+     * @return true if the registry changed
+     */
+    boolean update(Collection<RegisteredListener> added, Collection<RegisteredListener> removed)
+    {
+        while (true)
+        {
+            Snapshot previous = current.get();
+            Snapshot next = previous.apply(added, removed);
+            if (next == previous)
+            {
+                return false;
+            }
+            if (current.compareAndSet(previous, next))
+            {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes every listener.
+     */
+    void clear()
+    {
+        current.set(new Snapshot(Map.of(), new ConcurrentHashMap<>()));
+    }
+
+    private record Snapshot(Map<Class<? extends Event>, RegisteredListener[]> byType,
+                            Map<Class<?>, RegisteredListener[]> baked)
+    {
+        private static final RegisteredListener[] EMPTY = new RegisteredListener[0];
+
+        private Snapshot apply(Collection<RegisteredListener> added, Collection<RegisteredListener> removed)
+        {
+            Map<Class<? extends Event>, RegisteredListener[]> changed = new HashMap<>();
+
+            for (RegisteredListener listener : removed)
+            {
+                Class<? extends Event> type = listener.getEventType();
+                RegisteredListener[] array = changed.containsKey(type) ? changed.get(type) : byType.get(type);
+                int index = indexOf(array, listener);
+                if (index >= 0)
+                {
+                    changed.put(type, without(array, index));
+                }
+            }
+
+            Map<Class<? extends Event>, List<RegisteredListener>> addedByType = new HashMap<>();
+            for (RegisteredListener listener : added)
+            {
+                addedByType.computeIfAbsent(listener.getEventType(), k -> new ArrayList<>()).add(listener);
+            }
+            for (Map.Entry<Class<? extends Event>, List<RegisteredListener>> entry : addedByType.entrySet())
+            {
+                Class<? extends Event> type = entry.getKey();
+                RegisteredListener[] array = changed.containsKey(type) ? changed.get(type) : byType.get(type);
+                changed.put(type, withInserted(array == null ? EMPTY : array, entry.getValue()));
+            }
+
+            if (changed.isEmpty())
+            {
+                return this;
+            }
+
+            Map<Class<? extends Event>, RegisteredListener[]> nextByType = new HashMap<>(byType);
+            for (Map.Entry<Class<? extends Event>, RegisteredListener[]> entry : changed.entrySet())
+            {
+                if (entry.getValue().length == 0)
+                {
+                    nextByType.remove(entry.getKey());
+                } else
+                {
+                    nextByType.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            // Keep baked arrays for event classes that none of the changed types apply to
+            Map<Class<?>, RegisteredListener[]> nextBaked = new ConcurrentHashMap<>();
+            for (Map.Entry<Class<?>, RegisteredListener[]> entry : baked.entrySet())
+            {
+                if (!isAffected(entry.getKey(), changed.keySet()))
+                {
+                    nextBaked.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            return new Snapshot(Map.copyOf(nextByType), nextBaked);
+        }
+
+        private RegisteredListener[] bake(Class<? extends Event> eventClass)
+        {
+            List<RegisteredListener> result = new ArrayList<>();
+
+            // Add direct listeners
+            RegisteredListener[] directListeners = byType.get(eventClass);
+            if (directListeners != null)
+            {
+                result.addAll(List.of(directListeners));
+            }
+
+            // Add listeners for parent classes/interfaces
+            for (Map.Entry<Class<? extends Event>, RegisteredListener[]> entry : byType.entrySet())
+            {
+                if (entry.getKey().isAssignableFrom(eventClass) && !entry.getKey().equals(eventClass))
+                {
+                    result.addAll(List.of(entry.getValue()));
+                }
+            }
+
+            // Sort by priority
+            result.sort(EventServiceImpl.PRIORITY_ORDER);
+
+            return result.toArray(EMPTY);
+        }
+
+        private static boolean isAffected(Class<?> eventClass, Collection<Class<? extends Event>> changedTypes)
+        {
+            for (Class<? extends Event> type : changedTypes)
+            {
+                if (type.isAssignableFrom(eventClass))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static int indexOf(RegisteredListener[] array, RegisteredListener listener)
+        {
+            if (array != null)
+            {
+                for (int i = 0; i < array.length; i++)
+                {
+                    if (array[i] == listener)
+                    {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private static RegisteredListener[] without(RegisteredListener[] array, int index)
+        {
+            RegisteredListener[] result = new RegisteredListener[array.length - 1];
+            System.arraycopy(array, 0, result, 0, index);
+            System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+            return result;
+        }
+
+        /**
+         * Inserts listeners after every listener of the same or higher priority, keeping registration order within
+         * a priority. A batch is appended and merged with one stable sort instead of one insertion per listener.
+         */
+        private static RegisteredListener[] withInserted(RegisteredListener[] array, List<RegisteredListener> listeners)
+        {
+            if (listeners.size() == 1)
+            {
+                return withInserted(array, listeners.get(0));
+            }
+
+            RegisteredListener[] result = Arrays.copyOf(array, array.length + listeners.size());
+            for (int i = 0; i < listeners.size(); i++)
+            {
+                result[array.length + i] = listeners.get(i);
+            }
+            Arrays.sort(result, EventServiceImpl.PRIORITY_ORDER);
+            return result;
+        }
+
+        private static RegisteredListener[] withInserted(RegisteredListener[] array, RegisteredListener listener)
+        {
+            int index = array.length;
+            while (index > 0 && EventServiceImpl.PRIORITY_ORDER.compare(array[index - 1], listener) > 0)
+            {
+                index--;
+            }
+
+            RegisteredListener[] result = new RegisteredListener[array.length + 1];
+            System.arraycopy(array, 0, result, 0, index);
+            result[index] = listener;
+            System.arraycopy(array, index, result, index + 1, array.length - index);
+            return result;
+        }
+    }
+}
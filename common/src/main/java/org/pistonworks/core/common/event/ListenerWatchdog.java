@@ -0,0 +1,215 @@
+package org.pistonworks.core.common.event;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Time budgets for synchronous event dispatch, enforced by {@link EventServiceImpl} once installed with
+ * {@link EventServiceImpl#setWatchdog}.
+ * <p>
+ * A listener call taking longer than the listener threshold counts as a strike against that listener. The first
+ * strike is reported, and so is every {@code strikeLimit}-th one after it. When a listener makes {@code strikeLimit}
+ * strikes within the strike window, the configured {@link Action} is applied to it, so occasional pauses such as
+ * garbage collections spread over a long uptime never add up to an action. A whole dispatch running over the
+ * dispatch budget is reported together with its slowest listener.
+ * <p>
+ * Java cannot safely interrupt a listener mid-call, so budgets are enforced after the fact: the slow call still
+ * completes, but repeat offenders are taken off the firing thread.
+ */
+public final class ListenerWatchdog
+{
+
+    private final long listenerThresholdNanos;
+    private final long dispatchBudgetNanos;
+    private final int strikeLimit;
+    private final long strikeWindowNanos;
+    private final Action action;
+    private final Map<Class<?>, AtomicInteger> slowDispatches = new ConcurrentHashMap<>();
+
+    private ListenerWatchdog(Builder builder)
+    {
+        this.listenerThresholdNanos = builder.listenerThreshold.toNanos();
+        this.dispatchBudgetNanos = builder.dispatchBudget.toNanos();
+        this.strikeLimit = builder.strikeLimit;
+        this.strikeWindowNanos = builder.strikeWindow.toNanos();
+        this.action = builder.action;
+    }
+
+    /**
+     * Creates a builder with the default settings: a 5 ms listener threshold, a 25 ms dispatch budget
+     * (half a server tick), a strike limit of 3 within a one-minute window and {@link Action#LOG}.
+     *
+     * @return a new builder instance
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public long getListenerThresholdNanos()
+    {
+        return listenerThresholdNanos;
+    }
+
+    public long getDispatchBudgetNanos()
+    {
+        return dispatchBudgetNanos;
+    }
+
+    public int getStrikeLimit()
+    {
+        return strikeLimit;
+    }
+
+    public long getStrikeWindowNanos()
+    {
+        return strikeWindowNanos;
+    }
+
+    public Action getAction()
+    {
+        return action;
+    }
+
+    /**
+     * Counts a dispatch of an event type that ran over the dispatch budget.
+     *
+     * @param eventClass the concrete event class
+     * @return the number of slow dispatches of that type so far
+     */
+    int recordSlowDispatch(Class<?> eventClass)
+    {
+        return slowDispatches.computeIfAbsent(eventClass, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Checks whether a strike count should be reported, to keep a persistently slow listener from flooding the log.
+     *
+     * @param strikes the strike count including the current one
+     * @return true for the first strike and every strike-limit-th one after it
+     */
+    boolean shouldReport(int strikes)
+    {
+        return strikes == 1 || strikes % strikeLimit == 0;
+    }
+
+    /**
+     * What happens to a listener once it reaches the strike limit.
+     */
+    public enum Action
+    {
+        /**
+         * Only report slow calls
+         */
+        LOG,
+        /**
+         * Move the listener off the firing thread, as if it were declared with {@code blocking = true}.
+         * It then runs one call at a time on a virtual thread, so it can no longer cancel or modify
+         * the event for listeners after it.
+         */
+        DEMOTE,
+        /**
+         * Unregister the listener
+         */
+        DISABLE
+    }
+
+    /**
+     * Settings for a {@link ListenerWatchdog}.
+     */
+    public static final class Builder
+    {
+        private Duration listenerThreshold = Duration.ofMillis(5);
+        private Duration dispatchBudget = Duration.ofMillis(25);
+        private int strikeLimit = 3;
+        private Duration strikeWindow = Duration.ofMinutes(1);
+        private Action action = Action.LOG;
+
+        private Builder()
+        {
+        }
+
+        /**
+         * Sets how long a single listener call may take before it counts as a strike.
+         *
+         * @param listenerThreshold the per-listener threshold
+         * @return this builder for chaining
+         */
+        public Builder listenerThreshold(Duration listenerThreshold)
+        {
+            if (listenerThreshold.isNegative() || listenerThreshold.isZero())
+            {
+                throw new IllegalArgumentException("listenerThreshold must be positive");
+            }
+            this.listenerThreshold = listenerThreshold;
+            return this;
+        }
+
+        /**
+         * Sets how long a whole synchronous dispatch may take before it is reported.
+         *
+         * @param dispatchBudget the per-dispatch budget
+         * @return this builder for chaining
+         */
+        public Builder dispatchBudget(Duration dispatchBudget)
+        {
+            if (dispatchBudget.isNegative() || dispatchBudget.isZero())
+            {
+                throw new IllegalArgumentException("dispatchBudget must be positive");
+            }
+            this.dispatchBudget = dispatchBudget;
+            return this;
+        }
+
+        /**
+         * Sets how many slow calls a listener may make before the action is applied.
+         *
+         * @param strikeLimit the strike limit, at least 1
+         * @return this builder for chaining
+         */
+        public Builder strikeLimit(int strikeLimit)
+        {
+            if (strikeLimit < 1)
+            {
+                throw new IllegalArgumentException("strikeLimit must be at least 1");
+            }
+            this.strikeLimit = strikeLimit;
+            return this;
+        }
+
+        /**
+         * Sets how close together strikes must be to count towards the strike limit.
+         *
+         * @param strikeWindow the window in which the strike limit must be reached
+         * @return this builder for chaining
+         */
+        public Builder strikeWindow(Duration strikeWindow)
+        {
+            if (strikeWindow.isNegative() || strikeWindow.isZero())
+            {
+                throw new IllegalArgumentException("strikeWindow must be positive");
+            }
+            this.strikeWindow = strikeWindow;
+            return this;
+        }
+
+        /**
+         * Sets what happens to a listener that reaches the strike limit.
+         *
+         * @param action the action
+         * @return this builder for chaining
+         */
+        public Builder action(Action action)
+        {
+            this.action = action;
+            return this;
+        }
+
+        public ListenerWatchdog build()
+        {
+            return new ListenerWatchdog(this);
+        }
+    }
+}
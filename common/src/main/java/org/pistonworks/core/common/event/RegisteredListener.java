@@ -2,8 +2,15 @@ package org.pistonworks.core.common.event;
 
 import org.pistonworks.core.api.event.Event;
 import org.pistonworks.core.api.event.EventPriority;
+import org.pistonworks.core.api.event.ListenerDispatcher;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents a registered event listener with metadata.
@@ -11,23 +18,84 @@ import java.lang.reflect.Method;
 public class RegisteredListener
 {
 
+    /**
+     * The number of events a limited blocking listener holds while all of its slots are busy.
+     */
+    static final int BACKLOG_CAPACITY = 1024;
+
     private final Object listener;
-    private final Method method;
+    private final String methodName;
+    private Method method;
     private final EventPriority priority;
     private final boolean ignoreCancelled;
+    private final EventExecutor executor;
+    private final boolean blocking;
+    private Semaphore concurrencyLimit;
+    private BlockingQueue<Event> backlog;
+    private volatile boolean demoted;
+    private final ListenerMetrics metrics = new ListenerMetrics();
+    private final AtomicInteger slowCalls = new AtomicInteger();
+    // Times of the most recent slow calls, oldest first from strikeIndex, for the watchdog's strike window
+    private long[] strikeTimes;
+    private int strikeIndex;
+    private Class<? extends Event> eventType;
 
     public RegisteredListener(Object listener, Method method, EventPriority priority, boolean ignoreCancelled)
     {
+        this(listener, method, priority, ignoreCancelled, false, 0);
+    }
+
+    /**
+     * Creates a registered listener that may run on a virtual thread.
+     *
+     * @param blocking       whether the listener does blocking work and must not run on the firing thread
+     * @param maxConcurrency the maximum concurrent invocations of a blocking listener, or 0 for no limit
+     */
+    public RegisteredListener(Object listener, Method method, EventPriority priority, boolean ignoreCancelled,
+                              boolean blocking, int maxConcurrency)
+    {
+        if (maxConcurrency < 0)
+        {
+            throw new IllegalArgumentException("maxConcurrency must not be negative");
+        }
         this.listener = listener;
+        this.methodName = method != null ? method.getName() : null;
         this.method = method;
         this.priority = priority;
         this.ignoreCancelled = ignoreCancelled;
-        this.method.setAccessible(true);
+        this.executor = method != null ? EventExecutor.create(listener, method) : null;
+        this.blocking = blocking;
+        this.concurrencyLimit = blocking && maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+        this.backlog = concurrencyLimit != null ? new ArrayBlockingQueue<>(BACKLOG_CAPACITY) : null;
+    }
+
+    /**
+     * Creates a registered listener from a compile-time generated handler, which is called without reflection.
+     *
+     * @param listener the listener instance
+     * @param handler  the generated handler description
+     */
+    public RegisteredListener(Object listener, ListenerDispatcher.Handler handler)
+    {
+        if (handler.maxConcurrency() < 0)
+        {
+            throw new IllegalArgumentException("maxConcurrency must not be negative");
+        }
+        ListenerDispatcher.Invoker invoker = handler.invoker();
+        this.listener = listener;
+        this.methodName = handler.methodName();
+        this.priority = handler.priority();
+        this.ignoreCancelled = handler.ignoreCancelled();
+        this.executor = event -> invoker.invoke(listener, event);
+        this.blocking = handler.blocking();
+        this.concurrencyLimit = blocking && handler.maxConcurrency() > 0 ? new Semaphore(handler.maxConcurrency()) : null;
+        this.backlog = concurrencyLimit != null ? new ArrayBlockingQueue<>(BACKLOG_CAPACITY) : null;
+        this.eventType = handler.eventType();
     }
 
     public void call(Event event) throws Exception
     {
-        method.invoke(listener, event);
+        executor.execute(event);
     }
 
     public EventPriority getPriority()
@@ -40,13 +108,158 @@ public class RegisteredListener
         return ignoreCancelled;
     }
 
+    public boolean isBlocking()
+    {
+        return blocking || demoted;
+    }
+
+    /**
+     * Checks whether the {@link ListenerWatchdog} moved this listener off the firing thread.
+     *
+     * @return true if the listener was demoted
+     */
+    public boolean isDemoted()
+    {
+        return demoted;
+    }
+
+    /**
+     * Makes this listener run like a blocking listener limited to one call at a time.
+     * Has no effect on listeners that are already blocking.
+     */
+    void demote()
+    {
+        if (!blocking && !demoted)
+        {
+            // Published by the volatile write below
+            concurrencyLimit = new Semaphore(1);
+            backlog = new ArrayBlockingQueue<>(BACKLOG_CAPACITY);
+            demoted = true;
+        }
+    }
+
+    /**
+     * Gets the number of calls that exceeded the {@link ListenerWatchdog} threshold.
+     *
+     * @return the slow call count
+     */
+    public int getSlowCalls()
+    {
+        return slowCalls.get();
+    }
+
+    int recordSlowCall()
+    {
+        return slowCalls.incrementAndGet();
+    }
+
+    /**
+     * Records the time of a slow call and checks whether the listener made {@code limit} slow calls in the window.
+     *
+     * @param now         the time of the call, from {@link System#nanoTime()}
+     * @param limit       the number of slow calls that must fall in the window
+     * @param windowNanos the length of the window
+     * @return true if the last {@code limit} slow calls all happened within the window
+     */
+    synchronized boolean recordStrike(long now, int limit, long windowNanos)
+    {
+        if (strikeTimes == null || strikeTimes.length != limit)
+        {
+            strikeTimes = new long[limit];
+            Arrays.fill(strikeTimes, now - windowNanos - 1);
+            strikeIndex = 0;
+        }
+
+        // The slot being overwritten holds the oldest of the last limit strikes
+        strikeTimes[strikeIndex] = now;
+        strikeIndex = (strikeIndex + 1) % limit;
+        return now - strikeTimes[strikeIndex] <= windowNanos;
+    }
+
+    /**
+     * Gets the semaphore bounding concurrent invocations of a blocking listener.
+     *
+     * @return the semaphore, or null if invocations are unbounded
+     */
+    public Semaphore getConcurrencyLimit()
+    {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Gets the events waiting for a free slot of a limited blocking listener.
+     *
+     * @return the backlog, or null if invocations are unbounded
+     */
+    BlockingQueue<Event> getBacklog()
+    {
+        return backlog;
+    }
+
+    /**
+     * Gets the timing and failure counters for this listener.
+     * They are only updated while {@link EventMetrics} collection is enabled.
+     *
+     * @return the listener's metrics
+     */
+    public ListenerMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Describes this listener for logs and metrics, as the declaring class and method name.
+     *
+     * @return a human-readable description
+     */
+    public String describe()
+    {
+        Method handlerMethod = getMethod();
+        return handlerMethod != null
+                ? handlerMethod.getDeclaringClass().getName() + "#" + handlerMethod.getName()
+                : listener.getClass().getName();
+    }
+
+    /**
+     * Gets the event type this listener was registered for.
+     *
+     * @return the event type, or null if the listener has not been registered
+     */
+    public Class<? extends Event> getEventType()
+    {
+        return eventType;
+    }
+
+    /**
+     * Records the registry slot of this listener. Set once, before the listener is published.
+     */
+    void setEventType(Class<? extends Event> eventType)
+    {
+        this.eventType = eventType;
+    }
+
     public Object getListener()
     {
         return listener;
     }
 
+    /**
+     * Gets the handler method. For listeners registered from a generated dispatcher it is looked up on first use.
+     *
+     * @return the handler method, or null for functional listeners
+     */
     public Method getMethod()
     {
+        if (method == null && methodName != null)
+        {
+            try
+            {
+                method = listener.getClass().getMethod(methodName, eventType);
+            } catch (NoSuchMethodException e)
+            {
+                return null;
+            }
+        }
         return method;
     }
 
@@ -56,12 +269,13 @@ public class RegisteredListener
         if (this == obj) return true;
         if (!(obj instanceof RegisteredListener)) return false;
         RegisteredListener other = (RegisteredListener) obj;
-        return listener.equals(other.listener) && method.equals(other.method);
+        return listener.equals(other.listener) && Objects.equals(methodName, other.methodName)
+                && Objects.equals(eventType, other.eventType);
     }
 
     @Override
     public int hashCode()
     {
-        return listener.hashCode() * 31 + method.hashCode();
+        return listener.hashCode() * 31 + Objects.hashCode(methodName);
     }
 }
@@ -0,0 +1,388 @@
+package org.pistonworks.core.common.logging;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides which occurrences of a recurring error are worth logging, so that code failing on every tick reports its
+ * error instead of flooding the console with identical stack traces.
+ * <p>
+ * Errors are grouped by source, such as a listener, and by signature: the exception type, the first frames of its
+ * stack trace and the type of its cause. The first occurrence of a signature is always reported, and is the only
+ * one meant to be logged with its stack trace. Later occurrences are reported while the source's token bucket has
+ * tokens: it holds {@code burst} tokens and regains one every refill interval. Everything else is counted, and the
+ * count is carried by the next report of that signature, or by a {@link Summary} once the summary interval passes
+ * without one.
+ * <p>
+ * At most {@code maxSignatures} signatures are tracked. When a new one arrives at the limit, signatures with nothing
+ * pending that have been quiet for a summary interval are forgotten, and if none are, the one reported least
+ * recently is, along with the buckets of sources that have no signature left.
+ * <p>
+ * All methods are thread-safe.
+ */
+public final class ErrorThrottle
+{
+
+    private final int burst;
+    private final long refillNanos;
+    private final long summaryIntervalNanos;
+    private final int stackDepth;
+    private final int maxSignatures;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<Signature, Occurrences> signatures = new ConcurrentHashMap<>();
+    private final Object trackLock = new Object();
+    private volatile long nextSummary;
+
+    private ErrorThrottle(Builder builder)
+    {
+        this.burst = builder.burst;
+        this.refillNanos = builder.refillInterval.toNanos();
+        this.summaryIntervalNanos = builder.summaryInterval.toNanos();
+        this.stackDepth = builder.stackDepth;
+        this.maxSignatures = builder.maxSignatures;
+        this.nextSummary = System.nanoTime() + summaryIntervalNanos;
+    }
+
+    /**
+     * Creates a builder with the default settings: bursts of 3 reports per source, one more every 10 seconds,
+     * summaries every minute, and signatures taken from the top 5 stack frames.
+     *
+     * @return a new builder instance
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Records an occurrence of an error.
+     *
+     * @param source the source of the error, such as a listener description
+     * @param error  the error
+     * @return the report to log, or null if this occurrence is suppressed
+     */
+    public Report check(String source, Throwable error)
+    {
+        long now = System.nanoTime();
+        Signature signature = Signature.of(source, error, stackDepth);
+        Occurrences occurrences = signatures.get(signature);
+        if (occurrences == null)
+        {
+            occurrences = track(signature, now);
+        }
+        Bucket bucket = buckets.computeIfAbsent(source, key -> new Bucket(now));
+
+        synchronized (occurrences)
+        {
+            occurrences.total++;
+            occurrences.description = String.valueOf(error);
+            boolean first = occurrences.total == 1;
+            // The first occurrence of a signature is reported even when the source is out of tokens
+            if (!bucket.tryAcquire(now) && !first)
+            {
+                occurrences.suppressed++;
+                return null;
+            }
+
+            long suppressed = occurrences.suppressed;
+            occurrences.suppressed = 0;
+            occurrences.lastReport = now;
+            return new Report(first, occurrences.total, suppressed);
+        }
+    }
+
+    /**
+     * Collects the errors that were suppressed and not reported for at least the summary interval.
+     * Does nothing until a summary interval has passed since the previous call, so it is cheap to call often.
+     *
+     * @return the summaries, one per signature with suppressed occurrences
+     */
+    public List<Summary> drainSummaries()
+    {
+        long now = System.nanoTime();
+        if (now - nextSummary < 0)
+        {
+            return Collections.emptyList();
+        }
+        nextSummary = now + summaryIntervalNanos;
+
+        List<Summary> summaries = new ArrayList<>();
+        for (Map.Entry<Signature, Occurrences> entry : signatures.entrySet())
+        {
+            Occurrences occurrences = entry.getValue();
+            synchronized (occurrences)
+            {
+                if (occurrences.suppressed > 0 && now - occurrences.lastReport >= summaryIntervalNanos)
+                {
+                    summaries.add(new Summary(entry.getKey().source(), occurrences.description,
+                            occurrences.suppressed, occurrences.total));
+                    occurrences.suppressed = 0;
+                    occurrences.lastReport = now;
+                }
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Starts tracking a signature, making room for it first if the limit is reached. New signatures are rare, so
+     * they are added under a lock to keep the limit exact.
+     */
+    private Occurrences track(Signature signature, long now)
+    {
+        synchronized (trackLock)
+        {
+            Occurrences occurrences = signatures.get(signature);
+            if (occurrences != null)
+            {
+                return occurrences;
+            }
+
+            if (signatures.size() >= maxSignatures)
+            {
+                evict(now);
+            }
+            occurrences = new Occurrences();
+            signatures.put(signature, occurrences);
+            return occurrences;
+        }
+    }
+
+    /**
+     * Forgets signatures with nothing pending that have not been reported for a summary interval, or else the one
+     * reported least recently, and the buckets of sources left without signatures.
+     */
+    private void evict(long now)
+    {
+        signatures.values().removeIf(occurrences ->
+        {
+            synchronized (occurrences)
+            {
+                return occurrences.suppressed == 0 && now - occurrences.lastReport >= summaryIntervalNanos;
+            }
+        });
+
+        if (signatures.size() >= maxSignatures)
+        {
+            Signature oldest = null;
+            long oldestReport = 0;
+            for (Map.Entry<Signature, Occurrences> entry : signatures.entrySet())
+            {
+                long lastReport;
+                synchronized (entry.getValue())
+                {
+                    lastReport = entry.getValue().lastReport;
+                }
+                if (oldest == null || lastReport - oldestReport < 0)
+                {
+                    oldest = entry.getKey();
+                    oldestReport = lastReport;
+                }
+            }
+            signatures.remove(oldest);
+        }
+
+        Set<String> sources = new HashSet<>();
+        for (Signature signature : signatures.keySet())
+        {
+            sources.add(signature.source());
+        }
+        buckets.keySet().retainAll(sources);
+    }
+
+    /**
+     * An occurrence that should be logged.
+     *
+     * @param first      whether this is the first occurrence of its signature, to be logged with the stack trace
+     * @param total      the number of occurrences of the signature so far
+     * @param suppressed the number of occurrences suppressed since the signature was last reported
+     */
+    public record Report(boolean first, long total, long suppressed)
+    {
+        /**
+         * A report for an error that is not throttled.
+         */
+        public static final Report UNTHROTTLED = new Report(true, 1, 0);
+
+        /**
+         * Describes how often the error was seen, to append to its log message.
+         *
+         * @return an empty string for the first occurrence, otherwise the counts in parentheses, with a leading space
+         */
+        public String describeRepeats()
+        {
+            if (first)
+            {
+                return "";
+            }
+            return suppressed > 0
+                    ? String.format(" (seen %d times, %d not logged since the last report)", total, suppressed)
+                    : String.format(" (seen %d times)", total);
+        }
+    }
+
+    /**
+     * Suppressed occurrences of an error that were not followed by a report.
+     *
+     * @param source      the source of the error
+     * @param description the last occurrence's exception type and message
+     * @param suppressed  the number of suppressed occurrences
+     * @param total       the number of occurrences of the signature so far
+     */
+    public record Summary(String source, String description, long suppressed, long total)
+    {
+    }
+
+    private record Signature(String source, String type, List<StackTraceElement> frames, String cause)
+    {
+        private static Signature of(String source, Throwable error, int stackDepth)
+        {
+            StackTraceElement[] stackTrace = error.getStackTrace();
+            List<StackTraceElement> frames = Arrays.asList(
+                    Arrays.copyOf(stackTrace, Math.min(stackDepth, stackTrace.length)));
+            Throwable cause = error.getCause();
+            return new Signature(source, error.getClass().getName(), frames,
+                    cause != null ? cause.getClass().getName() : null);
+        }
+    }
+
+    private static final class Occurrences
+    {
+        private long total;
+        private long suppressed;
+        private long lastReport = System.nanoTime();
+        private String description;
+    }
+
+    private final class Bucket
+    {
+        private double tokens = burst;
+        private long lastRefill;
+
+        private Bucket(long now)
+        {
+            this.lastRefill = now;
+        }
+
+        private synchronized boolean tryAcquire(long now)
+        {
+            tokens = Math.min(burst, tokens + (now - lastRefill) / (double) refillNanos);
+            lastRefill = now;
+            if (tokens >= 1)
+            {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Settings for an {@link ErrorThrottle}.
+     */
+    public static final class Builder
+    {
+        private int burst = 3;
+        private Duration refillInterval = Duration.ofSeconds(10);
+        private Duration summaryInterval = Duration.ofMinutes(1);
+        private int stackDepth = 5;
+        private int maxSignatures = 1024;
+
+        private Builder()
+        {
+        }
+
+        /**
+         * Sets how many reports a source can make in a burst.
+         *
+         * @param burst the token bucket size, at least 1
+         * @return this builder for chaining
+         */
+        public Builder burst(int burst)
+        {
+            if (burst < 1)
+            {
+                throw new IllegalArgumentException("burst must be at least 1");
+            }
+            this.burst = burst;
+            return this;
+        }
+
+        /**
+         * Sets how long it takes a source to regain one report.
+         *
+         * @param refillInterval the refill interval, positive
+         * @return this builder for chaining
+         */
+        public Builder refillInterval(Duration refillInterval)
+        {
+            if (refillInterval.isZero() || refillInterval.isNegative())
+            {
+                throw new IllegalArgumentException("refillInterval must be positive");
+            }
+            this.refillInterval = refillInterval;
+            return this;
+        }
+
+        /**
+         * Sets how long suppressed occurrences wait for a report before they are summarized.
+         *
+         * @param summaryInterval the summary interval
+         * @return this builder for chaining
+         */
+        public Builder summaryInterval(Duration summaryInterval)
+        {
+            this.summaryInterval = summaryInterval;
+            return this;
+        }
+
+        /**
+         * Sets how many stack frames identify an error.
+         *
+         * @param stackDepth the number of frames, at least 1
+         * @return this builder for chaining
+         */
+        public Builder stackDepth(int stackDepth)
+        {
+            if (stackDepth < 1)
+            {
+                throw new IllegalArgumentException("stackDepth must be at least 1");
+            }
+            this.stackDepth = stackDepth;
+            return this;
+        }
+
+        /**
+         * Sets how many signatures are tracked at most.
+         *
+         * @param maxSignatures the number of signatures, at least 1
+         * @return this builder for chaining
+         */
+        public Builder maxSignatures(int maxSignatures)
+        {
+            if (maxSignatures < 1)
+            {
+                throw new IllegalArgumentException("maxSignatures must be at least 1");
+            }
+            this.maxSignatures = maxSignatures;
+            return this;
+        }
+
+        /**
+         * Creates the throttle.
+         *
+         * @return a new throttle
+         */
+        public ErrorThrottle build()
+        {
+            return new ErrorThrottle(this);
+        }
+    }
+}
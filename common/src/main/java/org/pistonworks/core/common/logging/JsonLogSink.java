@@ -0,0 +1,552 @@
+package org.pistonworks.core.common.logging;
+
+import org.pistonworks.core.api.logging.LogLevel;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Structured log file written as JSON lines, one object per record:
+ * <pre>{@code
+ * {"time":"2025-01-01T12:00:00.000Z","level":"INFO","logger":"com.example.MyPlugin","thread":"Server thread","message":"Enabled"}
+ * }</pre>
+ * Records with an exception also have an {@code "exception"} field holding the stack trace. A record is at most a
+ * sixteenth of the file size limit; fields that would exceed it are cut short and end in {@code "..."}.
+ * <p>
+ * Records are encoded into a direct buffer and appended to the active file, {@code <name>.jsonl}, with one write per
+ * batch rather than per record. When the next record does not fit in the file, it is rolled to
+ * {@code <name>.1.jsonl}, older files moving up by one and the oldest being deleted. A file left by an earlier run is
+ * rolled on startup. Records reach the file on every {@link #flushIfDue()} and the disk once the flush interval has
+ * passed, and on roll and close. The file is only ever appended to, never mapped or truncated, so rolled files can be
+ * moved and deleted on every platform as soon as they are closed.
+ * <p>
+ * Each logger, named after its class, logs to the file at the level configured for the longest matching class or
+ * package name, or at the default level. The sink is meant to be written by a single background thread; its
+ * methods are synchronized so that writes from other threads are still safe.
+ */
+public final class JsonLogSink implements AutoCloseable
+{
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * Bytes reserved for everything in a record but its string fields: keys, time, level, quotes and ellipses.
+     */
+    private static final int RECORD_OVERHEAD = 256;
+
+    private final Path directory;
+    private final String name;
+    private final int maxFileSize;
+    private final int maxFiles;
+    private final long flushIntervalNanos;
+    private final int maxRecordSize;
+    private final LogLevel defaultLevel;
+    private final Map<String, LogLevel> levels;
+    private final Map<String, LogLevel> resolvedLevels = new ConcurrentHashMap<>();
+
+    private final StringBuilder json = new StringBuilder(512);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private ByteBuffer encoded = ByteBuffer.allocate(4096);
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private FileChannel channel;
+    private long fileSize;
+    private int fieldBudget;
+    private boolean dirty;
+    private long lastFlush = System.nanoTime();
+    private boolean closed;
+
+    private JsonLogSink(Builder builder) throws IOException
+    {
+        this.directory = builder.directory;
+        this.name = builder.name;
+        this.maxFileSize = builder.maxFileSize;
+        this.maxFiles = builder.maxFiles;
+        this.flushIntervalNanos = builder.flushInterval.toNanos();
+        this.maxRecordSize = builder.maxFileSize / 16;
+        this.defaultLevel = builder.defaultLevel;
+        this.levels = Map.copyOf(builder.levels);
+
+        Files.createDirectories(directory);
+        if (Files.exists(file(0)))
+        {
+            shiftFiles();
+        }
+        openFile();
+    }
+
+    /**
+     * Creates a builder for a sink writing to a directory, with the default settings: files named
+     * {@code piston}, rolled at 16 MiB, five rolled files kept, flushed every second, logging at INFO.
+     *
+     * @param directory the directory to write log files to
+     * @return a new builder instance
+     */
+    public static Builder builder(Path directory)
+    {
+        return new Builder(directory);
+    }
+
+    /**
+     * Gets the level a logger logs to the file at.
+     *
+     * @param loggerName the logger name, usually a class name
+     * @return the level of the longest configured class or package name matching the logger, or the default level
+     */
+    public LogLevel getLevel(String loggerName)
+    {
+        LogLevel level = resolvedLevels.get(loggerName);
+        if (level == null)
+        {
+            level = resolveLevel(loggerName);
+            resolvedLevels.put(loggerName, level);
+        }
+        return level;
+    }
+
+    private LogLevel resolveLevel(String loggerName)
+    {
+        String candidate = loggerName;
+        while (true)
+        {
+            LogLevel level = levels.get(candidate);
+            if (level != null)
+            {
+                return level;
+            }
+
+            // Nested classes fall back to their outer class, classes to their package
+            int separator = Math.max(candidate.lastIndexOf('.'), candidate.lastIndexOf('$'));
+            if (separator < 0)
+            {
+                return defaultLevel;
+            }
+            candidate = candidate.substring(0, separator);
+        }
+    }
+
+    /**
+     * Checks whether a logger's records at a level are written to the file.
+     *
+     * @param loggerName the logger name
+     * @param level      the record's level
+     * @return true if the record should be written
+     */
+    public boolean isEnabled(String loggerName, LogLevel level)
+    {
+        return level.isAtLeast(getLevel(loggerName));
+    }
+
+    /**
+     * Appends a record, rolling the file first if it does not fit. Records written after {@link #close()} are
+     * ignored. Level filtering is up to the caller, see {@link #isEnabled}.
+     *
+     * @param millis     the time the record was logged, in epoch milliseconds
+     * @param level      the record's level
+     * @param loggerName the logger name
+     * @param threadName the name of the thread that logged the record
+     * @param message    the message
+     * @param thrown     the exception, or null
+     * @throws IOException if the file cannot be rolled
+     */
+    public synchronized void write(long millis, LogLevel level, String loggerName, String threadName, String message,
+                                   Throwable thrown) throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+
+        json.setLength(0);
+        fieldBudget = maxRecordSize - RECORD_OVERHEAD;
+        json.append("{\"time\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(millis), json);
+        json.append("\",\"level\":\"").append(level.name());
+        json.append("\",\"logger\":");
+        appendString(loggerName);
+        json.append(",\"thread\":");
+        appendString(threadName);
+        json.append(",\"message\":");
+        appendString(message);
+        if (thrown != null)
+        {
+            StringWriter stackTrace = new StringWriter();
+            thrown.printStackTrace(new PrintWriter(stackTrace));
+            json.append(",\"exception\":");
+            appendString(stackTrace.toString());
+        }
+        json.append("}\n");
+
+        ByteBuffer record = encode();
+        if (channel == null)
+        {
+            // A previous roll failed after closing the active file
+            shiftFiles();
+            openFile();
+        }
+        if (fileSize + buffer.position() + record.remaining() > maxFileSize)
+        {
+            rollFile();
+        }
+        if (record.remaining() > buffer.remaining())
+        {
+            drain();
+        }
+        // Records are capped well below the file size, but may still be larger than the buffer
+        if (record.remaining() > buffer.capacity())
+        {
+            fileSize += writeFully(record);
+        } else
+        {
+            buffer.put(record);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Writes buffered records to the file, and forces them to disk if the flush interval has passed since the last
+     * time. Call this after writing a batch of records.
+     *
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public synchronized void flushIfDue()
+    {
+        if (!dirty || channel == null)
+        {
+            return;
+        }
+        try
+        {
+            drain();
+            if (System.nanoTime() - lastFlush >= flushIntervalNanos)
+            {
+                flush();
+            }
+        } catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void drain() throws IOException
+    {
+        buffer.flip();
+        try
+        {
+            fileSize += writeFully(buffer);
+        } finally
+        {
+            buffer.clear();
+        }
+    }
+
+    private int writeFully(ByteBuffer bytes) throws IOException
+    {
+        int written = bytes.remaining();
+        while (bytes.hasRemaining())
+        {
+            channel.write(bytes);
+        }
+        return written;
+    }
+
+    private void flush() throws IOException
+    {
+        drain();
+        channel.force(false);
+        dirty = false;
+        lastFlush = System.nanoTime();
+    }
+
+    /**
+     * Writes out buffered records and closes the active file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (!closed)
+        {
+            closed = true;
+            if (channel != null)
+            {
+                closeFile();
+            }
+        }
+    }
+
+    private void appendString(String value)
+    {
+        if (value == null)
+        {
+            json.append("null");
+            return;
+        }
+
+        // Every string field draws on the record's budget, counting each character at its encoded size
+        json.append('"');
+        int length = 0;
+        for (; length < value.length(); length++)
+        {
+            char c = value.charAt(length);
+            int size = encodedSize(c);
+            if (size > fieldBudget)
+            {
+                break;
+            }
+            fieldBudget -= size;
+            switch (c)
+            {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default ->
+                {
+                    if (c < 0x20)
+                    {
+                        json.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else
+                    {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        if (length < value.length())
+        {
+            json.append("...");
+            fieldBudget = 0;
+        }
+        json.append('"');
+    }
+
+    /**
+     * Gets the most bytes a character takes in the file: its escape, or its UTF-8 encoding. Surrogates are counted
+     * as three bytes each, more than a pair takes and as much as the replacement of an unpaired one.
+     */
+    private static int encodedSize(char c)
+    {
+        if (c == '"' || c == '\\' || c == '\n' || c == '\r' || c == '\t')
+        {
+            return 2;
+        }
+        if (c < 0x20)
+        {
+            return 6;
+        }
+        return c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+    }
+
+    private ByteBuffer encode()
+    {
+        CharBuffer chars = CharBuffer.wrap(json);
+        encoded.clear();
+        encoder.reset();
+        while (true)
+        {
+            CoderResult result = encoder.encode(chars, encoded, true);
+            if (result.isOverflow())
+            {
+                ByteBuffer larger = ByteBuffer.allocate(encoded.capacity() * 2);
+                encoded.flip();
+                larger.put(encoded);
+                encoded = larger;
+                continue;
+            }
+            // Unpaired surrogates are replaced rather than reported
+            if (result.isError())
+            {
+                chars.position(chars.position() + result.length());
+                encoded.put((byte) '?');
+                continue;
+            }
+            break;
+        }
+        encoder.flush(encoded);
+        return encoded.flip();
+    }
+
+    private void openFile() throws IOException
+    {
+        channel = FileChannel.open(file(0), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        fileSize = 0;
+    }
+
+    private void closeFile() throws IOException
+    {
+        try
+        {
+            if (dirty)
+            {
+                flush();
+            }
+        } finally
+        {
+            // Whatever could not be written is dropped with the file, which is reopened on the next record
+            FileChannel closing = channel;
+            channel = null;
+            buffer.clear();
+            dirty = false;
+            closing.close();
+        }
+    }
+
+    private void rollFile() throws IOException
+    {
+        closeFile();
+        shiftFiles();
+        openFile();
+    }
+
+    private void shiftFiles() throws IOException
+    {
+        Files.deleteIfExists(file(maxFiles));
+        for (int i = maxFiles - 1; i >= 0; i--)
+        {
+            if (Files.exists(file(i)))
+            {
+                Files.move(file(i), file(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private Path file(int index)
+    {
+        return directory.resolve(index == 0 ? name + ".jsonl" : name + "." + index + ".jsonl");
+    }
+
+    /**
+     * Settings for a {@link JsonLogSink}.
+     */
+    public static final class Builder
+    {
+        private final Path directory;
+        private String name = "piston";
+        private int maxFileSize = 16 * 1024 * 1024;
+        private int maxFiles = 5;
+        private Duration flushInterval = Duration.ofSeconds(1);
+        private LogLevel defaultLevel = LogLevel.INFO;
+        private final Map<String, LogLevel> levels = new HashMap<>();
+
+        private Builder(Path directory)
+        {
+            this.directory = directory;
+        }
+
+        /**
+         * Sets the base name of the log files.
+         *
+         * @param name the file name without extension
+         * @return this builder for chaining
+         */
+        public Builder name(String name)
+        {
+            if (name == null || name.isEmpty())
+            {
+                throw new IllegalArgumentException("name must not be empty");
+            }
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Sets the size at which the active file is rolled.
+         *
+         * @param maxFileSize the file size in bytes, between 64 KiB and 1 GiB
+         * @return this builder for chaining
+         */
+        public Builder maxFileSize(long maxFileSize)
+        {
+            if (maxFileSize < 64 * 1024 || maxFileSize > 1024 * 1024 * 1024)
+            {
+                throw new IllegalArgumentException("maxFileSize must be between 64 KiB and 1 GiB");
+            }
+            this.maxFileSize = (int) maxFileSize;
+            return this;
+        }
+
+        /**
+         * Sets how many rolled files are kept besides the active one.
+         *
+         * @param maxFiles the number of rolled files, at least 0
+         * @return this builder for chaining
+         */
+        public Builder maxFiles(int maxFiles)
+        {
+            if (maxFiles < 0)
+            {
+                throw new IllegalArgumentException("maxFiles must not be negative");
+            }
+            this.maxFiles = maxFiles;
+            return this;
+        }
+
+        /**
+         * Sets the minimum time between forcing written records to disk.
+         *
+         * @param flushInterval the flush interval
+         * @return this builder for chaining
+         */
+        public Builder flushInterval(Duration flushInterval)
+        {
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        /**
+         * Sets the level for loggers without a configured level.
+         *
+         * @param level the default level
+         * @return this builder for chaining
+         */
+        public Builder level(LogLevel level)
+        {
+            this.defaultLevel = level;
+            return this;
+        }
+
+        /**
+         * Sets the level for a class, or for every class in a package and its subpackages.
+         *
+         * @param name  the class or package name
+         * @param level the level
+         * @return this builder for chaining
+         */
+        public Builder level(String name, LogLevel level)
+        {
+            levels.put(name, level);
+            return this;
+        }
+
+        /**
+         * Opens the log file, rolling a file left by an earlier run.
+         *
+         * @return a new sink
+         * @throws IOException if the directory or file cannot be created
+         */
+        public JsonLogSink build() throws IOException
+        {
+            return new JsonLogSink(this);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package org.pistonworks.core.common.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncEventDispatcherTest
+{
+
+    private final EventServiceImpl events = new EventServiceImpl();
+    private final CountDownLatch gateEntered = new CountDownLatch(1);
+    private final CountDownLatch gateOpen = new CountDownLatch(1);
+
+    @AfterEach
+    void shutDown()
+    {
+        gateOpen.countDown();
+        events.shutdown();
+    }
+
+    @Test
+    void deliversEventsOfOneTypeInSubmissionOrder()
+    {
+        events.configureAsyncDispatch(AsyncEventDispatcher.builder().workers(4).batchSize(16));
+        List<Integer> pings = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> pongs = Collections.synchronizedList(new ArrayList<>());
+        events.registerListener(Ping.class, ping -> pings.add(ping.id));
+        events.registerListener(Pong.class, pong -> pongs.add(pong.id));
+
+        List<Integer> expected = new ArrayList<>();
+        CompletableFuture<?> lastPing = null;
+        CompletableFuture<?> lastPong = null;
+        for (int i = 0; i < 1000; i++)
+        {
+            expected.add(i);
+            lastPing = events.fireEventAsync(new Ping(i));
+            lastPong = events.fireEventAsync(new Pong(i));
+        }
+
+        lastPing.join();
+        lastPong.join();
+        assertEquals(expected, pings);
+        assertEquals(expected, pongs);
+    }
+
+    @Test
+    void completesFuturesWithTheEvent()
+    {
+        Ping ping = new Ping(1);
+
+        assertSame(ping, events.fireEventAsync(ping).join());
+    }
+
+    @Test
+    void dropsAndCountsEventsWhenTheQueueIsFullByDefault()
+    {
+        events.configureAsyncDispatch(AsyncEventDispatcher.builder().workers(1).queueCapacity(1));
+        List<Integer> delivered = Collections.synchronizedList(new ArrayList<>());
+        events.registerListener(Ping.class, ping -> delivered.add(ping.id));
+        CompletableFuture<Gate> gate = holdWorker();
+
+        CompletableFuture<Ping> queued = events.fireEventAsync(new Ping(1));
+        CompletableFuture<Ping> dropped = events.fireEventAsync(new Ping(2));
+
+        CompletionException failure = assertThrows(CompletionException.class, dropped::join);
+        assertTrue(failure.getCause() instanceof RejectedExecutionException, String.valueOf(failure.getCause()));
+        assertEquals(1, events.getMetrics().getAsyncDrops());
+        assertEquals(1, events.snapshotMetrics().eventTypes().get(0).asyncDrops());
+
+        gateOpen.countDown();
+        gate.join();
+        queued.join();
+        assertEquals(List.of(1), delivered);
+    }
+
+    @Test
+    void blockingPolicyWaitsForRoom() throws InterruptedException
+    {
+        events.configureAsyncDispatch(AsyncEventDispatcher.builder().workers(1).queueCapacity(1)
+                .overflowPolicy(AsyncEventDispatcher.OverflowPolicy.BLOCK));
+        holdWorker();
+        events.fireEventAsync(new Ping(1));
+
+        CompletableFuture<CompletableFuture<Ping>> submitted =
+                CompletableFuture.supplyAsync(() -> events.fireEventAsync(new Ping(2)));
+        Thread.sleep(200);
+        assertFalse(submitted.isDone(), "the firing thread should wait for room");
+
+        gateOpen.countDown();
+        assertEquals(2, submitted.join().join().id);
+        assertEquals(0, events.getMetrics().getAsyncDrops());
+    }
+
+    @Test
+    void callerRunsPolicyDeliversOnTheFiringThread()
+    {
+        events.configureAsyncDispatch(AsyncEventDispatcher.builder().workers(1).queueCapacity(1)
+                .overflowPolicy(AsyncEventDispatcher.OverflowPolicy.CALLER_RUNS));
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        events.registerListener(Ping.class, ping -> threads.add(Thread.currentThread()));
+        holdWorker();
+        CompletableFuture<Ping> queued = events.fireEventAsync(new Ping(1));
+
+        events.fireEventAsync(new Ping(2)).join();
+        assertEquals(List.of(Thread.currentThread()), threads);
+
+        gateOpen.countDown();
+        queued.join();
+        events.fireEventAsync(new Ping(3)).join();
+        assertNotEquals(Thread.currentThread(), threads.get(threads.size() - 1));
+    }
+
+    @Test
+    void deliversQueuedEventsAndRejectsNewOnesAfterShutdown()
+    {
+        AsyncEventDispatcher dispatcher = AsyncEventDispatcher.builder().workers(1).build(events);
+        events.registerListener(Gate.class, this::waitAtGate);
+        CompletableFuture<Gate> gate = dispatcher.submit(new Gate());
+        awaitGate();
+        CompletableFuture<Ping> queued = dispatcher.submit(new Ping(1));
+
+        dispatcher.shutdown();
+        CompletableFuture<Ping> rejected = dispatcher.submit(new Ping(2));
+        gateOpen.countDown();
+
+        gate.join();
+        assertEquals(1, queued.join().id);
+        CompletionException failure = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(failure.getCause() instanceof RejectedExecutionException, String.valueOf(failure.getCause()));
+    }
+
+    @Test
+    void rejectsInvalidSettings()
+    {
+        assertThrows(IllegalArgumentException.class, () -> AsyncEventDispatcher.builder().workers(0));
+        assertThrows(IllegalArgumentException.class, () -> AsyncEventDispatcher.builder().queueCapacity(0));
+        assertThrows(IllegalArgumentException.class, () -> AsyncEventDispatcher.builder().batchSize(0));
+    }
+
+    /**
+     * Parks the only worker in a listener until the test opens the gate, so the worker's queue fills up.
+     * Gate and Ping events share the worker because there is just one.
+     */
+    private CompletableFuture<Gate> holdWorker()
+    {
+        events.registerListener(Gate.class, this::waitAtGate);
+        CompletableFuture<Gate> gate = events.fireEventAsync(new Gate());
+        awaitGate();
+        return gate;
+    }
+
+    private void awaitGate()
+    {
+        try
+        {
+            assertTrue(gateEntered.await(5, TimeUnit.SECONDS), "the worker did not reach the gate");
+        } catch (InterruptedException e)
+        {
+            throw new AssertionError(e);
+        }
+    }
+
+    private void waitAtGate(Gate gate)
+    {
+        gateEntered.countDown();
+        try
+        {
+            gateOpen.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static final class Ping extends AbstractEvent
+    {
+        final int id;
+
+        Ping(int id)
+        {
+            this.id = id;
+        }
+    }
+
+    static final class Pong extends AbstractEvent
+    {
+        final int id;
+
+        Pong(int id)
+        {
+            this.id = id;
+        }
+    }
+
+    static final class Gate extends AbstractEvent
+    {
+    }
+}
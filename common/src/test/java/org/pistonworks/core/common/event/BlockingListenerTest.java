@@ -0,0 +1,172 @@
+package org.pistonworks.core.common.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.pistonworks.core.api.event.Event;
+import org.pistonworks.core.common.logging.ErrorThrottle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockingListenerTest
+{
+
+    private final List<Exception> failures = Collections.synchronizedList(new ArrayList<>());
+    private final EventServiceImpl events = new EventServiceImpl()
+    {
+        @Override
+        protected void handleListenerException(RegisteredListener listener, Event event, Exception exception,
+                                               ErrorThrottle.Report report)
+        {
+            failures.add(exception);
+        }
+    };
+    private final CountDownLatch gateOpen = new CountDownLatch(1);
+
+    BlockingListenerTest()
+    {
+        events.setListenerErrorThrottle(null);
+    }
+
+    @AfterEach
+    void openGate()
+    {
+        gateOpen.countDown();
+    }
+
+    @Test
+    void runsOnAVirtualThread() throws InterruptedException
+    {
+        CountDownLatch called = new CountDownLatch(1);
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        events.registerBlockingListener(Ping.class, ping ->
+        {
+            threads.add(Thread.currentThread());
+            called.countDown();
+        }, 0);
+
+        events.fireEvent(new Ping());
+
+        await(called);
+        assertNotEquals(Thread.currentThread(), threads.get(0));
+        assertTrue(threads.get(0).isVirtual());
+    }
+
+    @Test
+    void staysWithinTheConcurrencyLimit() throws InterruptedException
+    {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+        CountDownLatch called = new CountDownLatch(50);
+        events.registerBlockingListener(Ping.class, ping ->
+        {
+            mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(5);
+            running.decrementAndGet();
+            called.countDown();
+        }, 2);
+
+        for (int i = 0; i < 50; i++)
+        {
+            events.fireEvent(new Ping());
+        }
+
+        await(called);
+        assertTrue(mostRunning.get() <= 2, "at most 2 calls should overlap, saw " + mostRunning.get());
+        assertEquals(List.of(), failures);
+    }
+
+    @Test
+    void reportsEventsThatDoNotFitTheBacklog() throws InterruptedException
+    {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch called = new CountDownLatch(1 + RegisteredListener.BACKLOG_CAPACITY);
+        events.registerBlockingListener(Ping.class, ping ->
+        {
+            entered.countDown();
+            try
+            {
+                gateOpen.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            called.countDown();
+        }, 1);
+
+        // The first event takes the only slot, the next ones fill the backlog
+        events.fireEvent(new Ping());
+        await(entered);
+        for (int i = 0; i < RegisteredListener.BACKLOG_CAPACITY; i++)
+        {
+            events.fireEvent(new Ping());
+        }
+        assertEquals(List.of(), failures);
+
+        events.fireEvent(new Ping());
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0) instanceof RejectedExecutionException, String.valueOf(failures.get(0)));
+
+        gateOpen.countDown();
+        await(called);
+    }
+
+    @Test
+    void detachesEventsBeforeHandingThemOff() throws InterruptedException
+    {
+        CountDownLatch called = new CountDownLatch(1);
+        List<Thread> detachedOn = Collections.synchronizedList(new ArrayList<>());
+        events.registerBlockingListener(Detachable.class, event ->
+        {
+            detachedOn.addAll(event.detachedOn);
+            called.countDown();
+        }, 0);
+
+        events.fireEvent(new Detachable());
+
+        await(called);
+        assertEquals(1, detachedOn.size());
+        assertSame(Thread.currentThread(), detachedOn.get(0));
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedException
+    {
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "the listener was not called in time");
+    }
+
+    private static void sleep(long millis)
+    {
+        try
+        {
+            Thread.sleep(millis);
+        } catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static final class Ping extends AbstractEvent
+    {
+    }
+
+    static final class Detachable extends AbstractEvent
+    {
+        final List<Thread> detachedOn = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        protected void detach()
+        {
+            detachedOn.add(Thread.currentThread());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.pistonworks.core.common.event;
+
+import org.pistonworks.core.api.event.ListenerDispatcher;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mirrors the dispatcher the EventHandlerProcessor generates for {@link DispatchedListener},
+ * counting invocations so tests can tell it was used instead of reflection.
+ */
+public final class DispatchedListener$$PistonDispatcher implements ListenerDispatcher
+{
+    static final AtomicInteger INVOCATIONS = new AtomicInteger();
+
+    private static final java.util.List<Handler> HANDLERS = java.util.List.of(
+            new Handler("onPing", GeneratedDispatcherTest.Ping.class,
+                    org.pistonworks.core.api.event.EventPriority.LOW, false, false, 0,
+                    (listener, event) ->
+                    {
+                        INVOCATIONS.incrementAndGet();
+                        ((DispatchedListener) listener).onPing((GeneratedDispatcherTest.Ping) event);
+                    }),
+            new Handler("onAnyEvent", AbstractEvent.class,
+                    org.pistonworks.core.api.event.EventPriority.HIGH, true, false, 0,
+                    (listener, event) ->
+                    {
+                        INVOCATIONS.incrementAndGet();
+                        ((DispatchedListener) listener).onAnyEvent((AbstractEvent) event);
+                    }));
+
+    @Override
+    public java.util.List<Handler> handlers()
+    {
+        return HANDLERS;
+    }
+}
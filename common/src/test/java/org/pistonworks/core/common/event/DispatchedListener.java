@@ -0,0 +1,27 @@
+package org.pistonworks.core.common.event;
+
+import org.pistonworks.core.api.event.EventHandler;
+import org.pistonworks.core.api.event.EventPriority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A listener with a hand-written dispatcher in the shape the EventHandlerProcessor generates.
+ */
+public class DispatchedListener
+{
+    final List<String> calls = new ArrayList<>();
+
+    @EventHandler(priority = EventPriority.LOW)
+    public void onPing(GeneratedDispatcherTest.Ping ping)
+    {
+        calls.add("low");
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onAnyEvent(AbstractEvent event)
+    {
+        calls.add("high");
+    }
+}
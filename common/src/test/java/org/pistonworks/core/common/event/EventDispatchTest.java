@@ -0,0 +1,130 @@
+package org.pistonworks.core.common.event;
+
+import org.junit.jupiter.api.Test;
+import org.pistonworks.core.api.event.EventHandler;
+import org.pistonworks.core.api.event.EventListener;
+import org.pistonworks.core.api.event.EventPriority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventDispatchTest
+{
+
+    private final EventServiceImpl events = new EventServiceImpl();
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    void callsListenersInPriorityOrder()
+    {
+        events.registerListener(new Handlers(calls));
+
+        events.fireEvent(new Ping());
+
+        assertEquals(List.of("highest", "normal", "lowest"), calls);
+    }
+
+    @Test
+    void includesListenersForSupertypes()
+    {
+        events.registerListener(Ping.class, record("ping"));
+        events.registerListener(AbstractEvent.class, record("any"));
+
+        events.fireEvent(new Ping());
+        events.fireEvent(new Pong());
+
+        assertEquals(List.of("ping", "any", "any"), calls);
+    }
+
+    @Test
+    void reusesTheBakedArrayUntilListenersChange()
+    {
+        events.registerListener(Ping.class, record("ping"));
+        RegisteredListener[] baked = events.getListenersForEvent(Ping.class);
+
+        assertSame(baked, events.getListenersForEvent(Ping.class));
+        assertTrue(events.hasListeners(Ping.class));
+        assertFalse(events.hasListeners(Pong.class));
+    }
+
+    @Test
+    void supertypeRegistrationRefreshesBakedArrays()
+    {
+        events.registerListener(Ping.class, record("ping"));
+        events.fireEvent(new Ping());
+        assertFalse(events.hasListeners(Pong.class));
+
+        Handlers handlers = new Handlers(calls);
+        events.registerListener(handlers);
+        events.registerListener(AbstractEvent.class, record("any"));
+
+        assertEquals(5, events.getListenersForEvent(Ping.class).length);
+        assertTrue(events.hasListeners(Pong.class));
+
+        events.unregisterListener(handlers);
+        calls.clear();
+        events.fireEvent(new Ping());
+        assertEquals(List.of("ping", "any"), calls);
+    }
+
+    @Test
+    void unregisterAllEmptiesEveryBakedArray()
+    {
+        events.registerListener(new Handlers(calls));
+        events.registerListener(AbstractEvent.class, record("any"));
+        events.fireEvent(new Ping());
+
+        events.unregisterAll();
+        calls.clear();
+        events.fireEvent(new Ping());
+
+        assertEquals(List.of(), calls);
+        assertFalse(events.hasListeners(Ping.class));
+    }
+
+    private <T extends AbstractEvent> EventListener<T> record(String name)
+    {
+        return event -> calls.add(name);
+    }
+
+    static final class Handlers
+    {
+        private final List<String> calls;
+
+        Handlers(List<String> calls)
+        {
+            this.calls = calls;
+        }
+
+        @EventHandler(priority = EventPriority.LOWEST)
+        public void onLowest(Ping ping)
+        {
+            calls.add("lowest");
+        }
+
+        @EventHandler(priority = EventPriority.HIGHEST)
+        public void onHighest(Ping ping)
+        {
+            calls.add("highest");
+        }
+
+        @EventHandler
+        public void onNormal(Ping ping)
+        {
+            calls.add("normal");
+        }
+    }
+
+    static final class Ping extends AbstractEvent
+    {
+    }
+
+    static final class Pong extends AbstractEvent
+    {
+    }
+}
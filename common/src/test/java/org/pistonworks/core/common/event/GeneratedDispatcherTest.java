@@ -0,0 +1,108 @@
+package org.pistonworks.core.common.event;
+
+import org.junit.jupiter.api.Test;
+import org.pistonworks.core.api.event.EventHandler;
+import org.pistonworks.core.api.event.ListenerDispatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeneratedDispatcherTest
+{
+
+    private final EventServiceImpl events = new EventServiceImpl();
+
+    @Test
+    void findsDispatchersOfIndexedClasses()
+    {
+        ListenerDispatcher dispatcher = GeneratedDispatchers.find(DispatchedListener.class);
+
+        assertTrue(dispatcher instanceof DispatchedListener$$PistonDispatcher, String.valueOf(dispatcher));
+        assertNull(GeneratedDispatchers.find(ReflectedListener.class));
+    }
+
+    @Test
+    void staleIndexEntriesFallBackToReflection()
+    {
+        assertNull(GeneratedDispatchers.find(StaleListener.class));
+
+        StaleListener listener = new StaleListener();
+        events.registerListener(listener);
+        events.fireEvent(new Ping());
+        assertEquals(1, listener.calls);
+    }
+
+    @Test
+    void callsHandlersThroughTheDispatcher()
+    {
+        DispatchedListener listener = new DispatchedListener();
+        int before = DispatchedListener$$PistonDispatcher.INVOCATIONS.get();
+
+        events.registerListener(listener);
+        events.fireEvent(new Ping());
+
+        assertEquals(List.of("high", "low"), listener.calls);
+        assertEquals(before + 2, DispatchedListener$$PistonDispatcher.INVOCATIONS.get());
+    }
+
+    @Test
+    void dispatchedListenersDescribeTheirHandlerMethods()
+    {
+        events.registerListener(new DispatchedListener());
+
+        RegisteredListener[] listeners = events.getListenersForEvent(Ping.class);
+        assertEquals(2, listeners.length);
+        assertNotNull(listeners[0].getMethod());
+        assertEquals(DispatchedListener.class.getName() + "#onAnyEvent", listeners[0].describe());
+        assertTrue(listeners[0].isIgnoreCancelled());
+        assertEquals(DispatchedListener.class.getName() + "#onPing", listeners[1].describe());
+    }
+
+    @Test
+    void unregistersDispatchedListeners()
+    {
+        DispatchedListener listener = new DispatchedListener();
+        events.registerListener(listener);
+
+        events.unregisterListener(listener);
+        events.fireEvent(new Ping());
+
+        assertEquals(List.of(), listener.calls);
+        assertEquals(0, events.getListenerCount(Ping.class));
+        assertEquals(0, events.getListenerCount(AbstractEvent.class));
+    }
+
+    static final class Ping extends AbstractEvent
+    {
+    }
+
+    static final class ReflectedListener
+    {
+        final List<Ping> pings = new ArrayList<>();
+
+        @EventHandler
+        public void onPing(Ping ping)
+        {
+            pings.add(ping);
+        }
+    }
+
+    /**
+     * Listed in the index without a dispatcher, as after a class was renamed between builds.
+     */
+    static final class StaleListener
+    {
+        int calls;
+
+        @EventHandler
+        public void onPing(Ping ping)
+        {
+            calls++;
+        }
+    }
+}
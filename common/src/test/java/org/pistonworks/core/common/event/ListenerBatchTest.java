@@ -0,0 +1,116 @@
+package org.pistonworks.core.common.event;
+
+import org.junit.jupiter.api.Test;
+import org.pistonworks.core.api.event.EventHandler;
+import org.pistonworks.core.api.event.ListenerBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ListenerBatchTest
+{
+
+    private final List<String> calls = new ArrayList<>();
+    private int changes;
+    private final EventServiceImpl events = new EventServiceImpl()
+    {
+        @Override
+        protected void onListenersChanged()
+        {
+            changes++;
+        }
+    };
+
+    @Test
+    void publishesEverythingInOneChangeOnCommit()
+    {
+        ListenerBatch batch = events.beginBatch()
+                .listen(new Handlers("first"))
+                .listen(new Handlers("second"))
+                .listen(Ping.class, ping -> calls.add("functional"));
+
+        events.fireEvent(new Ping());
+        assertEquals(List.of(), calls);
+        assertEquals(0, changes);
+
+        batch.commit();
+        events.fireEvent(new Ping());
+
+        assertEquals(List.of("first", "second", "functional"), calls);
+        assertEquals(1, changes);
+    }
+
+    @Test
+    void listenerObjectsCanBeUnregisteredAfterCommit()
+    {
+        Handlers first = new Handlers("first");
+        events.beginBatch().listen(first).listen(new Handlers("second")).commit();
+
+        events.unregisterListener(first);
+        events.fireEvent(new Ping());
+
+        assertEquals(List.of("second"), calls);
+    }
+
+    @Test
+    void invalidListenerFailsBeforeAnythingIsRegistered()
+    {
+        ListenerBatch batch = events.beginBatch().listen(new Handlers("first"));
+
+        assertThrows(IllegalArgumentException.class, () -> batch.listen(new Invalid()));
+        events.fireEvent(new Ping());
+
+        assertEquals(List.of(), calls);
+        assertEquals(0, events.getListenerCount(Ping.class));
+    }
+
+    @Test
+    void emptyBatchChangesNothing()
+    {
+        events.beginBatch().listen(new Object()).commit();
+
+        assertEquals(0, changes);
+    }
+
+    @Test
+    void batchCanOnlyBeCommittedOnce()
+    {
+        ListenerBatch batch = events.beginBatch().listen(new Handlers("first"));
+        batch.commit();
+
+        assertThrows(IllegalStateException.class, batch::commit);
+        assertThrows(IllegalStateException.class, () -> batch.listen(new Handlers("second")));
+        assertEquals(1, events.getListenerCount(Ping.class));
+    }
+
+    final class Handlers
+    {
+        private final String name;
+
+        Handlers(String name)
+        {
+            this.name = name;
+        }
+
+        @EventHandler
+        public void onPing(Ping ping)
+        {
+            calls.add(name);
+        }
+    }
+
+    static final class Invalid
+    {
+        @EventHandler
+        public void onPing(Ping ping, String extra)
+        {
+        }
+    }
+
+    static final class Ping extends AbstractEvent
+    {
+    }
+}
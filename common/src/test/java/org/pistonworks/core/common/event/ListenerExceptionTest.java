@@ -0,0 +1,76 @@
+package org.pistonworks.core.common.event;
+
+import org.junit.jupiter.api.Test;
+import org.pistonworks.core.api.event.Event;
+import org.pistonworks.core.common.logging.ErrorThrottle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListenerExceptionTest
+{
+
+    @Test
+    void reportsCarryWhetherTheErrorWasSeenBefore()
+    {
+        List<ErrorThrottle.Report> reports = new ArrayList<>();
+        EventServiceImpl events = new EventServiceImpl()
+        {
+            @Override
+            protected void handleListenerException(RegisteredListener listener, Event event, Exception exception,
+                                                   ErrorThrottle.Report report)
+            {
+                reports.add(report);
+            }
+        };
+        events.setListenerErrorThrottle(ErrorThrottle.builder().burst(2).refillInterval(Duration.ofHours(1)).build());
+        events.registerListener(Ping.class, ListenerExceptionTest::fail);
+
+        for (int i = 0; i < 5; i++)
+        {
+            events.fireEvent(new Ping());
+        }
+
+        assertEquals(2, reports.size());
+        assertTrue(reports.get(0).first());
+        assertFalse(reports.get(1).first());
+        assertEquals(2, reports.get(1).total());
+    }
+
+    @Test
+    void overridesOfTheDeprecatedHandlerAreStillCalled()
+    {
+        List<Exception> handled = new ArrayList<>();
+        EventServiceImpl events = new EventServiceImpl()
+        {
+            @Override
+            @SuppressWarnings("deprecation")
+            protected void handleListenerException(RegisteredListener listener, Event event, Exception exception)
+            {
+                handled.add(exception);
+            }
+        };
+        events.setListenerErrorThrottle(null);
+        events.registerListener(Ping.class, ListenerExceptionTest::fail);
+
+        events.fireEvent(new Ping());
+        events.fireEvent(new Ping());
+
+        assertEquals(2, handled.size());
+        assertEquals("failed", handled.get(0).getMessage());
+    }
+
+    private static void fail(Ping ping)
+    {
+        throw new IllegalStateException("failed");
+    }
+
+    static final class Ping extends AbstractEvent
+    {
+    }
+}
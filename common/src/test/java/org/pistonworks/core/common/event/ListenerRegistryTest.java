@@ -0,0 +1,182 @@
+package org.pistonworks.core.common.event;
+
+import org.junit.jupiter.api.Test;
+import org.pistonworks.core.api.event.Event;
+import org.pistonworks.core.api.event.EventHandler;
+import org.pistonworks.core.api.event.EventPriority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListenerRegistryTest
+{
+
+    private final ListenerRegistry registry = new ListenerRegistry();
+
+    @Test
+    void keepsRegistrationOrderWithinAPriority()
+    {
+        RegisteredListener low = listener(Ping.class, EventPriority.LOW);
+        RegisteredListener first = listener(Ping.class, EventPriority.NORMAL);
+        RegisteredListener second = listener(Ping.class, EventPriority.NORMAL);
+        RegisteredListener high = listener(Ping.class, EventPriority.HIGH);
+
+        registry.update(List.of(low), List.of());
+        registry.update(List.of(first), List.of());
+        registry.update(List.of(high, second), List.of());
+
+        assertArrayEquals(new RegisteredListener[] {high, first, second, low}, registry.getRegistered(Ping.class));
+    }
+
+    @Test
+    void changesDoNotTouchPublishedArrays()
+    {
+        RegisteredListener first = listener(Ping.class, EventPriority.NORMAL);
+        RegisteredListener second = listener(Ping.class, EventPriority.NORMAL);
+        registry.update(List.of(first), List.of());
+        RegisteredListener[] published = registry.getListenersForEvent(Ping.class);
+
+        registry.update(List.of(second), List.of(first));
+
+        assertArrayEquals(new RegisteredListener[] {first}, published);
+        assertArrayEquals(new RegisteredListener[] {second}, registry.getListenersForEvent(Ping.class));
+    }
+
+    @Test
+    void reportsWhetherAnUpdateChangedAnything()
+    {
+        RegisteredListener registered = listener(Ping.class, EventPriority.NORMAL);
+
+        assertTrue(registry.update(List.of(registered), List.of()));
+        assertFalse(registry.update(List.of(), List.of(listener(Ping.class, EventPriority.NORMAL))));
+        assertTrue(registry.update(List.of(), List.of(registered)));
+        assertFalse(registry.getAll().containsKey(Ping.class));
+    }
+
+    @Test
+    void keepsBakedArraysOfUnaffectedEventClasses()
+    {
+        registry.update(List.of(listener(Ping.class, EventPriority.NORMAL)), List.of());
+        RegisteredListener[] pings = registry.getListenersForEvent(Ping.class);
+        RegisteredListener[] pongs = registry.getListenersForEvent(Pong.class);
+
+        registry.update(List.of(listener(Pong.class, EventPriority.NORMAL)), List.of());
+
+        assertSame(pings, registry.getListenersForEvent(Ping.class));
+        assertNotSame(pongs, registry.getListenersForEvent(Pong.class));
+        assertEquals(1, registry.getListenersForEvent(Pong.class).length);
+    }
+
+    @Test
+    void concurrentUpdatesAreNotLost() throws InterruptedException
+    {
+        int threads = 8;
+        int perThread = 200;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++)
+        {
+            Thread worker = new Thread(() ->
+            {
+                awaitQuietly(start);
+                for (int i = 0; i < perThread; i++)
+                {
+                    registry.update(List.of(listener(Ping.class, EventPriority.NORMAL)), List.of());
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        start.countDown();
+        for (Thread worker : workers)
+        {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        assertEquals(threads * perThread, registry.getRegistered(Ping.class).length);
+        assertEquals(threads * perThread, registry.getListenersForEvent(Ping.class).length);
+    }
+
+    @Test
+    void unregisteringDuringDispatchTakesEffectFromTheNextEvent()
+    {
+        EventServiceImpl events = new EventServiceImpl();
+        List<String> calls = new ArrayList<>();
+        Later later = new Later(calls);
+        events.registerListener(Ping.class, ping ->
+        {
+            calls.add("first");
+            events.unregisterListener(later);
+        });
+        events.registerListener(later);
+
+        events.fireEvent(new Ping());
+        events.fireEvent(new Ping());
+
+        assertEquals(List.of("first", "later", "first"), calls);
+    }
+
+    @Test
+    void clearRemovesEverything()
+    {
+        registry.update(List.of(listener(Ping.class, EventPriority.NORMAL)), List.of());
+        registry.getListenersForEvent(Ping.class);
+
+        registry.clear();
+
+        assertEquals(0, registry.getListenersForEvent(Ping.class).length);
+        assertTrue(registry.getAll().isEmpty());
+    }
+
+    private static RegisteredListener listener(Class<? extends Event> eventType, EventPriority priority)
+    {
+        RegisteredListener listener = new FunctionalRegisteredListener<>(event -> { }, priority);
+        listener.setEventType(eventType);
+        return listener;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await();
+        } catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static final class Later
+    {
+        private final List<String> calls;
+
+        Later(List<String> calls)
+        {
+            this.calls = calls;
+        }
+
+        @EventHandler(priority = EventPriority.LOW)
+        public void onPing(Ping ping)
+        {
+            calls.add("later");
+        }
+    }
+
+    static final class Ping extends AbstractEvent
+    {
+    }
+
+    static final class Pong extends AbstractEvent
+    {
+    }
+}
@@ -0,0 +1,134 @@
+package org.pistonworks.core.common.event;
+
+import org.junit.jupiter.api.Test;
+import org.pistonworks.core.api.event.Event;
+import org.pistonworks.core.api.event.EventHandler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListenerWatchdogTest
+{
+
+    private final List<ListenerWatchdog.Action> actions = new ArrayList<>();
+    private final EventServiceImpl events = new EventServiceImpl()
+    {
+        @Override
+        protected void handleSlowListener(RegisteredListener listener, Event event, long nanos, int strikes,
+                                          ListenerWatchdog.Action action)
+        {
+            actions.add(action);
+        }
+
+        @Override
+        protected void handleSlowDispatch(Event event, long nanos, RegisteredListener slowest, long slowestNanos)
+        {
+        }
+    };
+
+    @Test
+    void strikesCountOnlyWithinTheWindow()
+    {
+        RegisteredListener listener = new FunctionalRegisteredListener<>(event -> { }, null);
+
+        assertFalse(listener.recordStrike(0, 3, 100));
+        assertFalse(listener.recordStrike(60, 3, 100));
+        assertFalse(listener.recordStrike(120, 3, 100));
+        // The last three strikes at 60, 120 and 150 are within 100 of each other
+        assertTrue(listener.recordStrike(150, 3, 100));
+        assertFalse(listener.recordStrike(400, 3, 100));
+    }
+
+    @Test
+    void firstStrikeReachesALimitOfOne()
+    {
+        RegisteredListener listener = new FunctionalRegisteredListener<>(event -> { }, null);
+
+        assertTrue(listener.recordStrike(1_000, 1, 100));
+    }
+
+    @Test
+    void disablesASlowListenerAtTheStrikeLimit()
+    {
+        events.setWatchdog(ListenerWatchdog.builder().listenerThreshold(Duration.ofMillis(3))
+                .strikeLimit(2).action(ListenerWatchdog.Action.DISABLE).build());
+        Handlers handlers = new Handlers();
+        events.registerListener(handlers);
+
+        events.fireEvent(new Ping());
+        events.fireEvent(new Ping());
+        events.fireEvent(new Ping());
+
+        assertEquals(List.of(ListenerWatchdog.Action.LOG, ListenerWatchdog.Action.DISABLE), actions);
+        assertEquals(2, handlers.slowCalls);
+        assertEquals(3, handlers.fastCalls);
+        assertEquals(1, events.getListenerCount(Ping.class));
+
+        events.unregisterListener(handlers);
+        events.fireEvent(new Ping());
+        assertEquals(3, handlers.fastCalls);
+        assertEquals(0, events.getListenerCount(Ping.class));
+    }
+
+    @Test
+    void demotesASlowListenerOffTheFiringThread()
+    {
+        events.setWatchdog(ListenerWatchdog.builder().listenerThreshold(Duration.ofMillis(3))
+                .strikeLimit(1).action(ListenerWatchdog.Action.DEMOTE).build());
+        events.registerListener(Ping.class, ping -> sleep(10));
+
+        events.fireEvent(new Ping());
+
+        assertEquals(List.of(ListenerWatchdog.Action.DEMOTE), actions);
+        assertTrue(events.getListenersForEvent(Ping.class)[0].isBlocking());
+    }
+
+    @Test
+    void rejectsInvalidSettings()
+    {
+        assertThrows(IllegalArgumentException.class, () -> ListenerWatchdog.builder().listenerThreshold(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> ListenerWatchdog.builder().dispatchBudget(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> ListenerWatchdog.builder().strikeLimit(0));
+        assertThrows(IllegalArgumentException.class, () -> ListenerWatchdog.builder().strikeWindow(Duration.ZERO));
+    }
+
+    private static void sleep(long millis)
+    {
+        try
+        {
+            Thread.sleep(millis);
+        } catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static final class Handlers
+    {
+        int slowCalls;
+        int fastCalls;
+
+        @EventHandler
+        public void onSlowPing(Ping ping)
+        {
+            slowCalls++;
+            sleep(10);
+        }
+
+        @EventHandler
+        public void onFastPing(Ping ping)
+        {
+            fastCalls++;
+        }
+    }
+
+    public static final class Ping extends AbstractEvent
+    {
+    }
+}
@@ -0,0 +1,156 @@
+package org.pistonworks.core.common.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ErrorThrottleTest
+{
+
+    @Test
+    void reportsABurstThenSuppresses()
+    {
+        ErrorThrottle throttle = slowThrottle().burst(2).build();
+
+        ErrorThrottle.Report first = throttle.check("listener", error());
+        assertTrue(first.first());
+        assertEquals("", first.describeRepeats());
+
+        ErrorThrottle.Report second = throttle.check("listener", error());
+        assertFalse(second.first());
+        assertEquals(" (seen 2 times)", second.describeRepeats());
+
+        assertNull(throttle.check("listener", error()));
+        assertNull(throttle.check("listener", error()));
+    }
+
+    @Test
+    void firstOccurrencesAreReportedWithoutTokens()
+    {
+        ErrorThrottle throttle = slowThrottle().burst(1).build();
+
+        assertNotNull(throttle.check("listener", error()));
+        assertNull(throttle.check("listener", error()));
+
+        // The source is out of tokens, but other errors are new signatures
+        assertTrue(throttle.check("listener", new IllegalArgumentException()).first());
+        assertTrue(throttle.check("listener", new IllegalStateException("wrapped", error())).first());
+    }
+
+    @Test
+    void sourcesHaveTheirOwnBuckets()
+    {
+        ErrorThrottle throttle = slowThrottle().burst(1).build();
+
+        throttle.check("first", error());
+        assertNull(throttle.check("first", error()));
+
+        assertNotNull(throttle.check("second", error()));
+    }
+
+    @Test
+    void nextReportCarriesTheSuppressedCount() throws InterruptedException
+    {
+        ErrorThrottle throttle = ErrorThrottle.builder().stackDepth(1).burst(1)
+                .refillInterval(Duration.ofMillis(200)).build();
+
+        throttle.check("listener", error());
+        assertNull(throttle.check("listener", error()));
+        assertNull(throttle.check("listener", error()));
+
+        Thread.sleep(250);
+        ErrorThrottle.Report report = throttle.check("listener", error());
+        assertEquals(new ErrorThrottle.Report(false, 4, 2), report);
+        assertEquals(" (seen 4 times, 2 not logged since the last report)", report.describeRepeats());
+    }
+
+    @Test
+    void summarizesSuppressedOccurrences()
+    {
+        ErrorThrottle throttle = slowThrottle().burst(1).summaryInterval(Duration.ZERO).build();
+
+        throttle.check("listener", error());
+        throttle.check("listener", error());
+        throttle.check("listener", error("last"));
+
+        assertEquals(List.of(new ErrorThrottle.Summary("listener", "java.lang.IllegalStateException: last", 2, 3)),
+                throttle.drainSummaries());
+        assertEquals(List.of(), throttle.drainSummaries());
+    }
+
+    @Test
+    void waitsForTheSummaryInterval()
+    {
+        ErrorThrottle throttle = slowThrottle().burst(1).build();
+
+        throttle.check("listener", error());
+        throttle.check("listener", error());
+
+        assertEquals(List.of(), throttle.drainSummaries());
+    }
+
+    @Test
+    void forgetsTheLeastRecentlyReportedSignatureAtTheLimit()
+    {
+        ErrorThrottle throttle = slowThrottle().maxSignatures(2).build();
+
+        throttle.check("a", error());
+        throttle.check("b", error());
+        throttle.check("c", error());
+
+        assertFalse(throttle.check("c", error()).first());
+        assertTrue(throttle.check("a", error()).first());
+        assertTrue(throttle.check("b", error()).first());
+    }
+
+    @Test
+    void staysBoundedUnderManySignatures()
+    {
+        ErrorThrottle throttle = slowThrottle().maxSignatures(8).build();
+
+        for (int i = 0; i < 1000; i++)
+        {
+            assertTrue(throttle.check("source " + i, error()).first());
+        }
+        // Only the last eight are still known
+        for (int i = 992; i < 1000; i++)
+        {
+            assertFalse(throttle.check("source " + i, error()).first());
+        }
+    }
+
+    @Test
+    void rejectsInvalidSettings()
+    {
+        assertThrows(IllegalArgumentException.class, () -> ErrorThrottle.builder().burst(0));
+        assertThrows(IllegalArgumentException.class, () -> ErrorThrottle.builder().refillInterval(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> ErrorThrottle.builder().stackDepth(0));
+        assertThrows(IllegalArgumentException.class, () -> ErrorThrottle.builder().maxSignatures(0));
+    }
+
+    /**
+     * A throttle whose buckets do not refill during a test, identifying errors by the frame that created them.
+     */
+    private static ErrorThrottle.Builder slowThrottle()
+    {
+        return ErrorThrottle.builder().stackDepth(1).refillInterval(Duration.ofHours(1));
+    }
+
+    private static RuntimeException error()
+    {
+        return error("failed");
+    }
+
+    private static RuntimeException error(String message)
+    {
+        return new IllegalStateException(message);
+    }
+}
@@ -0,0 +1,181 @@
+package org.pistonworks.core.common.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pistonworks.core.api.logging.LogLevel;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonLogSinkTest
+{
+
+    private static final int MIN_FILE_SIZE = 64 * 1024;
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException
+    {
+        directory = Files.createTempDirectory("json-log-sink");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException
+    {
+        try (Stream<Path> paths = Files.walk(directory))
+        {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList())
+            {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void writesOneEscapedObjectPerLine() throws IOException
+    {
+        try (JsonLogSink sink = JsonLogSink.builder(directory).build())
+        {
+            sink.write(0, LogLevel.WARN, "com.example.Plugin", "Server thread", "say \"hi\"\\\n\tbye\u0001", null);
+            sink.write(1000, LogLevel.INFO, "com.example.Plugin", "main", null, null);
+        }
+
+        assertEquals(List.of(
+                "{\"time\":\"1970-01-01T00:00:00Z\",\"level\":\"WARN\",\"logger\":\"com.example.Plugin\","
+                        + "\"thread\":\"Server thread\",\"message\":\"say \\\"hi\\\"\\\\\\n\\tbye\\u0001\"}",
+                "{\"time\":\"1970-01-01T00:00:01Z\",\"level\":\"INFO\",\"logger\":\"com.example.Plugin\","
+                        + "\"thread\":\"main\",\"message\":null}"), lines("piston.jsonl"));
+    }
+
+    @Test
+    void includesTheStackTrace() throws IOException
+    {
+        try (JsonLogSink sink = JsonLogSink.builder(directory).build())
+        {
+            sink.write(0, LogLevel.ERROR, "logger", "main", "failed", new IllegalStateException("boom"));
+        }
+
+        String line = lines("piston.jsonl").get(0);
+        assertTrue(line.contains(",\"exception\":\"java.lang.IllegalStateException: boom\\n\\tat "), line);
+    }
+
+    @Test
+    void capsRecordsAtASixteenthOfTheFileSize() throws IOException
+    {
+        try (JsonLogSink sink = JsonLogSink.builder(directory).maxFileSize(MIN_FILE_SIZE).build())
+        {
+            sink.write(0, LogLevel.INFO, "logger", "main", "é".repeat(100_000), new IllegalStateException());
+            sink.write(0, LogLevel.INFO, "logger", "main", "\n".repeat(100_000), null);
+        }
+
+        for (String line : lines("piston.jsonl"))
+        {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length < MIN_FILE_SIZE / 16, line);
+            assertTrue(line.endsWith("...\"}"), line);
+        }
+    }
+
+    @Test
+    void rollsFilesAndKeepsTheNewest() throws IOException
+    {
+        String message = "x".repeat(3000);
+        try (JsonLogSink sink = JsonLogSink.builder(directory).name("test").maxFileSize(MIN_FILE_SIZE).maxFiles(2)
+                .build())
+        {
+            for (int i = 0; i < 100; i++)
+            {
+                sink.write(i, LogLevel.INFO, "logger", "main", message, null);
+                sink.flushIfDue();
+            }
+        }
+
+        assertTrue(Files.exists(directory.resolve("test.jsonl")));
+        assertTrue(Files.exists(directory.resolve("test.1.jsonl")));
+        assertTrue(Files.exists(directory.resolve("test.2.jsonl")));
+        assertFalse(Files.exists(directory.resolve("test.3.jsonl")));
+        for (String file : List.of("test.jsonl", "test.1.jsonl", "test.2.jsonl"))
+        {
+            assertTrue(Files.size(directory.resolve(file)) <= MIN_FILE_SIZE, file);
+        }
+        List<String> newest = lines("test.jsonl");
+        assertTrue(newest.get(newest.size() - 1).startsWith("{\"time\":\"1970-01-01T00:00:00.099Z\""));
+    }
+
+    @Test
+    void rollsTheFileOfAnEarlierRun() throws IOException
+    {
+        try (JsonLogSink sink = JsonLogSink.builder(directory).build())
+        {
+            sink.write(0, LogLevel.INFO, "logger", "main", "first run", null);
+        }
+        try (JsonLogSink sink = JsonLogSink.builder(directory).build())
+        {
+            sink.write(0, LogLevel.INFO, "logger", "main", "second run", null);
+        }
+
+        assertTrue(lines("piston.1.jsonl").get(0).contains("first run"));
+        assertEquals(1, lines("piston.jsonl").size());
+        assertTrue(lines("piston.jsonl").get(0).contains("second run"));
+    }
+
+    @Test
+    void flushesBufferedRecordsAndIgnoresThemOnceClosed() throws IOException
+    {
+        JsonLogSink sink = JsonLogSink.builder(directory).flushInterval(Duration.ofHours(1)).build();
+        sink.write(0, LogLevel.INFO, "logger", "main", "buffered", null);
+        assertEquals(List.of(), lines("piston.jsonl"));
+
+        sink.flushIfDue();
+        assertEquals(1, lines("piston.jsonl").size());
+
+        sink.write(0, LogLevel.INFO, "logger", "main", "closed", null);
+        sink.close();
+        sink.write(0, LogLevel.INFO, "logger", "main", "ignored", null);
+        assertEquals(2, lines("piston.jsonl").size());
+    }
+
+    @Test
+    void resolvesTheLongestMatchingLevel() throws IOException
+    {
+        try (JsonLogSink sink = JsonLogSink.builder(directory).level(LogLevel.WARN)
+                .level("com.example", LogLevel.DEBUG)
+                .level("com.example.Noisy", LogLevel.ERROR)
+                .build())
+        {
+            assertEquals(LogLevel.WARN, sink.getLevel("org.other.Plugin"));
+            assertEquals(LogLevel.DEBUG, sink.getLevel("com.example.sub.Plugin"));
+            assertEquals(LogLevel.ERROR, sink.getLevel("com.example.Noisy"));
+            assertEquals(LogLevel.ERROR, sink.getLevel("com.example.Noisy$Inner"));
+            assertEquals(LogLevel.DEBUG, sink.getLevel("com.example.NoisyOther"));
+
+            assertTrue(sink.isEnabled("com.example.Noisy", LogLevel.CRITICAL));
+            assertFalse(sink.isEnabled("com.example.Noisy", LogLevel.WARN));
+        }
+    }
+
+    @Test
+    void rejectsInvalidSettings()
+    {
+        assertThrows(IllegalArgumentException.class, () -> JsonLogSink.builder(directory).maxFileSize(1024));
+        assertThrows(IllegalArgumentException.class, () -> JsonLogSink.builder(directory).maxFiles(-1));
+        assertThrows(IllegalArgumentException.class, () -> JsonLogSink.builder(directory).name(""));
+    }
+
+    private List<String> lines(String file) throws IOException
+    {
+        return Files.readAllLines(directory.resolve(file), StandardCharsets.UTF_8);
+    }
+}
@@ -35,6 +35,8 @@ class PistonCorePlugin : Plugin<Project> {
         project.dependencies.apply {
             add("implementation", "org.pistonworks:api:$PISTON_CORE_VERSION")
             add("implementation", "org.pistonworks:common:$PISTON_CORE_VERSION")
+            // Generates listener dispatchers so @EventHandler methods are registered without reflection
+            add("annotationProcessor", "org.pistonworks:processor:$PISTON_CORE_VERSION")
         }
 
         // Create extension for configuration
@@ -6,6 +6,15 @@ dependencies {
     // Add the Spigot API as a provided dependency.
     // This is crucial, as the server provides this library at runtime.
     compileOnly("org.spigotmc:spigot-api:1.21.8-R0.1-SNAPSHOT")
+    // Tests stand in for Bukkit objects with proxies of its interfaces
+    testImplementation("org.spigotmc:spigot-api:1.21.8-R0.1-SNAPSHOT")
+}
+
+// Minecraft 1.21 servers run on Java 21, and :common targets it for virtual threads
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
 }
 
 // Configure the JAR task to create a proper plugin JAR
@@ -0,0 +1,330 @@
+package org.pistonworks.core.spigot;
+
+import org.pistonworks.core.api.logging.LogLevel;
+import org.pistonworks.core.common.logging.ErrorThrottle;
+import org.pistonworks.core.common.logging.JsonLogSink;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Background writer behind {@link SpigotLoggingService}.
+ * <p>
+ * Loggers hand their records to a bounded ring buffer and return; a single daemon thread drains it in batches and
+ * publishes each record to its JUL logger and, if one is set, to the {@link JsonLogSink}, flushing the sink after
+ * each batch. Console and file I/O therefore never run on the logging thread. Records keep the time and thread they
+ * were logged at. When the buffer is full, debug and info records are dropped and counted, while warnings and
+ * errors wait up to {@value #WARN_WAIT_MILLIS} ms for room before they are dropped and counted too, so a stalled
+ * console cannot block the threads that log.
+ * <p>
+ * Records with an exception pass through an {@link ErrorThrottle} keyed by logger name before they are queued, so a
+ * logger that fails on every tick logs its stack trace once and then a rate-limited count of repeats. The writer
+ * thread summarizes the suppressed repeats.
+ */
+final class AsyncLogWriter
+{
+
+    private static final int BATCH_SIZE = 256;
+    private static final long WARN_WAIT_MILLIS = 50;
+
+    private final BlockingQueue<Entry> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong droppedWarnings = new AtomicLong();
+    private final Logger dropLogger;
+    private final Thread worker;
+    private volatile JsonLogSink sink;
+    private volatile ErrorThrottle errorThrottle = ErrorThrottle.builder().build();
+    private volatile boolean running = true;
+    private boolean sinkFailing;
+
+    /**
+     * Creates and starts a writer.
+     *
+     * @param capacity   the number of records the buffer holds
+     * @param threadName the writer thread's name
+     * @param dropLogger the logger that reports dropped records
+     */
+    AsyncLogWriter(int capacity, String threadName, Logger dropLogger)
+    {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.dropLogger = dropLogger;
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Gets the file sink records are also written to.
+     *
+     * @return the sink, or null if records only go to the console
+     */
+    JsonLogSink getSink()
+    {
+        return sink;
+    }
+
+    /**
+     * Sets the file sink records are also written to.
+     *
+     * @param sink the sink, or null to only log to the console
+     */
+    void setSink(JsonLogSink sink)
+    {
+        this.sink = sink;
+    }
+
+    /**
+     * Gets the throttle that limits how often records with an exception are logged.
+     *
+     * @return the throttle, or null if every record is logged
+     */
+    ErrorThrottle getErrorThrottle()
+    {
+        return errorThrottle;
+    }
+
+    /**
+     * Sets the throttle that limits how often records with an exception are logged.
+     *
+     * @param errorThrottle the throttle, or null to log every record
+     */
+    void setErrorThrottle(ErrorThrottle errorThrottle)
+    {
+        this.errorThrottle = errorThrottle;
+    }
+
+    /**
+     * Records an exception about to be logged.
+     *
+     * @param loggerName the name of the logger
+     * @param thrown     the exception
+     * @return how to log it, or null if it is suppressed
+     */
+    ErrorThrottle.Report checkError(String loggerName, Throwable thrown)
+    {
+        ErrorThrottle throttle = errorThrottle;
+        return throttle != null ? throttle.check(loggerName, thrown) : ErrorThrottle.Report.UNTHROTTLED;
+    }
+
+    /**
+     * Queues a record.
+     *
+     * @param target     the JUL logger to publish to, or null if the record is not logged to the console
+     * @param level      the record's level
+     * @param prefix     text to put before the console message, or null
+     * @param loggerName the name of the logger, for the file sink
+     * @param message    the message
+     * @param thrown     the exception, or null
+     * @param toSink     whether the record is written to the file sink
+     */
+    void write(Logger target, LogLevel level, String prefix, String loggerName, String message, Throwable thrown,
+               boolean toSink)
+    {
+        Thread thread = Thread.currentThread();
+        Entry entry = new Entry(target, level, prefix, loggerName, message, thrown, toSink,
+                System.currentTimeMillis(), thread.threadId(), thread.getName());
+        if (!running || Thread.currentThread() == worker)
+        {
+            // After shutdown, or from a handler on the writer thread itself, which must not wait on its own queue
+            publish(entry);
+            return;
+        }
+        if (queue.offer(entry))
+        {
+            return;
+        }
+
+        if (!level.isAtLeast(LogLevel.WARN))
+        {
+            dropped.incrementAndGet();
+            return;
+        }
+        try
+        {
+            if (!queue.offer(entry, WARN_WAIT_MILLIS, TimeUnit.MILLISECONDS))
+            {
+                dropped.incrementAndGet();
+                droppedWarnings.incrementAndGet();
+            }
+        } catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            publish(entry);
+        }
+    }
+
+    /**
+     * Gets the number of records waiting to be written.
+     *
+     * @return the number of queued records
+     */
+    int getQueuedRecords()
+    {
+        return queue.size();
+    }
+
+    /**
+     * Stops the writer once every queued record has been written, waiting up to the timeout for it to finish.
+     *
+     * @param timeout how long to wait
+     * @param unit    the unit of the timeout
+     */
+    void shutdown(long timeout, TimeUnit unit)
+    {
+        running = false;
+        try
+        {
+            worker.join(unit.toMillis(timeout));
+        } catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run()
+    {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !queue.isEmpty())
+        {
+            try
+            {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null)
+                {
+                    reportDropped();
+                    reportSuppressedErrors();
+                    flushSink();
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e)
+            {
+                break;
+            }
+
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            for (Entry entry : batch)
+            {
+                publish(entry);
+            }
+            batch.clear();
+            reportDropped();
+            reportSuppressedErrors();
+            flushSink();
+        }
+    }
+
+    private void flushSink()
+    {
+        JsonLogSink current = sink;
+        if (current != null)
+        {
+            try
+            {
+                current.flushIfDue();
+            } catch (RuntimeException e)
+            {
+                dropLogger.warning("Could not flush the log file: " + e);
+            }
+        }
+    }
+
+    private void reportDropped()
+    {
+        // Writers count a record in dropped first, so reading warnings first never reports more warnings than records
+        long warnings = droppedWarnings.getAndSet(0);
+        long count = dropped.getAndSet(0);
+        if (count > 0)
+        {
+            dropLogger.warning("Dropped " + count + " log records" + (warnings > 0 ? ", " + warnings
+                    + " of them warnings or errors," : "") + " because the log buffer was full");
+        }
+    }
+
+    private void reportSuppressedErrors()
+    {
+        ErrorThrottle throttle = errorThrottle;
+        if (throttle == null)
+        {
+            return;
+        }
+        for (ErrorThrottle.Summary summary : throttle.drainSummaries())
+        {
+            dropLogger.warning(String.format("Logger %s logged %s %d more times (%d in total)",
+                    summary.source(), summary.description(), summary.suppressed(), summary.total()));
+        }
+    }
+
+    private void publish(Entry entry)
+    {
+        JsonLogSink current = sink;
+        if (entry.toSink && current != null)
+        {
+            try
+            {
+                current.write(entry.millis, entry.level, entry.loggerName, entry.threadName, entry.message,
+                        entry.thrown);
+                sinkFailing = false;
+            } catch (IOException | RuntimeException e)
+            {
+                // Report the first failure only, a full disk would otherwise warn for every record
+                if (!sinkFailing)
+                {
+                    sinkFailing = true;
+                    dropLogger.warning("Could not write to the log file: " + e);
+                }
+            }
+        }
+
+        if (entry.target == null)
+        {
+            return;
+        }
+        Level level = toJulLevel(entry.level);
+        if (!entry.target.isLoggable(level))
+        {
+            return;
+        }
+
+        LogRecord record = new LogRecord(level, entry.prefix != null ? entry.prefix + entry.message : entry.message);
+        record.setLoggerName(entry.target.getName());
+        record.setInstant(Instant.ofEpochMilli(entry.millis));
+        record.setLongThreadID(entry.threadId);
+        record.setThrown(entry.thrown);
+        try
+        {
+            entry.target.log(record);
+        } catch (RuntimeException e)
+        {
+            // A failing handler must not stop the writer
+        }
+    }
+
+    /**
+     * Maps a Piston level to the JUL level it is logged at.
+     */
+    static Level toJulLevel(LogLevel level)
+    {
+        return switch (level)
+        {
+            case DEBUG -> Level.FINE;
+            case INFO -> Level.INFO;
+            case WARN -> Level.WARNING;
+            case ERROR, CRITICAL -> Level.SEVERE;
+        };
+    }
+
+    private record Entry(Logger target, LogLevel level, String prefix, String loggerName, String message,
+                         Throwable thrown, boolean toSink, long millis, long threadId, String threadName)
+    {
+    }
+}
@@ -0,0 +1,118 @@
+package org.pistonworks.core.spigot;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.pistonworks.core.api.model.CommandSender;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+
+/**
+ * Answers argument completion for Piston commands from Paper's asynchronous tab-complete event, which runs off the
+ * main thread and may wait for asynchronous completion sources up to the command service's completion timeout.
+ * <p>
+ * Only arguments with an asynchronous completion source are answered here. Everything else, including executors
+ * registered by name, synchronous @TabCompletion methods and the player and world completers, is left to the
+ * synchronous Bukkit path on the main thread, since those sources may use the server's API. Spigot has no such
+ * event, so there completions only go through the synchronous path, which never waits and falls back to cached
+ * results. The event is looked up reflectively so the plugin builds against the Spigot API.
+ */
+final class AsyncTabCompleteBridge implements Listener, EventExecutor
+{
+    private static final String EVENT_CLASS = "com.destroystokyo.paper.event.server.AsyncTabCompleteEvent";
+
+    private final SpigotCommandServiceImpl commandService;
+    private final Class<? extends Event> eventClass;
+    private final MethodHandle isCommand;
+    private final MethodHandle isHandled;
+    private final MethodHandle getBuffer;
+    private final MethodHandle getSender;
+    private final MethodHandle setCompletions;
+    private final MethodHandle setHandled;
+
+    private AsyncTabCompleteBridge(SpigotCommandServiceImpl commandService, Class<? extends Event> eventClass)
+            throws ReflectiveOperationException
+    {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        this.commandService = commandService;
+        this.eventClass = eventClass;
+        this.isCommand = lookup.findVirtual(eventClass, "isCommand", MethodType.methodType(boolean.class));
+        this.isHandled = lookup.findVirtual(eventClass, "isHandled", MethodType.methodType(boolean.class));
+        this.getBuffer = lookup.findVirtual(eventClass, "getBuffer", MethodType.methodType(String.class));
+        this.getSender = lookup.findVirtual(eventClass, "getSender",
+                MethodType.methodType(org.bukkit.command.CommandSender.class));
+        this.setCompletions = lookup.findVirtual(eventClass, "setCompletions",
+                MethodType.methodType(void.class, List.class));
+        this.setHandled = lookup.findVirtual(eventClass, "setHandled", MethodType.methodType(void.class, boolean.class));
+    }
+
+    /**
+     * Registers the bridge if the server provides Paper's asynchronous tab-complete event.
+     *
+     * @param plugin         the plugin to register the listener with
+     * @param commandService the command service answering completions
+     * @return true if the bridge was registered
+     */
+    static boolean register(JavaPlugin plugin, SpigotCommandServiceImpl commandService)
+    {
+        Class<? extends Event> eventClass;
+        try
+        {
+            eventClass = Class.forName(EVENT_CLASS).asSubclass(Event.class);
+        } catch (ClassNotFoundException | ClassCastException e)
+        {
+            return false;
+        }
+
+        try
+        {
+            AsyncTabCompleteBridge bridge = new AsyncTabCompleteBridge(commandService, eventClass);
+            plugin.getServer().getPluginManager().registerEvent(eventClass, bridge, EventPriority.NORMAL, bridge, plugin, true);
+            return true;
+        } catch (ReflectiveOperationException e)
+        {
+            plugin.getLogger().warning("Could not hook asynchronous tab completion: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void execute(Listener listener, Event event) throws EventException
+    {
+        if (!eventClass.isInstance(event))
+        {
+            return;
+        }
+
+        try
+        {
+            if ((boolean) isHandled.invoke(event) || !(boolean) isCommand.invoke(event))
+            {
+                return;
+            }
+
+            // Only asynchronous arguments of our own commands; command names are completed by the server
+            String buffer = (String) getBuffer.invoke(event);
+            String commandLine = buffer.startsWith("/") ? buffer.substring(1) : buffer;
+            if (!commandService.hasAsyncCompletions(commandLine))
+            {
+                return;
+            }
+
+            CommandSender sender = SpigotCommandServiceImpl.convertSender(
+                    (org.bukkit.command.CommandSender) getSender.invoke(event));
+            List<String> completions = commandService.getTabCompletionsAsync(sender, commandLine).join();
+            setCompletions.invoke(event, completions);
+            setHandled.invoke(event, true);
+        } catch (Throwable t)
+        {
+            throw new EventException(t);
+        }
+    }
+}
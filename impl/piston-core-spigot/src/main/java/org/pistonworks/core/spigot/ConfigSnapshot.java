@@ -0,0 +1,264 @@
+package org.pistonworks.core.spigot;
+
+import org.pistonworks.core.api.service.ConfigValues;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Immutable, pre-parsed view of a YAML document such as piston-core.yml.
+ * <p>
+ * The document is compiled once into a tree of read-only maps and lists, and every key and dotted path
+ * ({@code logging.file.enabled}) is resolved up front to a node, so a lookup is a single hash map access.
+ * Typed values are parsed the first time they are asked for and cached on the node, so repeated reads in hot paths
+ * neither walk the document nor parse strings again. A value that cannot be parsed is reported once and then
+ * answered with the caller's default.
+ */
+final class ConfigSnapshot
+{
+    private static final Object INVALID = new Object();
+
+    private final Map<String, Object> root;
+    private final Map<String, Node> nodes;
+    private final Logger logger;
+
+    /**
+     * Compiles a snapshot of a document.
+     *
+     * @param document the document as loaded by SnakeYAML, or null for an empty one
+     * @param logger   the logger that reports values of the wrong type
+     */
+    ConfigSnapshot(Map<?, ?> document, Logger logger)
+    {
+        this.logger = logger;
+        Map<String, Node> nodes = new HashMap<>();
+        this.root = document != null ? freezeMap(document) : Map.of();
+
+        // Top-level keys first, so a key that contains a dot wins over the nested path it looks like
+        for (Map.Entry<String, Object> entry : root.entrySet())
+        {
+            nodes.put(entry.getKey(), new Node(entry.getKey(), entry.getValue()));
+        }
+        for (Map.Entry<String, Object> entry : root.entrySet())
+        {
+            indexChildren(entry.getKey(), entry.getValue(), nodes);
+        }
+        this.nodes = nodes;
+    }
+
+    private void indexChildren(String path, Object value, Map<String, Node> nodes)
+    {
+        if (!(value instanceof Map<?, ?> section))
+        {
+            return;
+        }
+        for (Map.Entry<?, ?> entry : section.entrySet())
+        {
+            String childPath = path + '.' + entry.getKey();
+            nodes.putIfAbsent(childPath, new Node(childPath, entry.getValue()));
+            indexChildren(childPath, entry.getValue(), nodes);
+        }
+    }
+
+    /**
+     * Copies SnakeYAML's mutable maps and lists into read-only ones, with string keys.
+     */
+    private static Map<String, Object> freezeMap(Map<?, ?> map)
+    {
+        Map<String, Object> frozen = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : map.entrySet())
+        {
+            frozen.put(String.valueOf(entry.getKey()), freeze(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    private static Object freeze(Object value)
+    {
+        if (value instanceof Map<?, ?> map)
+        {
+            return freezeMap(map);
+        }
+        if (value instanceof List<?> list)
+        {
+            // List.copyOf would reject the nulls YAML lists may hold
+            List<Object> frozen = new ArrayList<>(list.size());
+            for (Object element : list)
+            {
+                frozen.add(freeze(element));
+            }
+            return Collections.unmodifiableList(frozen);
+        }
+        return value;
+    }
+
+    /**
+     * Gets the document's top-level keys and values.
+     *
+     * @return a read-only map
+     */
+    Map<String, Object> getRoot()
+    {
+        return root;
+    }
+
+    /**
+     * Checks whether a key or dotted path is present, even if its value is null.
+     *
+     * @param path the key or path
+     * @return true if present
+     */
+    boolean contains(String path)
+    {
+        return nodes.containsKey(path);
+    }
+
+    /**
+     * Gets the value at a key or dotted path.
+     *
+     * @param path the key or path
+     * @return the value, or null if there is none
+     */
+    Object getValue(String path)
+    {
+        Node node = nodes.get(path);
+        return node != null ? node.value : null;
+    }
+
+    long getLong(String path, long defaultValue)
+    {
+        Node node = nodes.get(path);
+        if (node == null || node.value == null)
+        {
+            return defaultValue;
+        }
+        Object number = node.number();
+        return number instanceof Long value ? value : defaultValue;
+    }
+
+    int getInt(String path, int defaultValue)
+    {
+        Node node = nodes.get(path);
+        if (node == null || node.value == null)
+        {
+            return defaultValue;
+        }
+        Object number = node.number();
+        if (number instanceof Long value && value == value.intValue())
+        {
+            return value.intValue();
+        }
+        if (number instanceof Long)
+        {
+            node.reportOnce("an integer");
+        }
+        return defaultValue;
+    }
+
+    Duration getDuration(String path, Duration defaultValue)
+    {
+        Node node = nodes.get(path);
+        if (node == null || node.value == null)
+        {
+            return defaultValue;
+        }
+        Object duration = node.duration();
+        return duration instanceof Duration value ? value : defaultValue;
+    }
+
+    List<String> getStringList(String path)
+    {
+        Node node = nodes.get(path);
+        return node != null ? node.strings() : List.of();
+    }
+
+    /**
+     * A value in the document, with the typed forms it has been read as so far.
+     * The typed forms are computed at most once per racing thread and are immutable, so they need no locking.
+     */
+    private final class Node
+    {
+        private final String path;
+        private final Object value;
+        private Object number;
+        private Object duration;
+        private List<String> strings;
+        private boolean reported;
+
+        private Node(String path, Object value)
+        {
+            this.path = path;
+            this.value = value;
+        }
+
+        private Object number()
+        {
+            Object cached = number;
+            if (cached == null)
+            {
+                cached = parseNumber();
+                number = cached;
+            }
+            return cached;
+        }
+
+        private Object parseNumber()
+        {
+            Long parsed = ConfigValues.toLong(value);
+            if (parsed == null)
+            {
+                reportOnce("a whole number");
+                return INVALID;
+            }
+            return parsed;
+        }
+
+        private Object duration()
+        {
+            Object cached = duration;
+            if (cached == null)
+            {
+                cached = parseDuration();
+                duration = cached;
+            }
+            return cached;
+        }
+
+        private Object parseDuration()
+        {
+            Duration parsed = ConfigValues.toDuration(value);
+            if (parsed == null)
+            {
+                reportOnce("a duration");
+                return INVALID;
+            }
+            return parsed;
+        }
+
+        private List<String> strings()
+        {
+            List<String> cached = strings;
+            if (cached == null)
+            {
+                cached = ConfigValues.toStrings(value);
+                strings = cached;
+            }
+            return cached;
+        }
+
+        private void reportOnce(String expected)
+        {
+            if (!reported)
+            {
+                reported = true;
+                logger.warning("Property '" + path + "' is not " + expected + ": " + value);
+            }
+        }
+    }
+}
@@ -6,6 +6,8 @@ import org.pistonworks.core.api.logging.Logger;
 import org.pistonworks.core.api.plugin.PistonPlugin;
 import org.pistonworks.core.api.service.CommandService;
 import org.pistonworks.core.api.service.EventService;
+import org.pistonworks.core.common.event.EventMetricsCommands;
+import org.pistonworks.core.common.event.EventServiceImpl;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.InputStream;
@@ -47,6 +49,13 @@ public final class PistonCoreSpigotPlugin extends JavaPlugin
         // Get Piston Core logger
         logger = PistonCore.getLoggingService().getLogger(PistonCoreSpigotPlugin.class);
 
+        // Built-in diagnostics commands
+        if (services.getEventService() instanceof EventServiceImpl eventService)
+        {
+            services.getCommandService().registerCommands(
+                    new EventMetricsCommands(eventService, getDataFolder().toPath()));
+        }
+
         // Create SpigotPlugin wrapper
         spigotPlugin = new SpigotPlugin(this);
 
@@ -86,6 +95,13 @@ public final class PistonCoreSpigotPlugin extends JavaPlugin
             }
         }
 
+        // Let queued async events finish and stop the dispatcher threads
+        if (services != null && services.getEventService() instanceof EventServiceImpl eventService)
+        {
+            eventService.shutdown();
+        }
+
+        SpigotWrapperCache.clear();
         instance = null;
         if (logger != null)
         {
@@ -94,6 +110,12 @@ public final class PistonCoreSpigotPlugin extends JavaPlugin
         {
             getLogger().info("Piston Core Spigot implementation disabled!");
         }
+
+        // Write out queued log records and stop the writer thread
+        if (services != null && services.getLoggingService() instanceof SpigotLoggingService loggingService)
+        {
+            loggingService.shutdown();
+        }
     }
 
     private void loadUserPlugin() throws Exception
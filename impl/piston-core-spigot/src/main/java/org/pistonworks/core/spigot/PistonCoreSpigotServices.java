@@ -31,10 +31,15 @@ public final class PistonCoreSpigotServices implements PistonCoreServices
         this.plugin = plugin;
         this.spigotPlugin = new SpigotPlugin(plugin);
         this.commandService = new SpigotCommandServiceImpl(plugin);
-        this.eventService = new SpigotEventServiceImpl(spigotPlugin);
+        SpigotEventServiceImpl spigotEventService = new SpigotEventServiceImpl(spigotPlugin);
+        this.eventService = spigotEventService;
         this.lifecycleService = new SpigotLifecycleServiceImpl(plugin);
-        this.loggingService = new SpigotLoggingService(plugin);
+        SpigotLoggingService spigotLoggingService = new SpigotLoggingService(plugin);
+        this.loggingService = spigotLoggingService;
         this.pluginMetadataService = new SpigotPluginMetadataService(plugin);
+        spigotLoggingService.configureFileSink(pluginMetadataService.getProperty("logging").orElse(null));
+        spigotEventService.configureWatchdog(pluginMetadataService.getProperty("events").orElse(null));
+        SpigotWrapperCache.registerInvalidationListener(plugin);
 
         // Initialize plugin discovery service - no longer needs directory parameters
         // since it just manages plugin instances, not file loading
@@ -0,0 +1,206 @@
+package org.pistonworks.core.spigot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted, case-insensitive index of player names, kept up to date from join and quit events instead of being
+ * rebuilt from the server's player list on every completion.
+ * <p>
+ * Online players are always indexed. Players known to the server but offline can be indexed as well, so that
+ * {@link org.pistonworks.core.api.command.Arg.CompletionType#PLAYER PLAYER} arguments complete their names too.
+ * Lookups and prefix queries cost the logarithm of the number of names, plus the number of names returned.
+ * Updates are expected on the main thread; reads are safe from any thread.
+ */
+final class PlayerNameIndex
+{
+    private final NavigableMap<String, PlayerName> online = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, PlayerName> known = new ConcurrentSkipListMap<>();
+    private final Map<UUID, String> knownKeys = new ConcurrentHashMap<>();
+    private final boolean trackKnown;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param trackKnown whether to also index players who are offline
+     */
+    PlayerNameIndex(boolean trackKnown)
+    {
+        this.trackKnown = trackKnown;
+    }
+
+    /**
+     * Indexes a player who joined.
+     *
+     * @param uuid the player's unique id
+     * @param name the player's current name
+     */
+    void playerJoined(UUID uuid, String name)
+    {
+        online.put(key(name), new PlayerName(name, uuid));
+        playerKnown(uuid, name);
+    }
+
+    /**
+     * Removes a player who quit from the online players. They stay known if offline players are indexed.
+     *
+     * @param uuid the player's unique id
+     * @param name the player's name
+     */
+    void playerQuit(UUID uuid, String name)
+    {
+        PlayerName entry = online.get(key(name));
+        if (entry != null && entry.uuid().equals(uuid))
+        {
+            online.remove(key(name), entry);
+        }
+    }
+
+    /**
+     * Indexes a player known to the server, replacing the entry for their previous name if they were renamed.
+     * Has no effect unless offline players are indexed.
+     *
+     * @param uuid the player's unique id
+     * @param name the player's last known name
+     */
+    void playerKnown(UUID uuid, String name)
+    {
+        if (!trackKnown || name == null)
+        {
+            return;
+        }
+
+        String key = key(name);
+        known.put(key, new PlayerName(name, uuid));
+        String previous = knownKeys.put(uuid, key);
+        if (previous != null && !previous.equals(key))
+        {
+            known.computeIfPresent(previous, (k, entry) -> entry.uuid().equals(uuid) ? null : entry);
+        }
+    }
+
+    /**
+     * Indexes a player known to the server unless they are already indexed, for names loaded in bulk that may be
+     * older than the ones seen since, such as the server's offline players.
+     * Has no effect unless offline players are indexed.
+     *
+     * @param uuid the player's unique id
+     * @param name the player's last known name
+     */
+    void playerKnownIfAbsent(UUID uuid, String name)
+    {
+        if (trackKnown && name != null && !knownKeys.containsKey(uuid))
+        {
+            playerKnown(uuid, name);
+        }
+    }
+
+    /**
+     * Gets the names of online players starting with a prefix, ignoring case.
+     *
+     * @param prefix the prefix typed so far
+     * @param limit  the maximum number of names to return
+     * @return the matching names in alphabetical order
+     */
+    List<String> getOnlineNames(String prefix, int limit)
+    {
+        return names(online, prefix, limit);
+    }
+
+    /**
+     * Gets the names of online and offline players starting with a prefix, ignoring case.
+     * Only online players are returned if offline players are not indexed.
+     *
+     * @param prefix the prefix typed so far
+     * @param limit  the maximum number of names to return
+     * @return the matching names in alphabetical order
+     */
+    List<String> getKnownNames(String prefix, int limit)
+    {
+        return names(trackKnown ? known : online, prefix, limit);
+    }
+
+    /**
+     * Resolves a name to an online player the way Bukkit's {@code Server.getPlayer(String)} does: an exact match
+     * ignoring case, otherwise the player whose name starts with it and is closest to it in length.
+     *
+     * @param name the full or partial name
+     * @return the player's unique id, or null if no online player matches
+     */
+    UUID findOnline(String name)
+    {
+        String key = key(name);
+        PlayerName exact = online.get(key);
+        if (exact != null)
+        {
+            return exact.uuid();
+        }
+
+        PlayerName closest = null;
+        for (PlayerName candidate : range(online, key).values())
+        {
+            if (closest == null || candidate.name().length() < closest.name().length())
+            {
+                closest = candidate;
+            }
+        }
+        return closest != null ? closest.uuid() : null;
+    }
+
+    /**
+     * Resolves an exact name, ignoring case, to an online or known player.
+     *
+     * @param name the player's name
+     * @return the player's unique id, or null if no player with that name is indexed
+     */
+    UUID getKnownUuid(String name)
+    {
+        PlayerName entry = online.get(key(name));
+        if (entry == null && trackKnown)
+        {
+            entry = known.get(key(name));
+        }
+        return entry != null ? entry.uuid() : null;
+    }
+
+    private static List<String> names(NavigableMap<String, PlayerName> index, String prefix, int limit)
+    {
+        Map<String, PlayerName> matches = prefix.isEmpty() ? index : range(index, key(prefix));
+        if (matches.isEmpty())
+        {
+            return Collections.emptyList();
+        }
+
+        List<String> names = new ArrayList<>(Math.min(limit, 16));
+        for (PlayerName entry : matches.values())
+        {
+            if (names.size() >= limit)
+            {
+                break;
+            }
+            names.add(entry.name());
+        }
+        return names;
+    }
+
+    private static NavigableMap<String, PlayerName> range(NavigableMap<String, PlayerName> index, String key)
+    {
+        return index.subMap(key, true, key + Character.MAX_VALUE, false);
+    }
+
+    private static String key(String name)
+    {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private record PlayerName(String name, UUID uuid)
+    {
+    }
+}
@@ -1,26 +1,49 @@
 package org.pistonworks.core.spigot;
 
-import org.bukkit.Location;
-import org.bukkit.event.EventHandler;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.pistonworks.core.api.event.Event;
 import org.pistonworks.core.api.event.playerevent.PlayerChatEvent;
-import org.pistonworks.core.api.model.Orientation;
-import org.pistonworks.core.api.model.Position;
 import org.pistonworks.core.common.event.EventFactory;
 import org.pistonworks.core.common.event.EventServiceImpl;
+import org.pistonworks.core.common.event.ListenerWatchdog;
 import org.pistonworks.core.common.event.RegisteredListener;
+import org.pistonworks.core.common.event.playerevent.PlayerChatEventImpl;
+import org.pistonworks.core.common.event.playerevent.PlayerJoinEventImpl;
+import org.pistonworks.core.common.event.playerevent.PlayerQuitEventImpl;
+import org.pistonworks.core.common.logging.ErrorThrottle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
 
 /**
  * Minimal Spigot event service implementation.
  * This class only handles platform-specific event bridging - all logic is in common/api.
+ * <p>
+ * Each Bukkit event is bridged by its own {@link EventBridge}, which is only registered with Bukkit
+ * while at least one Piston listener would receive the converted event. Bridges are registered and
+ * unregistered on the main thread, since Bukkit's handler lists are not meant to change anywhere else.
  */
-public class SpigotEventServiceImpl extends EventServiceImpl implements Listener
+public class SpigotEventServiceImpl extends EventServiceImpl
 {
 
+    private static final long SUMMARY_PERIOD_TICKS = 20L * 60;
+
     private final SpigotPlugin plugin;
+    private final List<EventBridge<?>> bridges;
+    private final AtomicBoolean bridgeUpdatePending = new AtomicBoolean();
 
     /**
      * Creates a new SpigotEventServiceImpl instance.
@@ -30,8 +53,101 @@ public class SpigotEventServiceImpl extends EventServiceImpl implements Listener
     public SpigotEventServiceImpl(SpigotPlugin plugin)
     {
         this.plugin = plugin;
-        // Register this as a Bukkit listener to bridge platform events
-        plugin.getBukkitPlugin().getServer().getPluginManager().registerEvents(this, plugin.getBukkitPlugin());
+        this.bridges = List.of(
+                new EventBridge<>(PlayerJoinEvent.class, PlayerJoinEventImpl.class, this::onPlayerJoin),
+                new EventBridge<>(PlayerQuitEvent.class, PlayerQuitEventImpl.class, this::onPlayerQuit),
+                new EventBridge<>(AsyncPlayerChatEvent.class, PlayerChatEventImpl.class, this::onPlayerChat),
+                new EventBridge<>(org.bukkit.event.player.PlayerMoveEvent.class, SpigotPlayerMoveEvent.class,
+                        this::onPlayerMove));
+
+        // Summarize throttled listener errors even after the failing listener goes quiet
+        plugin.getBukkitPlugin().getServer().getScheduler().runTaskTimerAsynchronously(plugin.getBukkitPlugin(),
+                this::reportSuppressedListenerErrors, SUMMARY_PERIOD_TICKS, SUMMARY_PERIOD_TICKS);
+    }
+
+    /**
+     * Installs the slow-listener watchdog from the {@code events.watchdog} section of piston-core.yml, if it is
+     * enabled there. Timing every listener call has a cost, so the watchdog is off unless configured:
+     * <pre>
+     * events:
+     *   watchdog:
+     *     enabled: true
+     *     listener-threshold-ms: 5
+     *     dispatch-budget-ms: 25
+     *     strike-limit: 3
+     *     strike-window-seconds: 60
+     *     action: LOG          # LOG, DEMOTE or DISABLE
+     * </pre>
+     *
+     * @param events the {@code events} section, or null if there is none
+     */
+    void configureWatchdog(Object events)
+    {
+        if (!(events instanceof Map<?, ?> eventsSection)
+                || !(eventsSection.get("watchdog") instanceof Map<?, ?> watchdog)
+                || !Boolean.TRUE.equals(watchdog.get("enabled")))
+        {
+            return;
+        }
+
+        try
+        {
+            ListenerWatchdog.Builder builder = ListenerWatchdog.builder();
+            if (watchdog.get("listener-threshold-ms") instanceof Number threshold)
+            {
+                builder.listenerThreshold(Duration.ofMillis(threshold.longValue()));
+            }
+            if (watchdog.get("dispatch-budget-ms") instanceof Number budget)
+            {
+                builder.dispatchBudget(Duration.ofMillis(budget.longValue()));
+            }
+            if (watchdog.get("strike-limit") instanceof Number strikeLimit)
+            {
+                builder.strikeLimit(strikeLimit.intValue());
+            }
+            if (watchdog.get("strike-window-seconds") instanceof Number strikeWindow)
+            {
+                builder.strikeWindow(Duration.ofSeconds(strikeWindow.longValue()));
+            }
+            if (watchdog.get("action") != null)
+            {
+                builder.action(ListenerWatchdog.Action.valueOf(
+                        watchdog.get("action").toString().trim().toUpperCase(Locale.ROOT)));
+            }
+            setWatchdog(builder.build());
+        } catch (IllegalArgumentException e)
+        {
+            plugin.getBukkitPlugin().getLogger().warning("Could not set up the listener watchdog: " + e.getMessage());
+        }
+    }
+
+    @Override
+    protected void onListenersChanged()
+    {
+        if (Bukkit.isPrimaryThread())
+        {
+            updateBridges();
+            return;
+        }
+
+        // Changes made on other threads are applied by one main thread task, which reads the latest listeners
+        JavaPlugin bukkitPlugin = plugin.getBukkitPlugin();
+        if (bukkitPlugin.isEnabled() && bridgeUpdatePending.compareAndSet(false, true))
+        {
+            bukkitPlugin.getServer().getScheduler().runTask(bukkitPlugin, () ->
+            {
+                bridgeUpdatePending.set(false);
+                updateBridges();
+            });
+        }
+    }
+
+    private void updateBridges()
+    {
+        for (EventBridge<?> bridge : bridges)
+        {
+            bridge.update(hasListeners(bridge.pistonEventClass));
+        }
     }
 
     // ===== BUKKIT EVENT BRIDGES =====
@@ -42,10 +158,9 @@ public class SpigotEventServiceImpl extends EventServiceImpl implements Listener
      *
      * @param bukkitEvent The Bukkit PlayerJoinEvent
      */
-    @EventHandler
-    public void onPlayerJoin(PlayerJoinEvent bukkitEvent)
+    private void onPlayerJoin(PlayerJoinEvent bukkitEvent)
     {
-        SpigotPlayer player = new SpigotPlayer(bukkitEvent.getPlayer());
+        SpigotPlayer player = SpigotWrapperCache.player(bukkitEvent.getPlayer());
         org.pistonworks.core.api.event.playerevent.PlayerJoinEvent pistonEvent =
                 EventFactory.createPlayerJoinEvent(player, bukkitEvent.getJoinMessage());
 
@@ -60,10 +175,9 @@ public class SpigotEventServiceImpl extends EventServiceImpl implements Listener
      *
      * @param bukkitEvent The Bukkit PlayerQuitEvent
      */
-    @EventHandler
-    public void onPlayerQuit(PlayerQuitEvent bukkitEvent)
+    private void onPlayerQuit(PlayerQuitEvent bukkitEvent)
     {
-        SpigotPlayer player = new SpigotPlayer(bukkitEvent.getPlayer());
+        SpigotPlayer player = SpigotWrapperCache.player(bukkitEvent.getPlayer());
         org.pistonworks.core.api.event.playerevent.PlayerQuitEvent pistonEvent =
                 EventFactory.createPlayerQuitEvent(player, bukkitEvent.getQuitMessage());
 
@@ -78,10 +192,9 @@ public class SpigotEventServiceImpl extends EventServiceImpl implements Listener
      *
      * @param bukkitEvent The Bukkit AsyncPlayerChatEvent
      */
-    @EventHandler
-    public void onPlayerChat(AsyncPlayerChatEvent bukkitEvent)
+    private void onPlayerChat(AsyncPlayerChatEvent bukkitEvent)
     {
-        SpigotPlayer player = new SpigotPlayer(bukkitEvent.getPlayer());
+        SpigotPlayer player = SpigotWrapperCache.player(bukkitEvent.getPlayer());
         PlayerChatEvent pistonEvent = EventFactory.createPlayerChatEvent(
                 player, bukkitEvent.getMessage(), bukkitEvent.getFormat());
 
@@ -95,11 +208,12 @@ public class SpigotEventServiceImpl extends EventServiceImpl implements Listener
 
     /**
      * Handles Bukkit PlayerMoveEvent and bridges it to Piston Core.
+     * Moves are wrapped without converting locations up front, since this fires for every player
+     * on every tick they move.
      *
      * @param bukkitEvent The Bukkit PlayerMoveEvent
      */
-    @EventHandler
-    public void onPlayerMove(org.bukkit.event.player.PlayerMoveEvent bukkitEvent)
+    private void onPlayerMove(org.bukkit.event.player.PlayerMoveEvent bukkitEvent)
     {
         // Null safety checks
         if (bukkitEvent.getTo() == null)
@@ -107,14 +221,7 @@ public class SpigotEventServiceImpl extends EventServiceImpl implements Listener
             return;
         }
 
-        SpigotPlayer player = new SpigotPlayer(bukkitEvent.getPlayer());
-        Position newPosition = convertLocationToPosition(bukkitEvent.getTo());
-        Position oldPosition = convertLocationToPosition(bukkitEvent.getFrom());
-        Orientation newOrientation = convertLocationToOrientation(bukkitEvent.getTo());
-        Orientation oldOrientation = convertLocationToOrientation(bukkitEvent.getFrom());
-
-        org.pistonworks.core.api.event.playerevent.PlayerMoveEvent pistonEvent =
-                EventFactory.createPlayerMoveEvent(player, newPosition, oldPosition, newOrientation, oldOrientation);
+        SpigotPlayerMoveEvent pistonEvent = new SpigotPlayerMoveEvent(bukkitEvent);
 
         fireEvent(pistonEvent);
 
@@ -125,32 +232,104 @@ public class SpigotEventServiceImpl extends EventServiceImpl implements Listener
         }
     }
 
-    // ===== HELPER METHODS =====
+    @Override
+    protected void handleListenerException(RegisteredListener listener,
+                                           org.pistonworks.core.api.event.Event event, Exception exception,
+                                           ErrorThrottle.Report report)
+    {
+        // Use Bukkit's logging system, with the stack trace only for the first occurrence of an error
+        plugin.getBukkitPlugin().getLogger().log(Level.SEVERE, String.format(
+                "Error in event listener %s from plugin %s handling event %s: %s%s",
+                listener.describe(), getOwningPlugin(listener), event.getEventName(), exception,
+                report.describeRepeats()), report.first() ? exception : null);
+    }
 
-    /**
-     * Converts a Bukkit Location to a Piston Core Position.
-     */
-    private Position convertLocationToPosition(Location location)
+    @Override
+    protected void handleSuppressedListenerErrors(ErrorThrottle.Summary summary)
+    {
+        plugin.getBukkitPlugin().getLogger().warning(String.format(
+                "Event listener %s threw %s %d more times (%d in total)",
+                summary.source(), summary.description(), summary.suppressed(), summary.total()));
+    }
+
+    @Override
+    protected void handleSlowListener(RegisteredListener listener, org.pistonworks.core.api.event.Event event,
+                                      long nanos, int strikes, ListenerWatchdog.Action action)
+    {
+        plugin.getBukkitPlugin().getLogger().warning(String.format(
+                "Slow event listener %s from plugin %s took %.2f ms handling %s (%d slow calls)%s",
+                listener.describe(), getOwningPlugin(listener), nanos / 1_000_000.0, event.getEventName(),
+                strikes, describeAction(action)));
+    }
+
+    @Override
+    protected void handleSlowDispatch(org.pistonworks.core.api.event.Event event, long nanos,
+                                      RegisteredListener slowest, long slowestNanos)
     {
-        SpigotWorld world = new SpigotWorld(location.getWorld());
-        return new Position(world, location.getX(), location.getY(), location.getZ());
+        plugin.getBukkitPlugin().getLogger().warning(String.format(
+                "Dispatching %s took %.2f ms, slowest listener: %s from plugin %s (%.2f ms)",
+                event.getEventName(), nanos / 1_000_000.0,
+                slowest != null ? slowest.describe() : "none",
+                slowest != null ? getOwningPlugin(slowest) : "none", slowestNanos / 1_000_000.0));
     }
 
     /**
-     * Converts a Bukkit Location to a Piston Core Orientation.
+     * Finds the name of the Bukkit plugin whose class loader loaded a listener.
      */
-    private Orientation convertLocationToOrientation(Location location)
+    private static String getOwningPlugin(RegisteredListener listener)
     {
-        return new Orientation(location.getYaw(), location.getPitch());
+        try
+        {
+            return JavaPlugin.getProvidingPlugin(listener.getListener().getClass()).getName();
+        } catch (IllegalArgumentException | IllegalStateException e)
+        {
+            return "unknown";
+        }
     }
 
-    @Override
-    protected void handleListenerException(RegisteredListener listener,
-                                           org.pistonworks.core.api.event.Event event, Exception exception)
+    /**
+     * Bridges a single Bukkit event type to Piston Core.
+     * The bridge is registered with Bukkit's plugin manager on demand and unregistered again
+     * once nothing listens for the Piston event it produces.
+     *
+     * @param <B> the Bukkit event type
+     */
+    private final class EventBridge<B extends org.bukkit.event.Event> implements Listener, EventExecutor
     {
-        // Use Bukkit's logging system
-        plugin.getBukkitPlugin().getLogger().severe(String.format("Error in event listener %s handling event %s: %s",
-                listener.getClass().getSimpleName(), event.getEventName(), exception.getMessage()));
-        exception.printStackTrace();
+        private final Class<B> bukkitEventClass;
+        private final Class<? extends Event> pistonEventClass;
+        private final Consumer<B> handler;
+        private boolean registered;
+
+        private EventBridge(Class<B> bukkitEventClass, Class<? extends Event> pistonEventClass, Consumer<B> handler)
+        {
+            this.bukkitEventClass = bukkitEventClass;
+            this.pistonEventClass = pistonEventClass;
+            this.handler = handler;
+        }
+
+        private void update(boolean needed)
+        {
+            if (needed && !registered)
+            {
+                plugin.getBukkitPlugin().getServer().getPluginManager().registerEvent(
+                        bukkitEventClass, this, EventPriority.NORMAL, this, plugin.getBukkitPlugin());
+                registered = true;
+            } else if (!needed && registered)
+            {
+                HandlerList.unregisterAll(this);
+                registered = false;
+            }
+        }
+
+        @Override
+        public void execute(Listener listener, org.bukkit.event.Event event)
+        {
+            // Bukkit also hands us subclasses of the registered event type
+            if (bukkitEventClass.isInstance(event))
+            {
+                handler.accept(bukkitEventClass.cast(event));
+            }
+        }
     }
 }
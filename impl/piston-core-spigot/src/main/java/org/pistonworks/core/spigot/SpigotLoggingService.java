@@ -1,21 +1,45 @@
 package org.pistonworks.core.spigot;
 
+import org.pistonworks.core.api.logging.LogLevel;
 import org.pistonworks.core.api.logging.Logger;
 import org.pistonworks.core.api.service.LoggingService;
+import org.pistonworks.core.common.logging.ErrorThrottle;
+import org.pistonworks.core.common.logging.JsonLogSink;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
 import java.util.Map;
-import java.util.logging.Level;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Spigot implementation of the LoggingService.
  * Provides logging functionality using Bukkit's logging system.
+ * <p>
+ * Records are written to the console, and optionally to a structured {@link JsonLogSink}, by a background thread
+ * (see {@link AsyncLogWriter}), so logging costs the caller a level check and a queue insertion. The file sink has
+ * its own per-class levels, so debug logging can go to the file while the console stays at INFO. Disabled levels are
+ * rejected before anything is formatted or queued.
+ * Loggers are cached per class in a {@link ClassValue}, so {@link #getLogger} is safe to call from any thread and a
+ * repeated lookup reads the logger stored on the class without locking or hashing.
  */
 public class SpigotLoggingService implements LoggingService
 {
 
-    private final Map<Class<?>, Logger> loggers = new HashMap<>();
+    private static final String CORE_PREFIX = "[Piston Core] ";
+
+    private final ClassValue<Logger> loggers = new ClassValue<>()
+    {
+        @Override
+        protected Logger computeValue(Class<?> type)
+        {
+            return createLogger(type);
+        }
+    };
     private final org.bukkit.plugin.Plugin plugin;
+    private final java.util.logging.Logger serverLogger = java.util.logging.Logger.getLogger("Minecraft");
+    private final AsyncLogWriter writer;
 
     /**
      * Creates a new SpigotLoggingService instance.
@@ -25,83 +49,269 @@ public class SpigotLoggingService implements LoggingService
     public SpigotLoggingService(org.bukkit.plugin.Plugin plugin)
     {
         this.plugin = plugin;
+        this.writer = new AsyncLogWriter(8192, "Piston Log Writer", plugin.getLogger());
     }
 
     @Override
     public Logger getLogger(Class<?> clazz)
     {
-        return loggers.computeIfAbsent(clazz, c ->
+        return loggers.get(clazz);
+    }
+
+    private Logger createLogger(Class<?> clazz)
+    {
+        // Determine if this is a Piston Core class or user plugin class
+        boolean isPistonCore = clazz.getPackageName().startsWith("org.pistonworks.core");
+
+        if (isPistonCore)
         {
-            // Determine if this is a Piston Core class or user plugin class
-            boolean isPistonCore = c.getPackage() != null && c.getPackage().getName().startsWith("org.pistonworks.core");
+            // For Piston Core, log to the server console directly to avoid double prefixes
+            return new SpigotLogger(serverLogger, CORE_PREFIX, clazz.getName(), writer);
+        } else
+        {
+            // For user plugin classes, use the plugin's logger and let Bukkit handle the prefixing
+            return new SpigotLogger(plugin.getLogger(), null, clazz.getName(), writer);
+        }
+    }
 
-            if (isPistonCore)
+    /**
+     * Sets the structured log file that records are written to besides the console, closing the previous one.
+     *
+     * @param sink the sink, or null to only log to the console
+     */
+    public void setFileSink(JsonLogSink sink)
+    {
+        JsonLogSink previous = writer.getSink();
+        writer.setSink(sink);
+        closeSink(previous);
+    }
+
+    /**
+     * Gets the structured log file that records are written to besides the console.
+     *
+     * @return the sink, or null if records only go to the console
+     */
+    public JsonLogSink getFileSink()
+    {
+        return writer.getSink();
+    }
+
+    /**
+     * Sets the throttle that limits how often records with an exception are logged. A logger that keeps logging
+     * the same exception logs its stack trace once, then the message with a count of repeats at the throttle's
+     * rate, and a summary of the rest. Every record is logged in full without a throttle.
+     *
+     * @param errorThrottle the throttle, or null to log every record
+     */
+    public void setErrorThrottle(ErrorThrottle errorThrottle)
+    {
+        writer.setErrorThrottle(errorThrottle);
+    }
+
+    /**
+     * Gets the throttle that limits how often records with an exception are logged.
+     *
+     * @return the throttle, or null if every record is logged
+     */
+    public ErrorThrottle getErrorThrottle()
+    {
+        return writer.getErrorThrottle();
+    }
+
+    /**
+     * Sets up the log file from the {@code logging.file} section of piston-core.yml, if it is enabled there:
+     * <pre>
+     * logging:
+     *   file:
+     *     enabled: true
+     *     directory: logs          # relative to the plugin's data folder
+     *     name: piston
+     *     max-file-size-mb: 16
+     *     max-files: 5
+     *     flush-interval-ms: 1000
+     *     level: INFO
+     *     levels:
+     *       com.example.myplugin: DEBUG
+     * </pre>
+     *
+     * @param logging the {@code logging} section, or null if there is none
+     */
+    void configureFileSink(Object logging)
+    {
+        if (!(logging instanceof Map<?, ?> loggingSection) || !(loggingSection.get("file") instanceof Map<?, ?> file)
+                || !Boolean.TRUE.equals(file.get("enabled")))
+        {
+            return;
+        }
+
+        try
+        {
+            Object directory = file.get("directory");
+            Path dataFolder = plugin.getDataFolder().toPath();
+            JsonLogSink.Builder builder = JsonLogSink.builder(
+                    dataFolder.resolve(directory != null ? directory.toString() : "logs"));
+            if (file.get("name") != null)
             {
-                // For Piston Core classes, create a custom logger with "Piston Core" name
-                java.util.logging.Logger coreLogger = java.util.logging.Logger.getLogger("Piston Core");
-                return new SpigotLogger(coreLogger, true);
-            } else
+                builder.name(file.get("name").toString());
+            }
+            if (file.get("max-file-size-mb") instanceof Number size)
             {
-                // For user plugin classes, use the plugin's logger directly
-                return new SpigotLogger(plugin.getLogger(), false);
+                builder.maxFileSize(size.longValue() * 1024 * 1024);
             }
-        });
+            if (file.get("max-files") instanceof Number files)
+            {
+                builder.maxFiles(files.intValue());
+            }
+            if (file.get("flush-interval-ms") instanceof Number interval)
+            {
+                builder.flushInterval(Duration.ofMillis(interval.longValue()));
+            }
+            if (file.get("level") != null)
+            {
+                builder.level(parseLevel(file.get("level")));
+            }
+            if (file.get("levels") instanceof Map<?, ?> levels)
+            {
+                for (Map.Entry<?, ?> level : levels.entrySet())
+                {
+                    builder.level(level.getKey().toString(), parseLevel(level.getValue()));
+                }
+            }
+            setFileSink(builder.build());
+        } catch (IOException | IllegalArgumentException e)
+        {
+            plugin.getLogger().warning("Could not set up the log file: " + e.getMessage());
+        }
+    }
+
+    private static LogLevel parseLevel(Object value)
+    {
+        return LogLevel.valueOf(value.toString().trim().toUpperCase(Locale.ROOT));
+    }
+
+    private void closeSink(JsonLogSink sink)
+    {
+        if (sink != null)
+        {
+            try
+            {
+                sink.close();
+            } catch (IOException e)
+            {
+                plugin.getLogger().warning("Could not close the log file: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes out the queued log records and stops the writer thread. Records logged afterwards are written
+     * synchronously.
+     */
+    public void shutdown()
+    {
+        writer.shutdown(5, TimeUnit.SECONDS);
+        setFileSink(null);
     }
 
     private static class SpigotLogger implements Logger
     {
         private final java.util.logging.Logger logger;
-        private final boolean isPistonCore;
+        private final String prefix;
+        private final String name;
+        private final AsyncLogWriter writer;
+        // This logger's file level, resolved once per sink; racing threads resolve the same value
+        private SinkLevel sinkLevel;
 
-        public SpigotLogger(java.util.logging.Logger logger, boolean isPistonCore)
+        public SpigotLogger(java.util.logging.Logger logger, String prefix, String name, AsyncLogWriter writer)
         {
             this.logger = logger;
-            this.isPistonCore = isPistonCore;
+            this.prefix = prefix;
+            this.name = name;
+            this.writer = writer;
+        }
+
+        @Override
+        public boolean isEnabled(LogLevel level)
+        {
+            return logger.isLoggable(AsyncLogWriter.toJulLevel(level)) || isFileEnabled(level);
+        }
+
+        private boolean isFileEnabled(LogLevel level)
+        {
+            JsonLogSink sink = writer.getSink();
+            if (sink == null)
+            {
+                return false;
+            }
+
+            SinkLevel cached = sinkLevel;
+            if (cached == null || cached.sink != sink)
+            {
+                cached = new SinkLevel(sink, sink.getLevel(name));
+                sinkLevel = cached;
+            }
+            return level.isAtLeast(cached.level);
         }
 
-        private void log(Level level, String message)
+        @Override
+        public void log(LogLevel level, String message, Throwable thrown)
         {
-            if (isPistonCore)
+            boolean toConsole = logger.isLoggable(AsyncLogWriter.toJulLevel(level));
+            boolean toFile = isFileEnabled(level);
+            if (!toConsole && !toFile)
             {
-                // For Piston Core, we need to log to the server console directly to avoid double prefixes
-                // Use the server's main logger instead of a custom one
-                java.util.logging.Logger serverLogger = java.util.logging.Logger.getLogger("Minecraft");
-                serverLogger.log(level, "[Piston Core] " + message);
-            } else
+                return;
+            }
+
+            if (thrown != null)
             {
-                // For user plugins, let Bukkit handle the prefixing
-                logger.log(level, message);
+                ErrorThrottle.Report report = writer.checkError(name, thrown);
+                if (report == null)
+                {
+                    return;
+                }
+                // Only the first occurrence carries the stack trace
+                if (!report.first())
+                {
+                    message = message + report.describeRepeats() + ": " + thrown;
+                    thrown = null;
+                }
             }
+            writer.write(toConsole ? logger : null, level, prefix, name, message, thrown, toFile);
         }
 
         @Override
         public void debug(String message)
         {
-            log(Level.FINE, message);
+            log(LogLevel.DEBUG, message, (Throwable) null);
         }
 
         @Override
         public void info(String message)
         {
-            log(Level.INFO, message);
+            log(LogLevel.INFO, message, (Throwable) null);
         }
 
         @Override
         public void warn(String message)
         {
-            log(Level.WARNING, message);
+            log(LogLevel.WARN, message, (Throwable) null);
         }
 
         @Override
         public void error(String message)
         {
-            log(Level.SEVERE, message);
+            log(LogLevel.ERROR, message, (Throwable) null);
         }
 
         @Override
         public void critical(String message)
         {
-            log(Level.SEVERE, message);
+            log(LogLevel.CRITICAL, message, (Throwable) null);
         }
     }
+
+    private record SinkLevel(JsonLogSink sink, LogLevel level)
+    {
+    }
 }
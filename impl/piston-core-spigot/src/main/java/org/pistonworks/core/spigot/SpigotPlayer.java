@@ -92,7 +92,7 @@ public class SpigotPlayer implements Player
     public Position getPosition()
     {
         org.bukkit.Location loc = bukkitPlayer.getLocation();
-        return new Position(null, loc.getX(), loc.getY(), loc.getZ()); // TODO: Implement world conversion
+        return new Position(SpigotWrapperCache.world(loc.getWorld()), loc.getX(), loc.getY(), loc.getZ());
     }
 
     @Override
@@ -154,8 +154,7 @@ public class SpigotPlayer implements Player
      */
     public World getWorld()
     {
-        // TODO: Implement SpigotWorld wrapper
-        return null;
+        return SpigotWrapperCache.world(bukkitPlayer.getWorld());
     }
 
     /**
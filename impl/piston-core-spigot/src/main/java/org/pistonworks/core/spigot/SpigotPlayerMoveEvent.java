@@ -0,0 +1,117 @@
+package org.pistonworks.core.spigot;
+
+import org.bukkit.Location;
+import org.pistonworks.core.api.event.playerevent.PlayerMoveEvent;
+import org.pistonworks.core.api.model.Orientation;
+import org.pistonworks.core.api.model.Position;
+import org.pistonworks.core.api.model.entity.Player;
+import org.pistonworks.core.common.event.AbstractCancellableEvent;
+
+/**
+ * Spigot implementation of PlayerMoveEvent backed directly by the Bukkit move event.
+ * The player, positions and orientations are converted on first access, so a listener that
+ * only checks one of them does not pay for the others. Before the event is handed to a listener on
+ * another thread, all of them are converted on the main thread, so that listener neither reads the
+ * Bukkit event off the main thread nor sees changes made to it after the hand-off.
+ */
+public class SpigotPlayerMoveEvent extends AbstractCancellableEvent implements PlayerMoveEvent
+{
+
+    private final org.bukkit.event.player.PlayerMoveEvent bukkitEvent;
+    private Player player;
+    private Position newPosition;
+    private Position oldPosition;
+    private Orientation newOrientation;
+    private Orientation oldOrientation;
+
+    /**
+     * Creates a new SpigotPlayerMoveEvent.
+     *
+     * @param bukkitEvent The Bukkit PlayerMoveEvent to wrap
+     */
+    public SpigotPlayerMoveEvent(org.bukkit.event.player.PlayerMoveEvent bukkitEvent)
+    {
+        this.bukkitEvent = bukkitEvent;
+    }
+
+    @Override
+    public Player getPlayer()
+    {
+        if (player == null)
+        {
+            player = SpigotWrapperCache.player(bukkitEvent.getPlayer());
+        }
+        return player;
+    }
+
+    @Override
+    public Position getNewPosition()
+    {
+        if (newPosition == null)
+        {
+            newPosition = toPosition(bukkitEvent.getTo());
+        }
+        return newPosition;
+    }
+
+    @Override
+    public Orientation getNewOrientation()
+    {
+        if (newOrientation == null)
+        {
+            newOrientation = toOrientation(bukkitEvent.getTo());
+        }
+        return newOrientation;
+    }
+
+    @Override
+    public Position getOldPosition()
+    {
+        if (oldPosition == null)
+        {
+            oldPosition = toPosition(bukkitEvent.getFrom());
+        }
+        return oldPosition;
+    }
+
+    @Override
+    public Orientation getOldOrientation()
+    {
+        if (oldOrientation == null)
+        {
+            oldOrientation = toOrientation(bukkitEvent.getFrom());
+        }
+        return oldOrientation;
+    }
+
+    @Override
+    protected void detach()
+    {
+        // Converted on the firing thread and published to the listener's thread by the hand-off
+        getPlayer();
+        getNewPosition();
+        getNewOrientation();
+        getOldPosition();
+        getOldOrientation();
+    }
+
+    /**
+     * Gets the underlying Bukkit event.
+     *
+     * @return the Bukkit PlayerMoveEvent
+     */
+    public org.bukkit.event.player.PlayerMoveEvent getBukkitEvent()
+    {
+        return bukkitEvent;
+    }
+
+    private static Position toPosition(Location location)
+    {
+        return new Position(SpigotWrapperCache.world(location.getWorld()), location.getX(), location.getY(), location.getZ());
+    }
+
+    private static Orientation toOrientation(Location location)
+    {
+        return new Orientation(location.getYaw(), location.getPitch());
+    }
+}
@@ -4,19 +4,29 @@ import org.pistonworks.core.api.service.PluginMetadataService;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.InputStream;
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Spigot implementation of PluginMetadataService that reads from piston-core.yml
+ * <p>
+ * The file is read once into a {@link ConfigSnapshot}, so properties, including nested ones addressed by dotted
+ * paths, are looked up without walking the document, typed values are parsed once, and the maps and lists returned
+ * are read-only views rather than copies. The plugin's identity and authors are resolved up front.
  */
 public class SpigotPluginMetadataService implements PluginMetadataService
 {
-    private final Map<String, Object> metadata;
     private final org.bukkit.plugin.Plugin plugin;
+    private final ConfigSnapshot metadata;
+    private final String name;
+    private final String version;
+    private final String description;
+    private final String mainClass;
+    private final List<String> authors;
+    private final String authorsString;
 
     /**
      * Creates a new SpigotPluginMetadataService instance.
@@ -26,10 +36,16 @@ public class SpigotPluginMetadataService implements PluginMetadataService
     public SpigotPluginMetadataService(org.bukkit.plugin.Plugin plugin)
     {
         this.plugin = plugin;
-        this.metadata = loadMetadata();
+        this.metadata = new ConfigSnapshot(loadMetadata(), plugin.getLogger());
+        this.name = getString("name", "Unknown");
+        this.version = getString("version", "Unknown");
+        this.description = getString("description", "No description");
+        this.mainClass = getString("main", "Unknown");
+        this.authors = parseAuthors(metadata.getValue("authors"));
+        this.authorsString = String.join(", ", authors);
     }
 
-    private Map<String, Object> loadMetadata()
+    private Map<?, ?> loadMetadata()
     {
         try
         {
@@ -37,124 +53,174 @@ public class SpigotPluginMetadataService implements PluginMetadataService
             if (pistonYmlStream == null)
             {
                 plugin.getLogger().warning("piston-core.yml not found in plugin resources");
-                return new HashMap<>();
+                return null;
             }
 
             Yaml yaml = new Yaml();
-            Map<String, Object> config = yaml.load(pistonYmlStream);
-            return config != null ? config : new HashMap<>();
+            return yaml.load(pistonYmlStream);
         } catch (Exception e)
         {
             plugin.getLogger().severe("Failed to load piston-core.yml: " + e.getMessage());
-            return new HashMap<>();
+            return null;
+        }
+    }
+
+    private String getString(String key, String defaultValue)
+    {
+        Object value = metadata.getValue(key);
+        return value != null ? value.toString() : defaultValue;
+    }
+
+    private static List<String> parseAuthors(Object authors)
+    {
+        if (authors == null)
+        {
+            return List.of("Unknown");
+        }
+
+        // Handle different formats that authors might be stored in
+        if (authors instanceof List<?> authorList)
+        {
+            return authorList.stream()
+                    .map(String::valueOf)
+                    .toList();
+        } else if (authors instanceof String authorsStr)
+        {
+            // If it's a string, split by commas
+            return Arrays.stream(authorsStr.split(","))
+                    .map(String::trim)
+                    .toList();
+        } else
+        {
+            // Fallback for any other type
+            return List.of(authors.toString());
         }
     }
 
     @Override
     public String getPluginName()
     {
-        Object name = metadata.get("name");
-        return name != null ? name.toString() : "Unknown";
+        return name;
     }
 
     @Override
     public String getPluginVersion()
     {
-        Object version = metadata.get("version");
-        return version != null ? version.toString() : "Unknown";
+        return version;
     }
 
     @Override
     public String getPluginDescription()
     {
-        Object description = metadata.get("description");
-        return description != null ? description.toString() : "No description";
+        return description;
     }
 
     @Override
     public String getPluginMainClass()
     {
-        Object main = metadata.get("main");
-        return main != null ? main.toString() : "Unknown";
+        return mainClass;
     }
 
     @Override
     public List<String> getPluginAuthors()
     {
-        Object authors = metadata.get("authors");
-        if (authors == null)
-        {
-            return List.of("Unknown");
-        }
-
-        // Handle different formats that authors might be stored in
-        if (authors instanceof List)
-        {
-            // If it's already a list, cast and convert to strings
-            @SuppressWarnings("unchecked")
-            List<Object> authorList = (List<Object>) authors;
-            return authorList.stream()
-                    .map(Object::toString)
-                    .collect(Collectors.toList());
-        } else if (authors instanceof String)
-        {
-            // If it's a string, split by common separators
-            String authorsStr = authors.toString();
-            if (authorsStr.contains(","))
-            {
-                return java.util.Arrays.stream(authorsStr.split(","))
-                        .map(String::trim)
-                        .collect(Collectors.toList());
-            } else
-            {
-                return List.of(authorsStr.trim());
-            }
-        } else
-        {
-            // Fallback for any other type
-            return List.of(authors.toString());
-        }
+        return authors;
     }
 
+    @Override
     public String getPluginAuthorsString()
     {
-        List<String> authors = getPluginAuthors();
-        return String.join(", ", authors);
+        return authorsString;
     }
 
     @Override
     public Optional<Object> getProperty(String key)
     {
-        return Optional.ofNullable(metadata.get(key));
+        return Optional.ofNullable(metadata.getValue(key));
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T> T getProperty(String key, T defaultValue)
     {
-        Object value = metadata.get(key);
-        if (value != null)
+        Object value = metadata.getValue(key);
+        if (value == null || defaultValue == null)
         {
-            try
-            {
-                return (T) value;
-            } catch (ClassCastException e)
-            {
-                plugin.getLogger().warning("Property '" + key + "' cannot be cast to expected type, returning default value");
-            }
+            return value != null ? (T) value : defaultValue;
+        }
+
+        // The cast is unchecked, so match the value to the default's type here instead of failing in the caller
+        if (isSameKind(value, defaultValue))
+        {
+            return (T) value;
+        }
+        // YAML reads small numbers as Integer and large ones as Long, whichever the default is
+        if (defaultValue instanceof Integer integer)
+        {
+            return (T) Integer.valueOf(metadata.getInt(key, integer));
+        }
+        if (defaultValue instanceof Long number)
+        {
+            return (T) Long.valueOf(metadata.getLong(key, number));
         }
+        if (defaultValue instanceof Double && value instanceof Number number)
+        {
+            return (T) Double.valueOf(number.doubleValue());
+        }
+        plugin.getLogger().warning("Property '" + key + "' cannot be cast to expected type, returning default value");
         return defaultValue;
     }
 
+    /**
+     * Checks whether a value can stand in for a default: lists and maps of any implementation, since the snapshot's
+     * are read-only wrappers, otherwise instances of the default's class.
+     */
+    private static boolean isSameKind(Object value, Object defaultValue)
+    {
+        if (defaultValue instanceof List<?>)
+        {
+            return value instanceof List<?>;
+        }
+        if (defaultValue instanceof Map<?, ?>)
+        {
+            return value instanceof Map<?, ?>;
+        }
+        return defaultValue.getClass().isInstance(value);
+    }
+
+    @Override
+    public int getInt(String key, int defaultValue)
+    {
+        return metadata.getInt(key, defaultValue);
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue)
+    {
+        return metadata.getLong(key, defaultValue);
+    }
+
+    @Override
+    public Duration getDuration(String key, Duration defaultValue)
+    {
+        return metadata.getDuration(key, defaultValue);
+    }
+
+    @Override
+    public List<String> getStringList(String key)
+    {
+        return metadata.getStringList(key);
+    }
+
     @Override
     public Map<String, Object> getAllProperties()
     {
-        return new HashMap<>(metadata);
+        return metadata.getRoot();
     }
 
     @Override
     public boolean hasProperty(String key)
     {
-        return metadata.containsKey(key);
+        return metadata.contains(key);
     }
 }
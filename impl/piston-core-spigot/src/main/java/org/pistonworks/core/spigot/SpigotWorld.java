@@ -53,7 +53,7 @@ public class SpigotWorld implements World
     public List<Player> getPlayers()
     {
         return bukkitWorld.getPlayers().stream()
-                .map(SpigotPlayer::new)
+                .map(SpigotWrapperCache::player)
                 .collect(Collectors.toList());
     }
 
@@ -0,0 +1,146 @@
+package org.pistonworks.core.spigot;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical Piston wrappers for Bukkit players and worlds.
+ * There is exactly one {@link SpigotPlayer} per online player and one {@link SpigotWorld} per loaded world,
+ * so wrappers can be compared by identity and used as keys for per-player state.
+ * Entries are dropped when the player quits or the world unloads. Players who are no longer online are wrapped
+ * but never cached.
+ */
+public final class SpigotWrapperCache
+{
+
+    private static final Map<UUID, SpigotPlayer> players = new ConcurrentHashMap<>();
+    private static final Map<UUID, SpigotWorld> worlds = new ConcurrentHashMap<>();
+
+    private SpigotWrapperCache()
+    {
+    }
+
+    /**
+     * Registers the Bukkit listener that invalidates wrappers on quit and world unload.
+     *
+     * @param plugin The JavaPlugin to register the listener with
+     */
+    public static void registerInvalidationListener(JavaPlugin plugin)
+    {
+        plugin.getServer().getPluginManager().registerEvents(new InvalidationListener(), plugin);
+    }
+
+    /**
+     * Gets the canonical wrapper for a Bukkit player.
+     *
+     * @param bukkitPlayer The Bukkit player, may be null
+     * @return the wrapper, or null if the player was null
+     */
+    public static SpigotPlayer player(org.bukkit.entity.Player bukkitPlayer)
+    {
+        if (bukkitPlayer == null)
+        {
+            return null;
+        }
+
+        SpigotPlayer cached = players.get(bukkitPlayer.getUniqueId());
+        if (cached != null && cached.getBukkitPlayer() == bukkitPlayer)
+        {
+            return cached;
+        }
+
+        if (!bukkitPlayer.isOnline())
+        {
+            // Caching an offline player would pin it until the same UUID joins again
+            return new SpigotPlayer(bukkitPlayer);
+        }
+
+        // Missing, or left over from a previous session whose quit we did not see
+        SpigotPlayer wrapper = players.compute(bukkitPlayer.getUniqueId(), (uuid, existing) ->
+                existing != null && existing.getBukkitPlayer() == bukkitPlayer ? existing : new SpigotPlayer(bukkitPlayer));
+        if (!bukkitPlayer.isOnline())
+        {
+            // The player quit and was invalidated while we were inserting, from another thread
+            players.remove(bukkitPlayer.getUniqueId(), wrapper);
+        }
+        return wrapper;
+    }
+
+    /**
+     * Gets the canonical wrapper for a Bukkit world.
+     *
+     * @param bukkitWorld The Bukkit world, may be null
+     * @return the wrapper, or null if the world was null
+     */
+    public static SpigotWorld world(org.bukkit.World bukkitWorld)
+    {
+        if (bukkitWorld == null)
+        {
+            return null;
+        }
+
+        SpigotWorld cached = worlds.get(bukkitWorld.getUID());
+        if (cached != null && cached.getBukkitWorld() == bukkitWorld)
+        {
+            return cached;
+        }
+
+        return worlds.compute(bukkitWorld.getUID(), (uuid, existing) ->
+                existing != null && existing.getBukkitWorld() == bukkitWorld ? existing : new SpigotWorld(bukkitWorld));
+    }
+
+    /**
+     * Drops the wrapper for a player.
+     *
+     * @param playerId The player's UUID
+     */
+    public static void invalidatePlayer(UUID playerId)
+    {
+        players.remove(playerId);
+    }
+
+    /**
+     * Drops the wrapper for a world.
+     *
+     * @param worldId The world's UUID
+     */
+    public static void invalidateWorld(UUID worldId)
+    {
+        worlds.remove(worldId);
+    }
+
+    /**
+     * Drops all cached wrappers.
+     */
+    public static void clear()
+    {
+        players.clear();
+        worlds.clear();
+    }
+
+    /**
+     * Invalidates wrappers at MONITOR priority so quit and unload handlers still see the canonical instance.
+     */
+    private static final class InvalidationListener implements Listener
+    {
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onPlayerQuit(PlayerQuitEvent event)
+        {
+            invalidatePlayer(event.getPlayer().getUniqueId());
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onWorldUnload(WorldUnloadEvent event)
+        {
+            invalidateWorld(event.getWorld().getUID());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.pistonworks.core.spigot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.pistonworks.core.api.logging.LogLevel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncLogWriterTest
+{
+
+    private final List<String> published = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> dropReports = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch stalled = new CountDownLatch(1);
+    private final CountDownLatch resume = new CountDownLatch(1);
+    private final Logger console = logger(record ->
+    {
+        if (record.getMessage().equals("stall"))
+        {
+            stalled.countDown();
+            await(resume);
+        }
+        published.add(record.getMessage());
+    });
+    private final AsyncLogWriter writer = new AsyncLogWriter(1, "Test Log Writer",
+            logger(record -> dropReports.add(record.getMessage())));
+
+    @AfterEach
+    void shutDown()
+    {
+        resume.countDown();
+        writer.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void publishesRecordsInOrder()
+    {
+        AsyncLogWriter roomy = new AsyncLogWriter(128, "Test Log Writer", console);
+        for (int i = 0; i < 100; i++)
+        {
+            roomy.write(console, LogLevel.INFO, null, "test", "record " + i, null, false);
+        }
+        roomy.shutdown(5, TimeUnit.SECONDS);
+
+        assertEquals(100, published.size());
+        assertEquals("record 0", published.get(0));
+        assertEquals("record 99", published.get(99));
+    }
+
+    @Test
+    void dropsWarningsAfterABriefWaitWhenTheBufferStaysFull()
+    {
+        write(LogLevel.WARN, "stall");
+        await(stalled);
+        write(LogLevel.WARN, "queued");
+
+        long start = System.nanoTime();
+        write(LogLevel.ERROR, "dropped error");
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        write(LogLevel.INFO, "dropped info");
+
+        assertTrue(waitedMillis >= 40 && waitedMillis < 2000, "waited " + waitedMillis + " ms");
+        resume.countDown();
+        writer.shutdown(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("stall", "queued"), published);
+        assertEquals(List.of("Dropped 2 log records, 1 of them warnings or errors, because the log buffer was full"),
+                dropReports);
+    }
+
+    @Test
+    void publishesOnTheCallingThreadAfterShutdown()
+    {
+        writer.shutdown(5, TimeUnit.SECONDS);
+
+        write(LogLevel.INFO, "late");
+
+        assertEquals(List.of("late"), published);
+    }
+
+    private void write(LogLevel level, String message)
+    {
+        writer.write(console, level, null, "test", message, null, false);
+    }
+
+    private static Logger logger(Consumer<LogRecord> handler)
+    {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new Handler()
+        {
+            @Override
+            public void publish(LogRecord record)
+            {
+                handler.accept(record);
+            }
+
+            @Override
+            public void flush()
+            {
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        });
+        return logger;
+    }
+
+    private static void await(CountDownLatch latch)
+    {
+        try
+        {
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "timed out");
+        } catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
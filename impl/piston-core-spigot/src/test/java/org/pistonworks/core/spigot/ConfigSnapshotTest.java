@@ -0,0 +1,172 @@
+package org.pistonworks.core.spigot;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigSnapshotTest
+{
+
+    private final List<String> warnings = new ArrayList<>();
+    private final Logger logger = Logger.getAnonymousLogger();
+
+    ConfigSnapshotTest()
+    {
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new Handler()
+        {
+            @Override
+            public void publish(LogRecord record)
+            {
+                warnings.add(record.getMessage());
+            }
+
+            @Override
+            public void flush()
+            {
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        });
+    }
+
+    @Test
+    void resolvesDottedPaths()
+    {
+        ConfigSnapshot config = snapshot(Map.of("logging", Map.of("file", Map.of("enabled", true, "level", "DEBUG"))));
+
+        assertEquals(true, config.getValue("logging.file.enabled"));
+        assertEquals("DEBUG", config.getValue("logging.file.level"));
+        assertEquals(Map.of("enabled", true, "level", "DEBUG"), config.getValue("logging.file"));
+        assertNull(config.getValue("logging.console"));
+        assertNull(config.getValue("logging.file.enabled.more"));
+    }
+
+    @Test
+    void topLevelKeysWinOverNestedPaths()
+    {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("a", Map.of("b", "nested"));
+        document.put("a.b", "top level");
+
+        assertEquals("top level", snapshot(document).getValue("a.b"));
+    }
+
+    @Test
+    void distinguishesNullsFromMissingKeys()
+    {
+        Map<String, Object> document = new HashMap<>();
+        document.put("empty", null);
+        ConfigSnapshot config = snapshot(document);
+
+        assertTrue(config.contains("empty"));
+        assertFalse(config.contains("missing"));
+        assertEquals(7, config.getInt("empty", 7));
+        assertEquals(Duration.ofSeconds(7), config.getDuration("empty", Duration.ofSeconds(7)));
+        assertEquals(List.of(), config.getStringList("empty"));
+    }
+
+    @Test
+    void copiesTheDocumentReadOnly()
+    {
+        Map<Object, Object> section = new HashMap<>();
+        section.put("names", new ArrayList<>(Arrays.asList("a", null)));
+        Map<Object, Object> document = new HashMap<>();
+        document.put("section", section);
+        document.put(1, "number key");
+        ConfigSnapshot config = snapshot(document);
+
+        section.put("late", "ignored");
+        assertNull(config.getValue("section.late"));
+        assertEquals("number key", config.getValue("1"));
+        assertEquals(Arrays.asList("a", null), config.getValue("section.names"));
+
+        assertThrows(UnsupportedOperationException.class, () -> config.getRoot().put("key", "value"));
+        assertThrows(UnsupportedOperationException.class, () ->
+                ((Map<?, ?>) config.getValue("section")).clear());
+        assertThrows(UnsupportedOperationException.class, () ->
+                ((List<?>) config.getValue("section.names")).clear());
+    }
+
+    @Test
+    void parsesNumbers()
+    {
+        ConfigSnapshot config = snapshot(Map.of("int", 12, "long", 5_000_000_000L, "string", " 42 "));
+
+        assertEquals(12, config.getInt("int", 0));
+        assertEquals(12L, config.getLong("int", 0));
+        assertEquals(5_000_000_000L, config.getLong("long", 0));
+        assertEquals(42, config.getInt("string", 0));
+        assertEquals(-1, config.getInt("missing", -1));
+    }
+
+    @Test
+    void parsesDurations()
+    {
+        ConfigSnapshot config = snapshot(Map.of("millis", 250, "seconds", "30s", "iso", "PT2M", "minutes", "5m"));
+
+        assertEquals(Duration.ofMillis(250), config.getDuration("millis", Duration.ZERO));
+        assertEquals(Duration.ofSeconds(30), config.getDuration("seconds", Duration.ZERO));
+        assertEquals(Duration.ofMinutes(2), config.getDuration("iso", Duration.ZERO));
+        assertEquals(Duration.ofMinutes(5), config.getDuration("minutes", Duration.ZERO));
+    }
+
+    @Test
+    void readsStringLists()
+    {
+        ConfigSnapshot config = snapshot(Map.of("list", List.of("a", 1, true), "single", "only"));
+
+        assertEquals(List.of("a", "1", "true"), config.getStringList("list"));
+        assertEquals(List.of("only"), config.getStringList("single"));
+        assertEquals(List.of(), config.getStringList("missing"));
+    }
+
+    @Test
+    void invalidValuesFallBackToTheDefaultAndAreReportedOnce()
+    {
+        ConfigSnapshot config = snapshot(Map.of("number", "many", "big", 5_000_000_000L, "duration", "soon"));
+
+        assertEquals(3, config.getInt("number", 3));
+        assertEquals(3L, config.getLong("number", 3));
+        assertEquals(3, config.getInt("big", 3));
+        assertEquals(Duration.ofSeconds(3), config.getDuration("duration", Duration.ofSeconds(3)));
+        assertEquals(Duration.ofSeconds(3), config.getDuration("duration", Duration.ofSeconds(3)));
+
+        assertEquals(List.of(
+                "Property 'number' is not a whole number: many",
+                "Property 'big' is not an integer: 5000000000",
+                "Property 'duration' is not a duration: soon"), warnings);
+    }
+
+    @Test
+    void acceptsAnEmptyDocument()
+    {
+        ConfigSnapshot config = snapshot(null);
+
+        assertEquals(Map.of(), config.getRoot());
+        assertFalse(config.contains("anything"));
+    }
+
+    private ConfigSnapshot snapshot(Map<?, ?> document)
+    {
+        return new ConfigSnapshot(document, logger);
+    }
+}
@@ -0,0 +1,117 @@
+package org.pistonworks.core.spigot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PlayerNameIndexTest
+{
+
+    private final UUID alex = UUID.randomUUID();
+    private final UUID alexander = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @Test
+    void tracksPlayersJoiningAndQuitting()
+    {
+        PlayerNameIndex index = new PlayerNameIndex(false);
+        index.playerJoined(alex, "Alex");
+        index.playerJoined(bob, "bob");
+
+        assertEquals(List.of("Alex", "bob"), index.getOnlineNames("", 10));
+
+        index.playerQuit(alex, "Alex");
+        assertEquals(List.of("bob"), index.getOnlineNames("", 10));
+        assertEquals(List.of("bob"), index.getKnownNames("", 10));
+        assertNull(index.getKnownUuid("alex"));
+    }
+
+    @Test
+    void quitKeepsAnotherPlayerWithTheSameName()
+    {
+        PlayerNameIndex index = new PlayerNameIndex(false);
+        index.playerJoined(alex, "Alex");
+
+        index.playerQuit(bob, "alex");
+        assertEquals(alex, index.getKnownUuid("ALEX"));
+    }
+
+    @Test
+    void completesPrefixesIgnoringCaseUpToTheLimit()
+    {
+        PlayerNameIndex index = new PlayerNameIndex(false);
+        index.playerJoined(alex, "Alex");
+        index.playerJoined(alexander, "alexander");
+        index.playerJoined(bob, "Bob");
+
+        assertEquals(List.of("Alex", "alexander"), index.getOnlineNames("AL", 10));
+        assertEquals(List.of("Alex"), index.getOnlineNames("al", 1));
+        assertEquals(List.of(), index.getOnlineNames("c", 10));
+    }
+
+    @Test
+    void findsTheClosestOnlineMatch()
+    {
+        PlayerNameIndex index = new PlayerNameIndex(false);
+        index.playerJoined(alexander, "Alexander");
+        index.playerJoined(alex, "Alexa");
+
+        assertEquals(alex, index.findOnline("ale"));
+        assertEquals(alexander, index.findOnline("alexander"));
+        assertEquals(alexander, index.findOnline("alexan"));
+        assertNull(index.findOnline("bo"));
+    }
+
+    @Test
+    void keepsOfflinePlayersWhenTracked()
+    {
+        PlayerNameIndex index = new PlayerNameIndex(true);
+        index.playerJoined(alex, "Alex");
+        index.playerKnown(bob, "Bob");
+        index.playerQuit(alex, "Alex");
+
+        assertEquals(List.of(), index.getOnlineNames("", 10));
+        assertEquals(List.of("Alex", "Bob"), index.getKnownNames("", 10));
+        assertEquals(bob, index.getKnownUuid("bob"));
+        assertNull(index.findOnline("bob"));
+    }
+
+    @Test
+    void renamedPlayersLoseTheirOldName()
+    {
+        PlayerNameIndex index = new PlayerNameIndex(true);
+        index.playerKnown(alex, "Alex");
+        index.playerJoined(alex, "Alexa");
+
+        assertEquals(List.of("Alexa"), index.getKnownNames("", 10));
+        assertNull(index.getKnownUuid("alex"));
+    }
+
+    @Test
+    void bulkLoadedNamesDoNotReplaceNewerOnes()
+    {
+        PlayerNameIndex index = new PlayerNameIndex(true);
+        index.playerJoined(alex, "Alexa");
+
+        index.playerKnownIfAbsent(alex, "Alex");
+        index.playerKnownIfAbsent(bob, "Bob");
+        index.playerKnownIfAbsent(alexander, null);
+
+        assertEquals(List.of("Alexa", "Bob"), index.getKnownNames("", 10));
+    }
+
+    @Test
+    void ignoresOfflinePlayersWhenNotTracked()
+    {
+        PlayerNameIndex index = new PlayerNameIndex(false);
+        index.playerKnown(bob, "Bob");
+        index.playerKnownIfAbsent(alex, "Alex");
+
+        assertEquals(List.of(), index.getKnownNames("", 10));
+        assertNull(index.getKnownUuid("bob"));
+    }
+}
@@ -0,0 +1,106 @@
+package org.pistonworks.core.spigot;
+
+import org.bukkit.command.BlockCommandSender;
+import org.junit.jupiter.api.Test;
+import org.pistonworks.core.api.command.Command;
+import org.pistonworks.core.api.command.CommandError;
+import org.pistonworks.core.api.command.CommandHandler;
+import org.pistonworks.core.api.command.DefaultCommandRegistry;
+import org.pistonworks.core.api.model.CommandSender;
+import org.pistonworks.core.api.model.ConsoleCommandSender;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpigotCommandServiceImplTest
+{
+
+    private final DefaultCommandRegistry registry = new DefaultCommandRegistry();
+    private final RestrictedHandler handler = new RestrictedHandler();
+
+    SpigotCommandServiceImplTest()
+    {
+        registry.registerCommands(handler);
+    }
+
+    @Test
+    void convertsTheConsoleToAConsoleSender()
+    {
+        CommandSender console = SpigotCommandServiceImpl.convertSender(
+                bukkitSender(org.bukkit.command.ConsoleCommandSender.class));
+
+        assertTrue(console instanceof ConsoleCommandSender);
+        assertEquals("CONSOLE", console.getName());
+        assertFalse(SpigotCommandServiceImpl.convertSender(bukkitSender(BlockCommandSender.class))
+                instanceof ConsoleCommandSender);
+    }
+
+    @Test
+    void consoleRunsConsoleOnlyCommandsButNotPlayerOnlyOnes()
+    {
+        CommandSender console = SpigotCommandServiceImpl.convertSender(
+                bukkitSender(org.bukkit.command.ConsoleCommandSender.class));
+
+        assertTrue(registry.executeCommand(console, "reload"));
+        assertFalse(registry.executeCommand(console, "home"));
+
+        assertEquals(List.of("reload"), handler.calls);
+        assertEquals(List.of(CommandError.ErrorType.PLAYER_ONLY), handler.errors);
+    }
+
+    @Test
+    void otherSendersCannotRunConsoleOnlyCommands()
+    {
+        CommandSender commandBlock = SpigotCommandServiceImpl.convertSender(bukkitSender(BlockCommandSender.class));
+
+        assertFalse(registry.executeCommand(commandBlock, "reload"));
+
+        assertEquals(List.of(), handler.calls);
+        assertEquals(List.of(CommandError.ErrorType.CONSOLE_ONLY), handler.errors);
+    }
+
+    /**
+     * Creates a Bukkit sender of the given type that is named CONSOLE and has every permission.
+     */
+    private static org.bukkit.command.CommandSender bukkitSender(Class<? extends org.bukkit.command.CommandSender> type)
+    {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName())
+                {
+                    case "getName" -> "CONSOLE";
+                    case "hasPermission" -> true;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                }));
+    }
+
+    static class RestrictedHandler extends CommandHandler
+    {
+        final List<String> calls = new ArrayList<>();
+        final List<CommandError.ErrorType> errors = new ArrayList<>();
+
+        @Command(value = "reload", consoleOnly = true)
+        void reload(CommandSender sender)
+        {
+            calls.add("reload");
+        }
+
+        @Command(value = "home", playerOnly = true)
+        void home(CommandSender sender)
+        {
+            calls.add("home");
+        }
+
+        @Override
+        protected void onCommandError(CommandSender sender, String command, CommandError error)
+        {
+            errors.add(error.getType());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+// Annotation processors that generate listener and command dispatchers at compile time.
+// They are only needed on the annotationProcessor path, so they live apart from the runtime api jar.
+dependencies {
+    implementation(project(":api"))
+}
+
+// Configure JAR output to root directory
+tasks.jar {
+    destinationDirectory.set(rootProject.projectDir.resolve("build/libs"))
+}
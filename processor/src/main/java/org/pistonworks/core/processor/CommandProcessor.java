@@ -0,0 +1,633 @@
+package org.pistonworks.core.processor;
+
+import org.pistonworks.core.api.command.Arg;
+import org.pistonworks.core.api.command.Command;
+import org.pistonworks.core.api.command.CommandDispatcher;
+import org.pistonworks.core.api.command.TabCompletion;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Generates a {@link CommandDispatcher} for every {@code CommandHandler} with @Command methods, and the
+ * {@link CommandDispatcher#INDEX_RESOURCE} index listing them.
+ * <p>
+ * Command methods are validated the same way the command registry validates them at runtime, and default values
+ * are parsed at compile time, so a malformed command fails the build instead of plugin startup. Handlers the
+ * generated code cannot call, such as private command methods or parameters of a type the registry has no parser
+ * for, are skipped and keep being registered through reflection.
+ * <p>
+ * Enable it with {@code annotationProcessor("org.pistonworks:api:<version>")}; the Piston Core Gradle plugin
+ * does this automatically.
+ */
+@SupportedAnnotationTypes("org.pistonworks.core.api.command.Command")
+public class CommandProcessor extends AbstractProcessor
+{
+
+    private static final String HANDLER_TYPE = "org.pistonworks.core.api.command.CommandHandler";
+    private static final String SENDER_TYPE = "org.pistonworks.core.api.model.CommandSender";
+    private static final String ARGUMENTS = "org.pistonworks.core.api.command.CommandArguments";
+
+    /**
+     * Handler binary names mapped to the types they were generated from, collected across rounds.
+     */
+    private final TreeMap<String, TypeElement> indexed = new TreeMap<>();
+
+    /**
+     * Handlers whose commands refer to types not generated yet, retried in the next round.
+     */
+    private final Set<String> deferred = new LinkedHashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+    {
+        if (roundEnv.processingOver())
+        {
+            writeIndex();
+            return false;
+        }
+
+        Set<TypeElement> handlers = new LinkedHashSet<>();
+        for (String name : deferred)
+        {
+            TypeElement type = processingEnv.getElementUtils().getTypeElement(name);
+            if (type != null)
+            {
+                handlers.add(type);
+            }
+        }
+        deferred.clear();
+        for (ExecutableElement method : ElementFilter.methodsIn(roundEnv.getElementsAnnotatedWith(Command.class)))
+        {
+            handlers.add((TypeElement) method.getEnclosingElement());
+        }
+
+        for (TypeElement type : handlers)
+        {
+            process(type);
+        }
+        return false;
+    }
+
+    private void process(TypeElement type)
+    {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        if (!ProcessorSupport.isResolved(types, type.asType()))
+        {
+            deferred.add(type.getQualifiedName().toString());
+            return;
+        }
+
+        // The registry only ever sees instances, so commands on interfaces and abstract classes are never registered
+        // from their declaring class
+        TypeElement handlerType = elements.getTypeElement(HANDLER_TYPE);
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)
+                || !types.isSubtype(types.erasure(type.asType()), types.erasure(handlerType.asType())))
+        {
+            return;
+        }
+
+        Map<String, ExecutableElement> completionMethods = new HashMap<>();
+        List<ExecutableElement> commandMethods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements()))
+        {
+            TabCompletion tabCompletion = method.getAnnotation(TabCompletion.class);
+            if (tabCompletion != null)
+            {
+                completionMethods.put(tabCompletion.value(), method);
+            }
+            if (method.getAnnotation(Command.class) != null)
+            {
+                commandMethods.add(method);
+            }
+        }
+
+        boolean valid = true;
+        boolean reachable = ProcessorSupport.isAccessible(elements, type, elements.getPackageOf(type));
+        for (ExecutableElement method : commandMethods)
+        {
+            for (VariableElement parameter : method.getParameters())
+            {
+                if (!ProcessorSupport.isResolved(types, parameter.asType()))
+                {
+                    deferred.add(type.getQualifiedName().toString());
+                    return;
+                }
+            }
+            valid &= validate(method);
+            reachable &= isReachable(method, completionMethods);
+        }
+
+        if (valid && reachable)
+        {
+            generateDispatcher(type, commandMethods, completionMethods);
+        }
+    }
+
+    private boolean validate(ExecutableElement method)
+    {
+        List<? extends VariableElement> parameters = method.getParameters();
+        TypeMirror sender = processingEnv.getElementUtils().getTypeElement(SENDER_TYPE).asType();
+        if (parameters.isEmpty() || !processingEnv.getTypeUtils().isAssignable(parameters.get(0).asType(), sender))
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Command method must have CommandSender as first parameter", method);
+            return false;
+        }
+
+        boolean valid = true;
+        for (int i = 1; i < parameters.size(); i++)
+        {
+            VariableElement parameter = parameters.get(i);
+            Arg arg = parameter.getAnnotation(Arg.class);
+            if (arg == null)
+            {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "All command parameters (except CommandSender) must be annotated with @Arg", parameter);
+                valid = false;
+            } else if (arg.optional() && defaultLiteral(parameter.asType(), arg.defaultValue()) == null)
+            {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Invalid default value for argument: " + arg.value(), parameter);
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Checks that generated code can call the command method and its completion methods, and parse every argument.
+     */
+    private boolean isReachable(ExecutableElement method, Map<String, ExecutableElement> completionMethods)
+    {
+        if (method.getModifiers().contains(Modifier.PRIVATE))
+        {
+            return false;
+        }
+
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(method);
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (int i = 0; i < parameters.size(); i++)
+        {
+            VariableElement parameter = parameters.get(i);
+            if (!isNameable(parameter.asType(), pkg))
+            {
+                return false;
+            }
+            if (i == 0)
+            {
+                continue;
+            }
+
+            if (parserFor(parameter.asType()) == null)
+            {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "No compile-time parser for " + parameter.asType() + ", the handler is registered through reflection",
+                        parameter);
+                return false;
+            }
+
+            Arg arg = parameter.getAnnotation(Arg.class);
+            ExecutableElement completionMethod = arg == null ? null : completionMethods.get(arg.completionMethod());
+            if (completionMethod != null && !isCallableCompleter(completionMethod))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isNameable(TypeMirror type, PackageElement pkg)
+    {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind() == TypeKind.ARRAY)
+        {
+            return isNameable(((ArrayType) erased).getComponentType(), pkg);
+        }
+        return erased.getKind() != TypeKind.DECLARED || ProcessorSupport.isAccessible(
+                processingEnv.getElementUtils(), (TypeElement) ((DeclaredType) erased).asElement(), pkg);
+    }
+
+    /**
+     * Checks that a completion method can be called as {@code (CommandSender, String, String[], String)} and
+     * returns a {@code List<String>} or a {@code CompletableFuture<List<String>>}.
+     */
+    private boolean isCallableCompleter(ExecutableElement method)
+    {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        if (method.getModifiers().contains(Modifier.PRIVATE) || method.getParameters().size() != 4)
+        {
+            return false;
+        }
+
+        TypeMirror string = elements.getTypeElement("java.lang.String").asType();
+        TypeMirror[] arguments = {
+                elements.getTypeElement(SENDER_TYPE).asType(), string, types.getArrayType(string), string
+        };
+        for (int i = 0; i < arguments.length; i++)
+        {
+            if (!types.isAssignable(arguments[i], method.getParameters().get(i).asType()))
+            {
+                return false;
+            }
+        }
+
+        return isCompletionList(method.getReturnType()) || isCompletionFuture(method.getReturnType());
+    }
+
+    private boolean isCompletionList(TypeMirror type)
+    {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror string = elements.getTypeElement("java.lang.String").asType();
+        return types.isAssignable(type, types.getDeclaredType(elements.getTypeElement("java.util.List"), string));
+    }
+
+    private boolean isCompletionFuture(TypeMirror type)
+    {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror stringList = types.getDeclaredType(elements.getTypeElement("java.util.List"),
+                elements.getTypeElement("java.lang.String").asType());
+        return types.isAssignable(type, types.getDeclaredType(
+                elements.getTypeElement("java.util.concurrent.CompletableFuture"), stringList));
+    }
+
+    /**
+     * Gets the {@code CommandArguments} call that parses {@code value} into a parameter type, matching the runtime
+     * parser: boxed types take an empty argument as null, and types a String can be passed as receive it unparsed.
+     *
+     * @return the expression with {@code %s} placeholders for the value and argument name literals, or null if
+     * the type has no parser
+     */
+    private String parserFor(TypeMirror type)
+    {
+        String simpleName = simpleName(type);
+        return switch (processingEnv.getTypeUtils().erasure(type).toString())
+        {
+            case "int" -> ARGUMENTS + ".parseInt(%s, \"int\", %s)";
+            case "long" -> ARGUMENTS + ".parseLong(%s, \"long\", %s)";
+            case "double" -> ARGUMENTS + ".parseDouble(%s, \"double\", %s)";
+            case "float" -> ARGUMENTS + ".parseFloat(%s, \"float\", %s)";
+            case "boolean" -> ARGUMENTS + ".parseBoolean(%1$s)";
+            case "java.lang.Integer" -> boxed(ARGUMENTS + ".parseInt(%1$s, \"" + simpleName + "\", %2$s)");
+            case "java.lang.Long" -> boxed(ARGUMENTS + ".parseLong(%1$s, \"" + simpleName + "\", %2$s)");
+            case "java.lang.Double" -> boxed(ARGUMENTS + ".parseDouble(%1$s, \"" + simpleName + "\", %2$s)");
+            case "java.lang.Float" -> boxed(ARGUMENTS + ".parseFloat(%1$s, \"" + simpleName + "\", %2$s)");
+            case "java.lang.Boolean" -> boxed(ARGUMENTS + ".parseBoolean(%1$s)");
+            default ->
+            {
+                TypeMirror string = processingEnv.getElementUtils().getTypeElement("java.lang.String").asType();
+                yield processingEnv.getTypeUtils().isAssignable(string, type)
+                        ? ARGUMENTS + ".parseString(%1$s)"
+                        : null;
+            }
+        };
+    }
+
+    private static String boxed(String parse)
+    {
+        return "(%1$s.isEmpty() ? null : " + parse + ")";
+    }
+
+    /**
+     * Parses a default value at compile time.
+     *
+     * @return the value as a Java expression, or null if it does not parse as the type
+     */
+    private String defaultLiteral(TypeMirror type, String value)
+    {
+        // Like the runtime parser, an empty default leaves boxed and string arguments null
+        if (type.getKind() == TypeKind.DECLARED && value.isEmpty())
+        {
+            return "null";
+        }
+
+        try
+        {
+            return switch (processingEnv.getTypeUtils().erasure(type).toString())
+            {
+                case "int", "java.lang.Integer" -> value.isEmpty() ? "0" : Integer.toString(Integer.parseInt(value));
+                case "long", "java.lang.Long" -> (value.isEmpty() ? "0" : Long.toString(Long.parseLong(value))) + "L";
+                case "double", "java.lang.Double" -> doubleLiteral(value.isEmpty() ? 0.0 : Double.parseDouble(value));
+                case "float", "java.lang.Float" -> floatLiteral(value.isEmpty() ? 0.0f : Float.parseFloat(value));
+                case "boolean", "java.lang.Boolean" -> Boolean.toString(Boolean.parseBoolean(value));
+                default -> value.isEmpty() ? "null" : ProcessorSupport.literal(value);
+            };
+        } catch (NumberFormatException e)
+        {
+            return null;
+        }
+    }
+
+    private static String doubleLiteral(double value)
+    {
+        if (Double.isNaN(value))
+        {
+            return "Double.NaN";
+        }
+        if (Double.isInfinite(value))
+        {
+            return value > 0 ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY";
+        }
+        return Double.toString(value);
+    }
+
+    private static String floatLiteral(float value)
+    {
+        if (Float.isNaN(value))
+        {
+            return "Float.NaN";
+        }
+        if (Float.isInfinite(value))
+        {
+            return value > 0 ? "Float.POSITIVE_INFINITY" : "Float.NEGATIVE_INFINITY";
+        }
+        return value + "f";
+    }
+
+    private String simpleName(TypeMirror type)
+    {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        return erased.getKind() == TypeKind.DECLARED
+                ? ((DeclaredType) erased).asElement().getSimpleName().toString()
+                : erased.toString();
+    }
+
+    private void generateDispatcher(TypeElement type, List<ExecutableElement> commandMethods,
+                                    Map<String, ExecutableElement> completionMethods)
+    {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        if (indexed.containsKey(binaryName))
+        {
+            return;
+        }
+        String[] generatedName = ProcessorSupport.generatedName(processingEnv.getElementUtils(), type,
+                CommandDispatcher.CLASS_SUFFIX);
+        String packageName = generatedName[0];
+        String simpleName = generatedName[1];
+        String handlerType = type.getQualifiedName().toString();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty())
+        {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+                .append("public final class ").append(simpleName)
+                .append(" implements org.pistonworks.core.api.command.CommandDispatcher\n{\n")
+                .append("    private static final java.util.List<CompiledCommand> COMMANDS = java.util.List.of(");
+
+        StringBuilder methods = new StringBuilder();
+        for (int i = 0; i < commandMethods.size(); i++)
+        {
+            ExecutableElement method = commandMethods.get(i);
+            Map<Integer, ExecutableElement> completers = new LinkedHashMap<>();
+            StringJoiner asyncCompletions = new StringJoiner(", ", "java.util.Set.of(", ")");
+            List<? extends VariableElement> parameters = method.getParameters();
+            for (int p = 1; p < parameters.size(); p++)
+            {
+                ExecutableElement completionMethod =
+                        completionMethods.get(parameters.get(p).getAnnotation(Arg.class).completionMethod());
+                if (completionMethod != null)
+                {
+                    completers.put(p - 1, completionMethod);
+                    if (isCompletionFuture(completionMethod.getReturnType()))
+                    {
+                        asyncCompletions.add(String.valueOf(p - 1));
+                    }
+                }
+            }
+
+            // One factory method per command keeps the static initializer small for large handlers
+            source.append(i == 0 ? "\n" : ",\n").append("            command").append(i).append("()");
+            methods.append("\n    private static CompiledCommand command").append(i).append("()\n")
+                    .append("    {\n")
+                    .append("        return new CompiledCommand(")
+                    .append(ProcessorSupport.literal(method.getSimpleName().toString())).append(", ")
+                    .append(commandInfo(method)).append(",\n")
+                    .append("                ").append(simpleName).append("::execute").append(i).append(", ")
+                    .append(completers.isEmpty() ? "null" : simpleName + "::complete" + i).append(", ")
+                    .append(asyncCompletions).append(");\n")
+                    .append("    }\n");
+
+            appendExecutor(methods, handlerType, method, i);
+            if (!completers.isEmpty())
+            {
+                appendCompleter(methods, handlerType, completers, i);
+            }
+        }
+
+        source.append(");\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.List<CompiledCommand> commands()\n")
+                .append("    {\n")
+                .append("        return COMMANDS;\n")
+                .append("    }\n")
+                .append(methods)
+                .append("}\n");
+
+        String dispatcherName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(dispatcherName, type).openWriter())
+        {
+            writer.write(source.toString());
+            indexed.put(binaryName, type);
+        } catch (IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to generate command dispatcher: " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * Renders the command's CommandInfo, with the same name resolution and usage string as the runtime registry.
+     */
+    private String commandInfo(ExecutableElement method)
+    {
+        Command command = method.getAnnotation(Command.class);
+        String name = !command.value().isEmpty() ? command.value()
+                : !command.name().isEmpty() ? command.name()
+                : method.getSimpleName().toString();
+
+        StringBuilder usage = new StringBuilder("/").append(name);
+        StringBuilder arguments = new StringBuilder("java.util.List.of(");
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (int p = 1; p < parameters.size(); p++)
+        {
+            VariableElement parameter = parameters.get(p);
+            Arg arg = parameter.getAnnotation(Arg.class);
+            usage.append(arg.optional() ? " [" : " <").append(arg.value()).append(arg.optional() ? "]" : ">");
+            arguments.append(p == 1 ? "\n" : ",\n")
+                    .append("                        new org.pistonworks.core.api.command.CommandInfo.ArgumentInfo(")
+                    .append(ProcessorSupport.literal(arg.value())).append(", ")
+                    .append(processingEnv.getTypeUtils().erasure(parameter.asType())).append(".class, ")
+                    .append(arg.optional()).append(", ")
+                    .append(ProcessorSupport.literal(arg.defaultValue())).append(", ")
+                    .append("org.pistonworks.core.api.command.Arg.CompletionType.").append(arg.completionType().name())
+                    .append(", ").append(stringList(arg.completions())).append(", ")
+                    .append(ProcessorSupport.literal(arg.completionMethod())).append(")");
+        }
+        arguments.append(")");
+
+        return "new org.pistonworks.core.api.command.CommandInfo("
+                + ProcessorSupport.literal(name) + ", "
+                + stringList(command.aliases()) + ", "
+                + ProcessorSupport.literal(command.description()) + ",\n                "
+                + ProcessorSupport.literal(command.usage().isEmpty() ? usage.toString() : command.usage()) + ", "
+                + ProcessorSupport.literal(command.permission()) + ", "
+                + command.playerOnly() + ", "
+                + command.consoleOnly() + ",\n                "
+                + arguments + ")";
+    }
+
+    private static String stringList(String[] values)
+    {
+        StringBuilder list = new StringBuilder("java.util.List.of(");
+        for (int i = 0; i < values.length; i++)
+        {
+            list.append(i == 0 ? "" : ", ").append(ProcessorSupport.literal(values[i]));
+        }
+        return list.append(")").toString();
+    }
+
+    private void appendExecutor(StringBuilder methods, String handlerType, ExecutableElement method, int index)
+    {
+        List<? extends VariableElement> parameters = method.getParameters();
+        methods.append("\n    private static void execute").append(index)
+                .append("(org.pistonworks.core.api.command.CommandHandler handler,\n")
+                .append("            org.pistonworks.core.api.model.CommandSender sender, String[] args) throws Exception\n")
+                .append("    {\n");
+
+        // Only narrow the sender when the method asks for a sender subtype; a redundant cast warns under -Xlint
+        String senderType = processingEnv.getTypeUtils().erasure(parameters.get(0).asType()).toString();
+        StringBuilder call = new StringBuilder(senderType.equals("org.pistonworks.core.api.model.CommandSender")
+                ? "sender"
+                : "(" + senderType + ") sender");
+        for (int p = 1; p < parameters.size(); p++)
+        {
+            VariableElement parameter = parameters.get(p);
+            Arg arg = parameter.getAnnotation(Arg.class);
+            String argument = ProcessorSupport.literal(arg.value());
+            String value = "a" + (p - 1);
+            String parse = String.format(parserFor(parameter.asType()), "args[" + (p - 1) + "]", argument);
+            String missing = arg.optional()
+                    ? value + " = " + defaultLiteral(parameter.asType(), arg.defaultValue()) + ";"
+                    : "throw " + ARGUMENTS + ".missing(" + argument + ");";
+
+            methods.append("        ").append(processingEnv.getTypeUtils().erasure(parameter.asType()))
+                    .append(' ').append(value).append(";\n")
+                    .append("        if (args.length > ").append(p - 1).append(")\n")
+                    .append("        {\n")
+                    .append("            ").append(value).append(" = ").append(parse).append(";\n")
+                    .append("        } else\n")
+                    .append("        {\n")
+                    .append("            ").append(missing).append("\n")
+                    .append("        }\n");
+            call.append(", ").append(value);
+        }
+
+        methods.append("        ").append(target(handlerType, method)).append('.').append(method.getSimpleName())
+                .append('(').append(call).append(");\n")
+                .append("    }\n");
+    }
+
+    private void appendCompleter(StringBuilder methods, String handlerType, Map<Integer, ExecutableElement> completers,
+                                 int index)
+    {
+        methods.append("\n    private static java.util.concurrent.CompletableFuture<java.util.List<String>> complete")
+                .append(index)
+                .append("(org.pistonworks.core.api.command.CommandHandler handler,\n")
+                .append("            org.pistonworks.core.api.model.CommandSender sender, String command, String[] args,\n")
+                .append("            int argIndex, String currentArg) throws Exception\n")
+                .append("    {\n")
+                .append("        switch (argIndex)\n")
+                .append("        {\n");
+        for (Map.Entry<Integer, ExecutableElement> entry : completers.entrySet())
+        {
+            ExecutableElement method = entry.getValue();
+            String call = target(handlerType, method) + "." + method.getSimpleName()
+                    + "(sender, command, args, currentArg)";
+            methods.append("            case ").append(entry.getKey()).append(":\n")
+                    .append("                return ")
+                    .append(isCompletionFuture(method.getReturnType())
+                            ? call
+                            : "java.util.concurrent.CompletableFuture.completedFuture(" + call + ")")
+                    .append(";\n");
+        }
+        methods.append("            default:\n")
+                .append("                return null;\n")
+                .append("        }\n")
+                .append("    }\n");
+    }
+
+    private static String target(String handlerType, ExecutableElement method)
+    {
+        return method.getModifiers().contains(Modifier.STATIC) ? handlerType : "((" + handlerType + ") handler)";
+    }
+
+    private void writeIndex()
+    {
+        if (indexed.isEmpty())
+        {
+            return;
+        }
+
+        try
+        {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    CommandDispatcher.INDEX_RESOURCE, indexed.values().toArray(new Element[0]));
+            try (Writer writer = index.openWriter())
+            {
+                writer.write("# Generated by " + getClass().getName() + "\n");
+                for (String binaryName : indexed.keySet())
+                {
+                    writer.write(binaryName);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write command index: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package org.pistonworks.core.processor;
+
+import org.pistonworks.core.api.event.EventHandler;
+import org.pistonworks.core.api.event.ListenerDispatcher;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates a {@link ListenerDispatcher} for every listener class with public @EventHandler methods,
+ * and the {@link ListenerDispatcher#INDEX_RESOURCE} index listing them.
+ * <p>
+ * Handler methods are validated the same way the event service validates them at runtime, so a malformed
+ * handler fails the build instead of plugin startup. Classes the generated code cannot reach, such as private
+ * nested classes, are skipped and keep being registered through reflection.
+ * <p>
+ * Enable it with {@code annotationProcessor("org.pistonworks:api:<version>")}; the Piston Core Gradle plugin
+ * does this automatically.
+ */
+@SupportedAnnotationTypes("org.pistonworks.core.api.event.EventHandler")
+public class EventHandlerProcessor extends AbstractProcessor
+{
+
+    private static final String EVENT_TYPE = "org.pistonworks.core.api.event.Event";
+
+    /**
+     * Listener binary names mapped to the types they were generated from, collected across rounds.
+     */
+    private final TreeMap<String, TypeElement> indexed = new TreeMap<>();
+
+    /**
+     * Types whose handlers refer to types not generated yet, retried in the next round.
+     */
+    private final Set<String> deferred = new LinkedHashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+    {
+        if (roundEnv.processingOver())
+        {
+            writeIndex();
+            return false;
+        }
+
+        for (ExecutableElement method : ElementFilter.methodsIn(roundEnv.getElementsAnnotatedWith(EventHandler.class)))
+        {
+            validate(method);
+        }
+
+        // Subclasses inherit handlers without declaring any, so every class in the round is considered
+        List<TypeElement> types = new ArrayList<>();
+        for (String name : deferred)
+        {
+            TypeElement type = processingEnv.getElementUtils().getTypeElement(name);
+            if (type != null)
+            {
+                types.add(type);
+            }
+        }
+        deferred.clear();
+        collectTypes(ElementFilter.typesIn(roundEnv.getRootElements()), types);
+
+        for (TypeElement type : types)
+        {
+            List<ExecutableElement> handlers = findHandlers(type);
+            if (handlers == null)
+            {
+                deferred.add(type.getQualifiedName().toString());
+            } else if (!handlers.isEmpty() && isReachable(type, handlers))
+            {
+                generateDispatcher(type, handlers);
+            }
+        }
+        return false;
+    }
+
+    private void collectTypes(Iterable<TypeElement> roots, List<TypeElement> into)
+    {
+        for (TypeElement type : roots)
+        {
+            into.add(type);
+            collectTypes(ElementFilter.typesIn(type.getEnclosedElements()), into);
+        }
+    }
+
+    private void validate(ExecutableElement method)
+    {
+        if (!method.getModifiers().contains(Modifier.PUBLIC))
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "@EventHandler method is not public and will never be called", method);
+            return;
+        }
+
+        if (method.getParameters().size() != 1)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Event handler method must have exactly one parameter", method);
+            return;
+        }
+
+        // Unresolved types are reported by the compiler itself
+        TypeMirror parameterType = method.getParameters().get(0).asType();
+        if (ProcessorSupport.isResolved(processingEnv.getTypeUtils(), parameterType) && !isEvent(parameterType))
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Event handler method parameter must extend Event", method);
+        }
+    }
+
+    /**
+     * Finds the methods the runtime would register for an instance of the type: every public method,
+     * declared or inherited, that carries @EventHandler.
+     *
+     * @return the handlers, or null if a handler's parameter type cannot be resolved yet
+     */
+    private List<ExecutableElement> findHandlers(TypeElement type)
+    {
+        List<ExecutableElement> handlers = new ArrayList<>();
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.ENUM
+                && type.getKind() != ElementKind.RECORD)
+        {
+            return handlers;
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT))
+        {
+            return handlers;
+        }
+
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type)))
+        {
+            if (method.getAnnotation(EventHandler.class) == null
+                    || !method.getModifiers().contains(Modifier.PUBLIC)
+                    || method.getParameters().size() != 1)
+            {
+                continue;
+            }
+
+            TypeMirror parameterType = method.getParameters().get(0).asType();
+            if (!ProcessorSupport.isResolved(processingEnv.getTypeUtils(), parameterType))
+            {
+                return null;
+            }
+            if (isEvent(parameterType))
+            {
+                handlers.add(method);
+            }
+        }
+        return handlers;
+    }
+
+    private boolean isEvent(TypeMirror type)
+    {
+        TypeElement event = processingEnv.getElementUtils().getTypeElement(EVENT_TYPE);
+        return event != null && processingEnv.getTypeUtils().isAssignable(
+                processingEnv.getTypeUtils().erasure(type), processingEnv.getTypeUtils().erasure(event.asType()));
+    }
+
+    /**
+     * Checks that code in the listener's package can name the listener and every handler's event type.
+     */
+    private boolean isReachable(TypeElement type, List<ExecutableElement> handlers)
+    {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        if (!ProcessorSupport.isAccessible(processingEnv.getElementUtils(), type, pkg))
+        {
+            return false;
+        }
+        for (ExecutableElement handler : handlers)
+        {
+            TypeMirror eventType = processingEnv.getTypeUtils().erasure(handler.getParameters().get(0).asType());
+            if (eventType.getKind() != TypeKind.DECLARED
+                    || !ProcessorSupport.isAccessible(processingEnv.getElementUtils(),
+                    (TypeElement) ((DeclaredType) eventType).asElement(), pkg))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void generateDispatcher(TypeElement type, List<ExecutableElement> handlers)
+    {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        if (indexed.containsKey(binaryName))
+        {
+            return;
+        }
+        String[] generatedName = ProcessorSupport.generatedName(processingEnv.getElementUtils(), type,
+                ListenerDispatcher.CLASS_SUFFIX);
+        String packageName = generatedName[0];
+        String simpleName = generatedName[1];
+        String listenerType = type.getQualifiedName().toString();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty())
+        {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+                .append("public final class ").append(simpleName)
+                .append(" implements org.pistonworks.core.api.event.ListenerDispatcher\n{\n")
+                .append("    private static final java.util.List<Handler> HANDLERS = java.util.List.of(");
+
+        for (int i = 0; i < handlers.size(); i++)
+        {
+            ExecutableElement handler = handlers.get(i);
+            EventHandler annotation = handler.getAnnotation(EventHandler.class);
+            String eventType = processingEnv.getTypeUtils().erasure(handler.getParameters().get(0).asType()).toString();
+            String methodName = handler.getSimpleName().toString();
+            String target = handler.getModifiers().contains(Modifier.STATIC)
+                    ? listenerType
+                    : "((" + listenerType + ") listener)";
+
+            source.append(i == 0 ? "\n" : ",\n")
+                    .append("            new Handler(").append(ProcessorSupport.literal(methodName)).append(", ")
+                    .append(eventType).append(".class, ")
+                    .append("org.pistonworks.core.api.event.EventPriority.").append(annotation.priority().name())
+                    .append(", ").append(annotation.ignoreCancelled())
+                    .append(", ").append(annotation.blocking())
+                    .append(", ").append(annotation.maxConcurrency()).append(",\n")
+                    .append("                    (listener, event) -> ").append(target).append('.')
+                    .append(methodName).append("((").append(eventType).append(") event))");
+        }
+
+        source.append(");\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.List<Handler> handlers()\n")
+                .append("    {\n")
+                .append("        return HANDLERS;\n")
+                .append("    }\n")
+                .append("}\n");
+
+        String dispatcherName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(dispatcherName, type).openWriter())
+        {
+            writer.write(source.toString());
+            indexed.put(binaryName, type);
+        } catch (IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to generate listener dispatcher: " + e.getMessage(), type);
+        }
+    }
+
+    private void writeIndex()
+    {
+        if (indexed.isEmpty())
+        {
+            return;
+        }
+
+        try
+        {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    ListenerDispatcher.INDEX_RESOURCE, indexed.values().toArray(new Element[0]));
+            try (Writer writer = index.openWriter())
+            {
+                writer.write("# Generated by " + getClass().getName() + "\n");
+                for (String binaryName : indexed.keySet())
+                {
+                    writer.write(binaryName);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write listener index: " + e.getMessage());
+        }
+    }
+}
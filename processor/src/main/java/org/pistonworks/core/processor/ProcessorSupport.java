@@ -0,0 +1,107 @@
+package org.pistonworks.core.processor;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.Set;
+
+/**
+ * Helpers shared by the Piston Core annotation processors.
+ */
+final class ProcessorSupport
+{
+
+    private ProcessorSupport()
+    {
+    }
+
+    /**
+     * Checks that a type and all its supertypes are resolved. Unresolved types may still be generated by
+     * another processor in a later round.
+     */
+    static boolean isResolved(Types types, TypeMirror type)
+    {
+        if (type.getKind() == TypeKind.ERROR)
+        {
+            return false;
+        }
+        for (TypeMirror supertype : types.directSupertypes(type))
+        {
+            if (!isResolved(types, supertype))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that code in the given package can name a type.
+     */
+    static boolean isAccessible(Elements elements, TypeElement type, PackageElement from)
+    {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement())
+        {
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE))
+            {
+                return false;
+            }
+            if (!modifiers.contains(Modifier.PUBLIC) && !elements.getPackageOf(element).equals(from))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the package name and the top-level class name to generate for a type, by appending a suffix to its
+     * binary name, e.g. {@code Outer$Inner$$Suffix}.
+     */
+    static String[] generatedName(Elements elements, TypeElement type, String suffix)
+    {
+        String binaryName = elements.getBinaryName(type).toString();
+        PackageElement pkg = elements.getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + suffix;
+        return new String[]{packageName, simpleName};
+    }
+
+    /**
+     * Renders a string as a Java string literal.
+     */
+    static String literal(String value)
+    {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            switch (c)
+            {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default ->
+                {
+                    if (c < 0x20 || c > 0x7e)
+                    {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else
+                    {
+                        literal.append(c);
+                    }
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
@@ -2,5 +2,7 @@ rootProject.name = "piston-core"
 
 include("api")
 include("common")
+include("processor")
 include("impl:piston-core-spigot")
 include("gradle-plugin")
+include("benchmarks")